@@ -0,0 +1,99 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Gerador de carga simples: N clientes concorrentes (threads virtuais) fazendo GET
+// em loop durante um tempo fixo. Imprime vazão, p50, p99 e erros.
+//
+// Uso (sem compilar, Java 21+):
+//   java scripts/carga/CargaHttp.java <url> <concorrencia> <segundos>
+// Na url, o marcador {id} é trocado por um id aleatório entre 1 e $CARGA_IDS (padrão 1000).
+public class CargaHttp {
+
+    public static void main(String[] args) throws Exception {
+        String url = args[0];
+        int concorrencia = Integer.parseInt(args[1]);
+        int segundos = Integer.parseInt(args[2]);
+        int ids = Integer.parseInt(System.getenv().getOrDefault("CARGA_IDS", "1000"));
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        AtomicLong erros = new AtomicLong();
+        long fim = System.nanoTime() + Duration.ofSeconds(segundos).toNanos();
+
+        List<Future<long[]>> clientes = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concorrencia; i++) {
+                clientes.add(executor.submit(() -> {
+                    long[] latencias = new long[1024];
+                    int total = 0;
+                    while (System.nanoTime() < fim) {
+                        String alvo = url.replace("{id}",
+                                Integer.toString(ThreadLocalRandom.current().nextInt(1, ids + 1)));
+                        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(alvo))
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long inicio = System.nanoTime();
+                        try {
+                            HttpResponse<Void> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                            if (resposta.statusCode() >= 500) {
+                                erros.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                        }
+                        if (total == latencias.length) {
+                            latencias = Arrays.copyOf(latencias, total * 2);
+                        }
+                        latencias[total++] = System.nanoTime() - inicio;
+                    }
+                    return Arrays.copyOf(latencias, total);
+                }));
+            }
+        }
+
+        long[] todas = clientes.stream()
+                .map(CargaHttp::resultado)
+                .flatMapToLong(Arrays::stream)
+                .sorted()
+                .toArray();
+
+        System.out.printf("requisicoes=%d erros=%d vazao=%.0f req/s p50=%.2fms p99=%.2fms max=%.2fms%n",
+                todas.length,
+                erros.get(),
+                todas.length / (double) segundos,
+                percentil(todas, 0.50),
+                percentil(todas, 0.99),
+                todas.length == 0 ? 0 : todas[todas.length - 1] / 1e6);
+    }
+
+    private static long[] resultado(Future<long[]> futuro) {
+        try {
+            return futuro.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+    }
+}
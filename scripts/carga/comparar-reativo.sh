@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Compara a pilha servlet (JDBC/JPA) com a variante reativa (WebFlux + R2DBC,
+# profile Maven "reativo") sob a mesma carga e o mesmo teto de heap, e reporta
+# a memória residente de cada processo ao fim da medição.
+#
+# Uso: scripts/carga/comparar-reativo.sh [concorrencia] [segundos]
+# Requer Java 21+. As duas aplicações rodam com o classpath de teste (H2 em memória).
+set -euo pipefail
+
+CONCORRENCIA="${1:-1000}"
+SEGUNDOS="${2:-30}"
+PORTA="${PORTA:-8080}"
+USUARIOS="${CARGA_IDS:-1000}"
+HEAP="${HEAP:-256m}"
+BASE="http://localhost:${PORTA}"
+MVN="${MVN:-sh ./mvnw}"
+RAIZ="$(cd "$(dirname "$0")/../.." && pwd)"
+SAIDA="${RAIZ}/target/carga"
+
+mkdir -p "${SAIDA}"
+cd "${RAIZ}"
+
+executar() {
+  local modo="$1"
+  local profile_maven="$2"
+  local principal="$3"
+  local log="${SAIDA}/app-${modo}.log"
+
+  ${MVN} -q ${profile_maven} -DskipTests test-compile
+
+  # Mesmo -Xmx nas duas pilhas; cache de leitura e limite por cliente desligados
+  # como em comparar-threads.sh. O custo do BCrypt só pesa na massa de dados.
+  ${MVN} -q ${profile_maven} spring-boot:test-run \
+    -Dspring-boot.run.jvmArguments="-Xmx${HEAP} -Dserver.port=${PORTA} -Dlogging.level.root=WARN -Dusuarios.cache.tamanho-maximo=0 -Dusuarios.limite.habilitado=false -Dusuarios.senha.bcrypt-custo=4" \
+    > "${log}" 2>&1 &
+  local pid=$!
+
+  until curl -sf "${BASE}/actuator/health" > /dev/null; do sleep 1; done
+
+  # A variante reativa não tem /usuarios/lote; a massa entra por POSTs paralelos
+  seq 1 "${USUARIOS}" | xargs -P 16 -I{} curl -sf -o /dev/null -H 'Content-Type: application/json' \
+    -d '{"nome":"Carga {}","email":"carga{}@teste.com","senha":"123456"}' "${BASE}/usuarios"
+
+  # Aquecimento curto antes da medição
+  CARGA_IDS="${USUARIOS}" java scripts/carga/CargaHttp.java "${BASE}/usuarios/{id}" 50 5 > /dev/null
+
+  echo "== ${modo}: GET /usuarios/{id}"
+  CARGA_IDS="${USUARIOS}" java scripts/carga/CargaHttp.java "${BASE}/usuarios/{id}" "${CONCORRENCIA}" "${SEGUNDOS}"
+  echo "== ${modo}: GET /usuarios?limite=50"
+  java scripts/carga/CargaHttp.java "${BASE}/usuarios?limite=50" "${CONCORRENCIA}" "${SEGUNDOS}"
+
+  # O processo da aplicação é o java que o plugin dispara, não o do Maven
+  local app
+  app=$(pgrep -f "java .* ${principal}( |$)" | head -1 || true)
+  echo "== ${modo}: memória"
+  if [ -n "${app}" ]; then
+    echo "rss: $(ps -o rss= -p "${app}" | awk '{printf "%.0f MB", $1 / 1024}')"
+    echo "threads: $(ps -o nlwp= -p "${app}" | tr -d ' ')"
+  else
+    echo "processo da aplicação não encontrado"
+  fi
+
+  kill "${pid}"
+  wait "${pid}" 2> /dev/null || true
+  [ -n "${app}" ] && kill "${app}" 2> /dev/null || true
+  echo
+}
+
+executar servlet "" com.projetoapi.ProjetoapiApplication
+executar reativo "-Preativo" com.projetoapi.reativo.ProjetoapiReativoApplication
@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Compara a API atendendo em threads de plataforma (padrão) e em threads virtuais
+# (profile "virtual") sob a mesma carga, e reporta pinning de threads virtuais.
+#
+# Uso: scripts/carga/comparar-threads.sh [concorrencia] [segundos]
+# Requer Java 21+. A aplicação roda com o classpath de teste (H2 em memória).
+set -euo pipefail
+
+CONCORRENCIA="${1:-1000}"
+SEGUNDOS="${2:-30}"
+PORTA="${PORTA:-8080}"
+USUARIOS="${CARGA_IDS:-1000}"
+BASE="http://localhost:${PORTA}"
+MVN="${MVN:-sh ./mvnw}"
+RAIZ="$(cd "$(dirname "$0")/../.." && pwd)"
+SAIDA="${RAIZ}/target/carga"
+
+mkdir -p "${SAIDA}"
+cd "${RAIZ}"
+${MVN} -q -DskipTests test-compile
+
+executar() {
+  local modo="$1"
+  local profiles="$2"
+  local log="${SAIDA}/app-${modo}.log"
+
+  # jdk.tracePinnedThreads imprime a pilha sempre que uma thread virtual fica presa
+  # à thread portadora (synchronized, chamadas nativas) durante um bloqueio.
+  # O cache de leitura é desligado para que a carga passe pelo JDBC de verdade,
+  # e o limite por cliente também, já que toda a carga sai do mesmo IP.
+  ${MVN} -q spring-boot:test-run \
+    -Dspring-boot.run.profiles="${profiles}" \
+    -Dspring-boot.run.jvmArguments="-Djdk.tracePinnedThreads=full -Dserver.port=${PORTA} -Dlogging.level.root=WARN -Dusuarios.cache.tamanho-maximo=0 -Dusuarios.limite.habilitado=false" \
+    > "${log}" 2>&1 &
+  local pid=$!
+
+  until curl -sf "${BASE}/actuator/health" > /dev/null; do sleep 1; done
+
+  # Massa de dados: um lote NDJSON com os usuários que a carga vai consultar
+  for i in $(seq 1 "${USUARIOS}"); do
+    printf '{"nome":"Carga %d","email":"carga%d@teste.com","senha":"123456"}\n' "$i" "$i"
+  done | curl -sf -o /dev/null -H 'Content-Type: application/x-ndjson' --data-binary @- "${BASE}/usuarios/lote"
+
+  # Aquecimento curto antes da medição
+  CARGA_IDS="${USUARIOS}" java scripts/carga/CargaHttp.java "${BASE}/usuarios/{id}" 50 5 > /dev/null
+
+  echo "== ${modo}: GET /usuarios/{id}"
+  CARGA_IDS="${USUARIOS}" java scripts/carga/CargaHttp.java "${BASE}/usuarios/{id}" "${CONCORRENCIA}" "${SEGUNDOS}"
+  echo "== ${modo}: GET /usuarios?limite=50"
+  java scripts/carga/CargaHttp.java "${BASE}/usuarios?limite=50" "${CONCORRENCIA}" "${SEGUNDOS}"
+
+  kill "${pid}"
+  wait "${pid}" 2> /dev/null || true
+
+  echo "== ${modo}: pinning"
+  local pinning
+  pinning=$(grep -c "onPinned" "${log}" || true)
+  echo "eventos de pinning: ${pinning}"
+  if [ "${pinning}" -gt 0 ]; then
+    echo "frames do projeto/repositório envolvidos:"
+    grep -E "com\.projetoapi|org\.springframework\.data|org\.hibernate|com\.zaxxer|org\.h2|org\.postgresql" "${log}" \
+      | sed 's/^[[:space:]]*//' | sort | uniq -c | sort -rn | head -20
+  fi
+  echo
+}
+
+executar plataforma default
+executar virtual virtual
@@ -0,0 +1,76 @@
+#!/usr/bin/env bash
+# Mede o tempo até a primeira resposta (GET /usuarios?limite=1, que já passa pelo banco)
+# e a memória residente logo depois, para cada forma de executar a API:
+#   jit      jar comum
+#   aot      jar com as classes geradas pelo AOT do Spring (-Dspring.aot.enabled=true)
+#   aot-cds  AOT + arquivo CDS gravado no build (profile Maven "aot")
+#   nativo   imagem nativa (profile "native"), só se native-image estiver no PATH
+#
+# Uso: scripts/inicializacao/comparar-inicializacao.sh [repeticoes]
+# Requer Java 21+. Os artefatos são gerados pelo próprio script.
+set -euo pipefail
+
+REPETICOES="${1:-5}"
+PORTA="${PORTA:-8080}"
+BASE="http://localhost:${PORTA}"
+MVN="${MVN:-sh ./mvnw}"
+RAIZ="$(cd "$(dirname "$0")/../.." && pwd)"
+SAIDA="${RAIZ}/target/inicializacao"
+AOT="${RAIZ}/target/aot"
+NATIVO="${RAIZ}/target/projetoapi"
+
+mkdir -p "${SAIDA}"
+cd "${RAIZ}"
+
+${MVN} -q -Paot -DskipTests package
+if command -v native-image > /dev/null; then
+  ${MVN} -q -Pnative -DskipTests native:compile
+  # O native:compile gera de novo o jar sem o CDS; o extraído em target/aot não é tocado
+fi
+JAR="$(ls "${AOT}"/*.jar | head -1)"
+
+# Executa o comando informado REPETICOES vezes e imprime as médias
+medir() {
+  local variante="$1"
+  shift
+  local total_ms=0 total_rss=0 menor_ms=0
+
+  for _ in $(seq 1 "${REPETICOES}"); do
+    local inicio
+    inicio=$(date +%s%N)
+    "$@" --server.port="${PORTA}" --logging.level.root=WARN > "${SAIDA}/${variante}.log" 2>&1 &
+    local pid=$!
+
+    until curl -sf -o /dev/null "${BASE}/usuarios?limite=1"; do
+      if ! kill -0 "${pid}" 2> /dev/null; then
+        echo "${variante}: a aplicação terminou antes de responder; ver ${SAIDA}/${variante}.log"
+        return
+      fi
+      sleep 0.01
+    done
+
+    local ms=$(( ($(date +%s%N) - inicio) / 1000000 ))
+    local rss
+    rss=$(ps -o rss= -p "${pid}" | tr -d ' ')
+    kill "${pid}"
+    wait "${pid}" 2> /dev/null || true
+
+    total_ms=$(( total_ms + ms ))
+    total_rss=$(( total_rss + rss ))
+    if [ "${menor_ms}" -eq 0 ] || [ "${ms}" -lt "${menor_ms}" ]; then
+      menor_ms="${ms}"
+    fi
+  done
+
+  printf '%-8s primeira resposta: média %5d ms, melhor %5d ms | rss: %4d MB\n' "${variante}" \
+    $(( total_ms / REPETICOES )) "${menor_ms}" $(( total_rss / REPETICOES / 1024 ))
+}
+
+medir jit java -jar "${JAR}"
+medir aot java -Dspring.aot.enabled=true -jar "${JAR}"
+medir aot-cds java -XX:SharedArchiveFile="${AOT}/projetoapi.jsa" -Dspring.aot.enabled=true -jar "${JAR}"
+if [ -x "${NATIVO}" ]; then
+  medir nativo "${NATIVO}"
+else
+  echo "nativo   ignorado: native-image (GraalVM) não encontrado"
+fi
@@ -0,0 +1,107 @@
+package com.projetoapi.benchmarks;
+
+import com.projetoapi.ProjetoapiApplication;
+import com.projetoapi.dto.UsuarioRequestDTO;
+import com.projetoapi.services.UsuarioService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+// O que o gateway faz para montar uma página: resolver N ids. Compara N chamadas
+// GET /usuarios/{id} em sequência (numa conexão keep-alive) com um único
+// POST /usuarios/consulta, de ponta a ponta pelo HTTP contra a aplicação com H2.
+// cacheTamanho = 0 desliga na prática o cache, para que todo id vá ao banco.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsultaEmLoteBenchmark {
+
+    private static final int USUARIOS_PRE_CADASTRADOS = 2_000;
+
+    @Param({"50", "300"})
+    private int quantidade;
+
+    @Param({"0", "10000"})
+    private int cacheTamanho;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private String base;
+    private long menorId;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(ProjetoapiApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--usuarios.cache.tamanho-maximo=" + cacheTamanho,
+                        "--usuarios.limite.habilitado=false",
+                        "--usuarios.senha.bcrypt-custo=4",
+                        "--logging.level.root=WARN");
+
+        UsuarioService service = contexto.getBean(UsuarioService.class);
+        menorId = Long.MAX_VALUE;
+        for (int i = 1; i <= USUARIOS_PRE_CADASTRADOS; i++) {
+            UsuarioRequestDTO dto = new UsuarioRequestDTO();
+            dto.setNome("Usuario " + i);
+            dto.setEmail("usuario" + i + "@gmail.com");
+            dto.setSenha("123456");
+            menorId = Math.min(menorId, service.cadastrarUsuario(dto).getId());
+        }
+
+        int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        base = "http://localhost:" + porta + "/usuarios";
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void encerrar() {
+        cliente.close();
+        contexto.close();
+    }
+
+    // Ids sorteados a cada chamada, para que o cache (quando ligado) não guarde sempre os mesmos
+    private List<Long> sortearIds() {
+        long inicio = menorId + ThreadLocalRandom.current().nextInt(USUARIOS_PRE_CADASTRADOS - quantidade);
+        return LongStream.range(inicio, inicio + quantidade).boxed().toList();
+    }
+
+    @Benchmark
+    public long chamadasIndividuais() throws IOException, InterruptedException {
+        long bytes = 0;
+        for (Long id : sortearIds()) {
+            HttpRequest requisicao = HttpRequest.newBuilder(URI.create(base + "/" + id)).GET().build();
+            bytes += cliente.send(requisicao, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public long consultaEmLote() throws IOException, InterruptedException {
+        String corpo = sortearIds().stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",", "{\"ids\":[", "]}"));
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(base + "/consulta"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+    }
+}
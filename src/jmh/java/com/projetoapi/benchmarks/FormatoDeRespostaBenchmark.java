@@ -0,0 +1,101 @@
+package com.projetoapi.benchmarks;
+
+import com.projetoapi.dto.UsuarioResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+// Escrita da lista completa de usuários (GET /usuarios) em cada formato aceito,
+// com e sem gzip, do mesmo jeito que o controller faz: um writePOJO por usuário
+// num gerador sobre o stream da resposta. Mede o tempo de codificação; o tamanho
+// que iria pela rede sai como resultado secundário (escreverLista:bytes), também
+// no arquivo de resultados.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FormatoDeRespostaBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int usuarios;
+
+    @Param({"json", "cbor"})
+    private String formato;
+
+    @Param({"nenhuma", "gzip"})
+    private String compressao;
+
+    private ObjectMapper mapper;
+    private List<UsuarioResponseDTO> lista;
+
+    @Setup
+    public void preparar() {
+        mapper = formato.equals("cbor") ? CBORMapper.builder().build() : JsonMapper.builder().build();
+
+        LocalDateTime agora = LocalDateTime.now();
+        lista = LongStream.rangeClosed(1, usuarios)
+                .mapToObj(id -> new UsuarioResponseDTO(id, "Usuario " + id, "usuario" + id + "@gmail.com",
+                        id % 10 == 0 ? "ADMIN" : "CLIENTE", agora.minusMinutes(id)))
+                .toList();
+    }
+
+    // Bytes que iriam pela rede. O JMH soma os contadores EVENTS das iterações medidas
+    // (e dos forks): cada iteração registra a sua fração do tamanho, que não varia, e o
+    // resultado agregado é o tamanho de uma resposta
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Rede {
+
+        public double bytes;
+        private double fracao;
+
+        @Setup(Level.Iteration)
+        public void preparar(BenchmarkParams params) {
+            fracao = 1.0 / (params.getMeasurement().getCount() * Math.max(1, params.getForks()));
+        }
+    }
+
+    @Benchmark
+    public long escreverLista(Rede medida) throws IOException {
+        ContadorDeBytes rede = new ContadorDeBytes();
+        OutputStream saida = compressao.equals("gzip") ? new GZIPOutputStream(rede, 8192) : rede;
+
+        try (saida; JsonGenerator gerador = mapper.createGenerator(saida)) {
+            gerador.writeStartArray();
+            lista.forEach(gerador::writePOJO);
+            gerador.writeEndArray();
+        }
+
+        medida.bytes = rede.total * medida.fracao;
+        return rede.total;
+    }
+
+    // Descarta o conteúdo e só conta, para não medir a cópia para um buffer
+    private static final class ContadorDeBytes extends OutputStream {
+
+        private long total;
+
+        @Override
+        public void write(int b) {
+            total++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            total += len;
+        }
+    }
+}
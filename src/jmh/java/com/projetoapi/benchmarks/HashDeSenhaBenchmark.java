@@ -0,0 +1,41 @@
+package com.projetoapi.benchmarks;
+
+import com.projetoapi.services.HashDeSenha;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Vazão de cadastros (hashes por segundo) em função do custo do BCrypt.
+// Roda com 8 threads clientes disputando um executor de 4 threads,
+// como acontece com as threads do Tomcat em um pico de cadastros.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(8)
+public class HashDeSenhaBenchmark {
+
+    @Param({"4", "8", "10", "12"})
+    private int custo;
+
+    private HashDeSenha hashDeSenha;
+
+    @Setup
+    public void preparar() {
+        // Fila grande o bastante para que o benchmark meça vazão, não rejeições
+        hashDeSenha = new HashDeSenha(custo, 4, 1024, Duration.ofMinutes(1));
+    }
+
+    @TearDown
+    public void encerrar() {
+        hashDeSenha.encerrar();
+    }
+
+    @Benchmark
+    public String cadastrar() {
+        return hashDeSenha.gerar("123456");
+    }
+}
@@ -0,0 +1,91 @@
+package com.projetoapi.benchmarks;
+
+import com.projetoapi.ProjetoapiApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+// Importação de ponta a ponta: um POST /usuarios/lote em NDJSON, com emails novos a cada
+// chamada, contra a aplicação com H2. Inclui validação, deduplicação, BCrypt (em paralelo
+// numa parte do executor de hash) e os INSERTs em lote. A vazão em usuários/s é
+// quantidade / tempo. Uma chamada com item recusado interrompe o benchmark, para que
+// rejeições não passem por ganho de vazão.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ImportacaoBenchmark {
+
+    @Param({"1000"})
+    private int quantidade;
+
+    @Param({"4", "10"})
+    private int custo;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private String base;
+    private int rodada;
+    private String corpo;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(ProjetoapiApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--usuarios.limite.habilitado=false",
+                        "--usuarios.senha.bcrypt-custo=" + custo,
+                        // Sem limite de espera: o que se mede é a vazão, não a rejeição
+                        "--usuarios.senha.tempo-maximo-espera=10m",
+                        "--logging.level.root=WARN");
+
+        int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        base = "http://localhost:" + porta + "/usuarios";
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    // Emails inéditos a cada chamada, montados fora da medição
+    @Setup(Level.Invocation)
+    public void montarCorpo() {
+        rodada++;
+        StringBuilder ndjson = new StringBuilder(quantidade * 80);
+        for (int i = 0; i < quantidade; i++) {
+            ndjson.append("{\"nome\":\"Usuario ").append(i)
+                    .append("\",\"email\":\"r").append(rodada).append("u").append(i)
+                    .append("@gmail.com\",\"senha\":\"123456\"}\n");
+        }
+        corpo = ndjson.toString();
+    }
+
+    @TearDown
+    public void encerrar() {
+        cliente.close();
+        contexto.close();
+    }
+
+    @Benchmark
+    public String importar() throws IOException, InterruptedException {
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(base + "/lote"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        String resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofString()).body();
+        if (!resposta.contains("\"criados\":" + quantidade + ",")) {
+            throw new IllegalStateException("Importação com itens recusados: "
+                    + resposta.substring(0, Math.min(200, resposta.length())));
+        }
+        return resposta;
+    }
+}
@@ -0,0 +1,176 @@
+package com.projetoapi.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Busca por id, busca por email e cadastro com usuarios e o diretório de emails em uma
+// tabela ou divididos em N partições (db/particionamento-postgresql.sql).
+// O H2 não particiona: cada partição é uma tabela própria (usuarios_p<n>, usuarios_emails_p<n>)
+// e o roteamento por hash é feito aqui, como o PostgreSQL faz na poda de partições.
+// Mede o efeito de índices e heaps menores; o ganho de manutenção (vacuum, reindex por
+// partição) só aparece no PostgreSQL.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ParticionamentoBenchmark {
+
+    @Param({"1", "16"})
+    private int particoes;
+
+    @Param({"1000000"})
+    private int usuarios;
+
+    private Connection conexao;
+    private PreparedStatement[] buscaPorId;
+    private PreparedStatement[] buscaNoDiretorio;
+    private PreparedStatement[] insercao;
+    private PreparedStatement[] insercaoNoDiretorio;
+    private long proximoId;
+
+    @Setup
+    public void preparar() throws SQLException {
+        conexao = DriverManager.getConnection("jdbc:h2:mem:particoes" + particoes + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+        buscaPorId = new PreparedStatement[particoes];
+        buscaNoDiretorio = new PreparedStatement[particoes];
+        insercao = new PreparedStatement[particoes];
+        insercaoNoDiretorio = new PreparedStatement[particoes];
+
+        try (Statement ddl = conexao.createStatement()) {
+            for (int n = 0; n < particoes; n++) {
+                ddl.execute("create table usuarios_p" + n + " (id bigint primary key, nome varchar(50) not null, "
+                        + "email varchar(50) not null, senha varchar(255) not null, role varchar(255) not null, "
+                        + "data_criacao timestamp(6) not null, data_atualizacao timestamp(6) not null, "
+                        + "versao bigint not null, deletado_em timestamp(6))");
+                ddl.execute("create table usuarios_emails_p" + n + " (email varchar(50) not null, "
+                        + "usuario_id bigint not null, constraint uk_usuarios_emails_p" + n + " unique (email))");
+
+                buscaPorId[n] = conexao.prepareStatement("select id, nome, email, role, data_criacao, versao "
+                        + "from usuarios_p" + n + " where id = ? and deletado_em is null");
+                buscaNoDiretorio[n] = conexao.prepareStatement(
+                        "select usuario_id from usuarios_emails_p" + n + " where email = ?");
+                insercao[n] = conexao.prepareStatement("insert into usuarios_p" + n + " (id, nome, email, senha, "
+                        + "role, data_criacao, data_atualizacao, versao) values (?, ?, ?, ?, 'CLIENTE', ?, ?, 0)");
+                insercaoNoDiretorio[n] = conexao.prepareStatement(
+                        "insert into usuarios_emails_p" + n + " (email, usuario_id) values (?, ?)");
+            }
+        }
+
+        // Carga inicial em lotes, com commit a cada bloco
+        conexao.setAutoCommit(false);
+        for (long id = 1; id <= usuarios; id++) {
+            adicionar(id, true);
+            if (id % 10_000 == 0) {
+                executarLotes();
+                conexao.commit();
+            }
+        }
+        executarLotes();
+        conexao.commit();
+        conexao.setAutoCommit(true);
+
+        proximoId = usuarios + 1L;
+    }
+
+    @TearDown
+    public void encerrar() throws SQLException {
+        try (Statement comando = conexao.createStatement()) {
+            comando.execute("shutdown");
+        }
+    }
+
+    @Benchmark
+    public long buscarPorId() throws SQLException {
+        long id = ThreadLocalRandom.current().nextLong(1, usuarios + 1);
+        return lerUsuario(id);
+    }
+
+    // Uma partição do diretório e, com o id, uma de usuarios
+    @Benchmark
+    public long buscarPorEmail() throws SQLException {
+        String email = email(ThreadLocalRandom.current().nextLong(1, usuarios + 1));
+
+        PreparedStatement diretorio = buscaNoDiretorio[particaoDoEmail(email)];
+        diretorio.setString(1, email);
+        try (ResultSet resultado = diretorio.executeQuery()) {
+            return resultado.next() ? lerUsuario(resultado.getLong(1)) : -1L;
+        }
+    }
+
+    // Usuário e diretório na mesma transação, como no UsuarioService
+    @Benchmark
+    public void cadastrar() throws SQLException {
+        conexao.setAutoCommit(false);
+        try {
+            adicionar(proximoId++, false);
+            conexao.commit();
+        } finally {
+            conexao.setAutoCommit(true);
+        }
+    }
+
+    private long lerUsuario(long id) throws SQLException {
+        PreparedStatement busca = buscaPorId[particaoDoId(id)];
+        busca.setLong(1, id);
+        try (ResultSet resultado = busca.executeQuery()) {
+            return resultado.next() ? resultado.getLong(6) : -1L;
+        }
+    }
+
+    private void adicionar(long id, boolean emLote) throws SQLException {
+        String email = email(id);
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+
+        PreparedStatement usuario = insercao[particaoDoId(id)];
+        usuario.setLong(1, id);
+        usuario.setString(2, "Usuario " + id);
+        usuario.setString(3, email);
+        usuario.setString(4, "$2a$10$hashhashhashhashhashhashhashhashhashhashhashhashhash");
+        usuario.setTimestamp(5, agora);
+        usuario.setTimestamp(6, agora);
+
+        PreparedStatement diretorio = insercaoNoDiretorio[particaoDoEmail(email)];
+        diretorio.setString(1, email);
+        diretorio.setLong(2, id);
+
+        if (emLote) {
+            usuario.addBatch();
+            diretorio.addBatch();
+        } else {
+            usuario.executeUpdate();
+            diretorio.executeUpdate();
+        }
+    }
+
+    private void executarLotes() throws SQLException {
+        for (int n = 0; n < particoes; n++) {
+            insercao[n].executeBatch();
+            insercaoNoDiretorio[n].executeBatch();
+        }
+    }
+
+    private int particaoDoId(long id) {
+        return Math.floorMod(Long.hashCode(id * 0x9E3779B97F4A7C15L), particoes);
+    }
+
+    private int particaoDoEmail(String email) {
+        return Math.floorMod(email.hashCode(), particoes);
+    }
+
+    private static String email(long id) {
+        return "usuario" + id + "@gmail.com";
+    }
+}
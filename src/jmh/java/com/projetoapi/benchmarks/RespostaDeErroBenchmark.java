@@ -0,0 +1,50 @@
+package com.projetoapi.benchmarks;
+
+import com.projetoapi.excecoes.RespostaDeErro;
+import com.projetoapi.excecoes.SerializadorDeErro;
+import com.projetoapi.excecoes.UsuarioNaoEncontradoException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+// Custo de produzir o corpo de um 404: exceção + corpo de erro serializado.
+// "antes" reproduz o caminho antigo (exceção com stack trace, RespostaDeErro com
+// LocalDateTime.now() e Jackson); "depois" usa a exceção sem pilha e o SerializadorDeErro.
+// Para ver as alocações por operação (gc.alloc.rate.norm), rode com -prof gc:
+//   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="RespostaDeErro -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RespostaDeErroBenchmark {
+
+    private static final String MENSAGEM = "Usuario não encontrado.";
+    private static final String CAMINHO = "/usuarios/999";
+
+    private ObjectWriter writer;
+    private SerializadorDeErro serializador;
+
+    @Setup
+    public void preparar() {
+        writer = JsonMapper.builder().build().writerFor(RespostaDeErro.class);
+        serializador = new SerializadorDeErro();
+    }
+
+    @Benchmark
+    public byte[] antes() {
+        RuntimeException ex = new RuntimeException(MENSAGEM);
+        RespostaDeErro erro = new RespostaDeErro(404, "Not Found", ex.getMessage(), CAMINHO);
+        return writer.writeValueAsBytes(erro);
+    }
+
+    @Benchmark
+    public byte[] depois() {
+        UsuarioNaoEncontradoException ex = new UsuarioNaoEncontradoException(MENSAGEM);
+        return serializador.serializar(HttpStatus.NOT_FOUND, ex.getMessage(), CAMINHO);
+    }
+}
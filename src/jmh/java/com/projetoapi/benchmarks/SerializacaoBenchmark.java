@@ -0,0 +1,64 @@
+package com.projetoapi.benchmarks;
+
+import com.projetoapi.dto.UsuarioResponseDTO;
+import com.projetoapi.excecoes.RespostaDeErro;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Custo da serialização Jackson das respostas da API: um usuário, uma página
+// de usuários e o corpo de erro devolvido pelo ManipuladorDeExcecoesGlobal.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    private ObjectWriter writerUsuario;
+    private ObjectWriter writerLista;
+    private ObjectWriter writerErro;
+
+    private UsuarioResponseDTO usuario;
+    private List<UsuarioResponseDTO> pagina;
+    private RespostaDeErro erro;
+
+    @Setup
+    public void preparar() {
+        ObjectMapper objectMapper = JsonMapper.builder().build();
+        writerUsuario = objectMapper.writerFor(UsuarioResponseDTO.class);
+        writerLista = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, UsuarioResponseDTO.class));
+        writerErro = objectMapper.writerFor(RespostaDeErro.class);
+
+        LocalDateTime agora = LocalDateTime.now();
+        usuario = new UsuarioResponseDTO(1L, "João", "joao@gmail.com", "CLIENTE", agora);
+        pagina = LongStream.rangeClosed(1, 50)
+                .mapToObj(id -> new UsuarioResponseDTO(id, "Usuario " + id, "usuario" + id + "@gmail.com",
+                        "CLIENTE", agora))
+                .toList();
+        erro = new RespostaDeErro(404, "Not Found", "Usuario não encontrado.", "/usuarios/999");
+    }
+
+    @Benchmark
+    public byte[] usuario() {
+        return writerUsuario.writeValueAsBytes(usuario);
+    }
+
+    @Benchmark
+    public byte[] paginaCom50Usuarios() {
+        return writerLista.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] respostaDeErro() {
+        return writerErro.writeValueAsBytes(erro);
+    }
+}
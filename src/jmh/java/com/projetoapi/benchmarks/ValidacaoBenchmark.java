@@ -0,0 +1,59 @@
+package com.projetoapi.benchmarks;
+
+import com.projetoapi.dto.UsuarioRequestDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Custo do Bean Validation sobre o UsuarioRequestDTO, no caminho feliz
+// e quando todos os campos são inválidos (mensagens interpoladas).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoBenchmark {
+
+    private ValidatorFactory factory;
+    private Validator validator;
+
+    private UsuarioRequestDTO valido;
+    private UsuarioRequestDTO invalido;
+
+    @Setup
+    public void preparar() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+
+        valido = new UsuarioRequestDTO();
+        valido.setNome("João");
+        valido.setEmail("joao@gmail.com");
+        valido.setSenha("123456");
+
+        invalido = new UsuarioRequestDTO();
+        invalido.setNome("");
+        invalido.setEmail("email-invalido");
+        invalido.setSenha("123");
+    }
+
+    @TearDown
+    public void encerrar() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UsuarioRequestDTO>> requisicaoValida() {
+        return validator.validate(valido);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UsuarioRequestDTO>> requisicaoInvalida() {
+        return validator.validate(invalido);
+    }
+}
@@ -0,0 +1,36 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dominio.Role;
+import com.projetoapi.dominio.Usuario;
+import com.projetoapi.dto.UsuarioResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Conversão entidade -> DTO (UsuarioService.toResponseDTO), feita em toda resposta da API.
+// Não depende de banco nem de Spring, por isso o service é criado sem dependências.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversaoBenchmark {
+
+    private UsuarioService usuarioService;
+    private Usuario usuario;
+
+    @Setup
+    public void preparar() {
+        usuarioService = new UsuarioService(null, null, null, null, null, null, null, null, null, new SimpleMeterRegistry());
+
+        usuario = new Usuario("João", "joao@gmail.com", "hash", Role.CLIENTE);
+        usuario.prePersist();
+    }
+
+    @Benchmark
+    public UsuarioResponseDTO toResponseDTO() {
+        return usuarioService.toResponseDTO(usuario);
+    }
+}
@@ -0,0 +1,117 @@
+package com.projetoapi.services;
+
+import com.projetoapi.ProjetoapiApplication;
+import com.projetoapi.dto.FormatoExportacao;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Exportação completa de 1 milhão de usuários, com o contexto Spring completo: para arquivo
+// (CSV ou NDJSON, com e sem gzip, com checkpoints a cada bloco) e para um canal que
+// descarta os bytes, como a resposta HTTP sem a rede. A vazão em linhas/s é usuarios / tempo.
+// O H2 fica em arquivo, fora do heap, e o heap é limitado a 256 MB: a exportação cabe nele
+// porque não cresce com a tabela. LAZY_QUERY_EXECUTION faz o H2 entregar o resultado aos
+// poucos, como o cursor do PostgreSQL com fetch size; sem ele o H2 montaria o resultado
+// inteiro antes da primeira linha.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class ExportacaoBenchmark {
+
+    private static final int USUARIOS = 1_000_000;
+    private static final int BLOCO_CARGA = 100_000;
+
+    @Param({"CSV", "NDJSON"})
+    private FormatoExportacao formato;
+
+    @Param({"true", "false"})
+    private boolean gzip;
+
+    private ConfigurableApplicationContext contexto;
+    private ExportacaoDeUsuarios exportacao;
+    private Path diretorio;
+
+    @Setup
+    public void preparar() throws IOException {
+        diretorio = Files.createTempDirectory("exportacao");
+        contexto = new SpringApplicationBuilder(ProjetoapiApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:file:" + diretorio.resolve("banco")
+                                + ";DB_CLOSE_ON_EXIT=FALSE;LAZY_QUERY_EXECUTION=1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--usuarios.exportacao.diretorio=" + diretorio,
+                        "--usuarios.exportacao.formato=" + formato,
+                        "--usuarios.exportacao.gzip=" + gzip,
+                        // Estruturas em memória que também cresceriam com a tabela
+                        "--usuarios.pesquisa.habilitada=false",
+                        "--usuarios.emails.filtro.habilitado=false",
+                        "--logging.level.root=WARN");
+        exportacao = contexto.getBean(ExportacaoDeUsuarios.class);
+
+        // Carga direta pelo SQL, em blocos: o caminho de cadastro não é o que se mede aqui
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        for (int inicio = 1; inicio <= USUARIOS; inicio += BLOCO_CARGA) {
+            jdbc.update("insert into usuarios "
+                    + "(id, nome, email, senha, role, data_criacao, data_atualizacao, versao) "
+                    + "select x, 'Usuario ' || x, 'usuario' || x || '@gmail.com', 'senha', 'CLIENTE', "
+                    + "current_timestamp, current_timestamp, 0 from system_range(?, ?)",
+                    inicio, inicio + BLOCO_CARGA - 1);
+        }
+    }
+
+    @TearDown
+    public void encerrar() throws IOException {
+        contexto.close();
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            for (Path arquivo : arquivos.toList()) {
+                Files.delete(arquivo);
+            }
+        }
+        Files.delete(diretorio);
+    }
+
+    @Benchmark
+    public long exportarParaArquivo() throws IOException {
+        return exportacao.exportarParaArquivo().linhas();
+    }
+
+    // A resposta não usa gzip (fica com o servidor); com gzip=true mede o mesmo que false
+    @Benchmark
+    public long exportarParaResposta() {
+        return exportacao.exportar(formato, 0, new Descarte()).linhas();
+    }
+
+    private static final class Descarte implements WritableByteChannel {
+
+        @Override
+        public int write(ByteBuffer origem) {
+            int bytes = origem.remaining();
+            origem.position(origem.limit());
+            return bytes;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
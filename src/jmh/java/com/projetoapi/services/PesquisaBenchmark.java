@@ -0,0 +1,112 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dto.ResultadoPesquisaDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Pesquisa aproximada sobre 1 milhão de usuários com nomes gerados a partir de listas
+// curtas (muitos nomes repetidos, como numa base real): o IndiceTrigramas contra a
+// alternativa de hoje, percorrer a lista completa procurando o trecho (só acha
+// correspondências exatas, sem erros de digitação).
+// A memória ocupada pelo índice sai como resultado secundário de indice (indice:megabytes).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class PesquisaBenchmark {
+
+    private static final String[] NOMES = {"Ana", "Maria", "João", "José", "Pedro", "Paulo", "Carlos", "Lucas",
+            "Marcos", "Luiz", "Gabriel", "Rafael", "Daniel", "Marcelo", "Bruno", "Eduardo", "Felipe", "Rodrigo",
+            "Juliana", "Fernanda", "Patrícia", "Aline", "Camila", "Amanda", "Bruna", "Jéssica", "Letícia",
+            "Larissa", "Vanessa", "Beatriz", "Valdomiro", "Genésio", "Iracema", "Otília"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira",
+            "Alves", "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes",
+            "Soares", "Fernandes", "Vieira", "Barbosa", "Rocha", "Dias", "Nascimento", "Andrade", "Moreira",
+            "Albuquerque", "Cavalcanti", "Bittencourt", "Wanderley", "Figueiredo"};
+
+    @Param({"1000000"})
+    private int usuarios;
+
+    // Nome comum com erro, nome raro com erro, trecho do email
+    @Param({"marai olivera", "valdomro bitencourt", "figueiredo123"})
+    private String termo;
+
+    private IndiceTrigramas indice;
+    private long megabytesDoIndice;
+    private List<String> nomes;
+    private List<String> emails;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        nomes = new ArrayList<>(usuarios);
+        emails = new ArrayList<>(usuarios);
+
+        for (int id = 1; id <= usuarios; id++) {
+            String primeiro = NOMES[aleatorio.nextInt(NOMES.length)];
+            String sobrenome = SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)];
+            nomes.add(primeiro + " " + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)] + " " + sobrenome);
+            emails.add((primeiro + "." + sobrenome).toLowerCase(Locale.ROOT) + id + "@gmail.com");
+        }
+
+        // As listas já existem antes da medição: a diferença é só o índice
+        long antes = memoriaUsada();
+        indice = new IndiceTrigramas(usuarios);
+        for (int i = 0; i < usuarios; i++) {
+            indice.indexar(i + 1, nomes.get(i), emails.get(i), true);
+        }
+        indice.ajustarListas();
+        long depois = memoriaUsada();
+        megabytesDoIndice = (depois - antes) >> 20;
+    }
+
+    // O JMH soma os contadores EVENTS das iterações medidas (e dos forks): cada iteração
+    // registra a sua fração da memória, que não varia, e o resultado agregado é o total
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Memoria {
+
+        public double megabytes;
+        private double fracao;
+
+        @Setup(Level.Iteration)
+        public void preparar(BenchmarkParams params) {
+            fracao = 1.0 / (params.getMeasurement().getCount() * Math.max(1, params.getForks()));
+        }
+    }
+
+    @Benchmark
+    public List<ResultadoPesquisaDTO> indice(Memoria memoria) {
+        memoria.megabytes = megabytesDoIndice * memoria.fracao;
+        return indice.pesquisar(termo, PesquisaDeUsuarios.LIMITE_PADRAO, 0.5);
+    }
+
+    // O que o suporte faz hoje com GET /usuarios: procurar o trecho em cada usuário
+    @Benchmark
+    public List<Integer> varredura() {
+        String procurado = termo.toLowerCase(Locale.ROOT);
+        List<Integer> encontrados = new ArrayList<>();
+        for (int i = 0; i < nomes.size() && encontrados.size() < PesquisaDeUsuarios.LIMITE_PADRAO; i++) {
+            if (nomes.get(i).toLowerCase(Locale.ROOT).contains(procurado) || emails.get(i).contains(procurado)) {
+                encontrados.add(i + 1);
+            }
+        }
+        return encontrados;
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
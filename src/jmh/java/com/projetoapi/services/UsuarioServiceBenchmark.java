@@ -0,0 +1,142 @@
+package com.projetoapi.services;
+
+import com.projetoapi.ProjetoapiApplication;
+import com.projetoapi.dto.UsuarioRequestDTO;
+import com.projetoapi.dto.UsuarioResponseDTO;
+import com.projetoapi.excecoes.EmailJaCadastradoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// buscarPorId e cadastrarUsuario de ponta a ponta contra o H2 embarcado,
+// com o contexto Spring completo. O servidor web sobe numa porta livre (o controller
+// depende da negociação de conteúdo do MVC), mas não recebe requisições.
+// O parâmetro cacheTamanho = 0 desliga na prática o cache de leitura para medir o
+// caminho até o banco.
+// Com filtroEmails = false todo cadastro consulta o email no banco antes do BCrypt;
+// com o filtro, só os emails que ele não descarta (cadastrarEmailDuplicado sempre consulta).
+// buscarUsuarioPopular lê o mesmo id em 8 threads; os resultados secundários trazem as
+// buscas feitas e as consultas ao banco economizadas pelo ConsultasEmAndamento.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsuarioServiceBenchmark {
+
+    private static final int USUARIOS_PRE_CADASTRADOS = 1_000;
+
+    @Param({"0", "10000"})
+    private int cacheTamanho;
+
+    @Param({"true", "false"})
+    private boolean filtroEmails;
+
+    private ConfigurableApplicationContext contexto;
+    private UsuarioService usuarioService;
+    private long menorId;
+    private final AtomicLong sequencia = new AtomicLong();
+    private Counter economizadas;
+
+    @Setup
+    public void preparar() {
+        // Passados como argumentos de linha de comando para sobrescrever o application.properties
+        contexto = new SpringApplicationBuilder(ProjetoapiApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--usuarios.cache.tamanho-maximo=" + cacheTamanho,
+                        "--usuarios.emails.filtro.habilitado=" + filtroEmails,
+                        // O custo do BCrypt é medido no HashDeSenhaBenchmark
+                        "--usuarios.senha.bcrypt-custo=4",
+                        "--logging.level.root=WARN");
+        usuarioService = contexto.getBean(UsuarioService.class);
+        economizadas = contexto.getBean(MeterRegistry.class)
+                .get("usuarios.consultas.economizadas").tag("chave", "id").counter();
+
+        menorId = Long.MAX_VALUE;
+        for (int i = 0; i < USUARIOS_PRE_CADASTRADOS; i++) {
+            UsuarioResponseDTO criado = usuarioService.cadastrarUsuario(requisicao());
+            menorId = Math.min(menorId, criado.getId());
+        }
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    // Buscas de cada thread e, só pela primeira (o contador é global), as consultas
+    // economizadas durante a iteração. O JMH soma os dois entre threads e iterações.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Economia {
+
+        public long buscas;
+        public double economizadas;
+        private double inicio;
+
+        @Setup(Level.Iteration)
+        public void marcar(UsuarioServiceBenchmark benchmark) {
+            inicio = benchmark.economizadas.count();
+        }
+
+        @TearDown(Level.Iteration)
+        public void medir(UsuarioServiceBenchmark benchmark, ThreadParams thread) {
+            if (thread.getThreadIndex() == 0) {
+                economizadas = benchmark.economizadas.count() - inicio;
+            }
+        }
+    }
+
+    @Benchmark
+    public UsuarioResponseDTO buscarPorId() {
+        long id = menorId + ThreadLocalRandom.current().nextInt(USUARIOS_PRE_CADASTRADOS);
+        return usuarioService.buscarPorId(id);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UsuarioResponseDTO buscarUsuarioPopular(Economia economia) {
+        economia.buscas++;
+        return usuarioService.buscarPorId(menorId);
+    }
+
+    @Benchmark
+    public UsuarioResponseDTO cadastrarUsuario() {
+        return usuarioService.cadastrarUsuario(requisicao());
+    }
+
+    @Benchmark
+    public Object cadastrarEmailDuplicado() {
+        UsuarioRequestDTO dto = requisicao(1 + ThreadLocalRandom.current().nextInt(USUARIOS_PRE_CADASTRADOS));
+        try {
+            return usuarioService.cadastrarUsuario(dto);
+        } catch (EmailJaCadastradoException e) {
+            return e;
+        }
+    }
+
+    private UsuarioRequestDTO requisicao() {
+        return requisicao(sequencia.incrementAndGet());
+    }
+
+    private UsuarioRequestDTO requisicao(long n) {
+        UsuarioRequestDTO dto = new UsuarioRequestDTO();
+        dto.setNome("Usuario " + n);
+        dto.setEmail("usuario" + n + "@gmail.com");
+        dto.setSenha("123456");
+        return dto;
+    }
+}
@@ -0,0 +1,81 @@
+package com.projetoapi;
+
+import com.projetoapi.dominio.EventoUsuario;
+import com.projetoapi.dominio.Role;
+import com.projetoapi.dominio.TipoEventoUsuario;
+import com.projetoapi.dominio.Usuario;
+import com.projetoapi.dto.AtualizacaoParcialUsuarioDTO;
+import com.projetoapi.dto.ConsultaEmLoteDTO;
+import com.projetoapi.dto.EventoUsuarioDTO;
+import com.projetoapi.dto.FiltroUsuarioDTO;
+import com.projetoapi.dto.ItemConsultaDTO;
+import com.projetoapi.dto.ItemImportacaoDTO;
+import com.projetoapi.dto.LoteEventosDTO;
+import com.projetoapi.dto.PaginaDTO;
+import com.projetoapi.dto.ResultadoImportacaoDTO;
+import com.projetoapi.dto.ResultadoPesquisaDTO;
+import com.projetoapi.dto.SituacaoItemConsulta;
+import com.projetoapi.dto.SituacaoItemImportacao;
+import com.projetoapi.dto.UsuarioRequestDTO;
+import com.projetoapi.dto.UsuarioResponseDTO;
+import com.projetoapi.dto.VersaoListaDTO;
+import com.projetoapi.dto.VersaoUsuarioDTO;
+import com.projetoapi.excecoes.RespostaDeErro;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+// Reflexão e recursos que a imagem nativa (profile "native") não descobre sozinha.
+// O processamento AOT já cobre beans, repositórios e as entidades gerenciadas pelo JPA;
+// aqui ficam o que o Jackson e o Hibernate acessam por nome em tempo de execução.
+class DicasDeExecucao implements RuntimeHintsRegistrar {
+
+    // Corpos lidos e escritos pelo Jackson, e parâmetros de consulta ligados por setters
+    static final List<Class<?>> TIPOS_JSON = List.of(
+            UsuarioRequestDTO.class,
+            UsuarioResponseDTO.class,
+            AtualizacaoParcialUsuarioDTO.class,
+            FiltroUsuarioDTO.class,
+            ItemImportacaoDTO.class,
+            ResultadoImportacaoDTO.class,
+            ResultadoPesquisaDTO.class,
+            SituacaoItemImportacao.class,
+            ConsultaEmLoteDTO.class,
+            ItemConsultaDTO.class,
+            SituacaoItemConsulta.class,
+            PaginaDTO.class,
+            LoteEventosDTO.class,
+            EventoUsuarioDTO.class,
+            RespostaDeErro.class);
+
+    // Instanciados pelo Hibernate: entidades (campos e callbacks) e os DTOs
+    // das projeções "select new" e cb.construct
+    static final List<Class<?>> TIPOS_HIBERNATE = List.of(
+            Usuario.class,
+            EventoUsuario.class,
+            UsuarioResponseDTO.class,
+            VersaoUsuarioDTO.class,
+            VersaoListaDTO.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+
+        BindingReflectionHintsRegistrar jackson = new BindingReflectionHintsRegistrar();
+        TIPOS_JSON.forEach(tipo -> jackson.registerReflectionHints(hints.reflection(), tipo));
+
+        TIPOS_HIBERNATE.forEach(tipo -> hints.reflection().registerType(tipo,
+                MemberCategory.ACCESS_DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS));
+
+        // Enums gravados como texto (@Enumerated STRING) são resolvidos por valueOf
+        List.of(Role.class, TipoEventoUsuario.class).forEach(tipo -> hints.reflection().registerType(tipo,
+                MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        // Scripts de índices aplicados pelo spring.sql.init (db/indices-<banco>.sql)
+        hints.resources().registerPattern("db/*.sql");
+    }
+}
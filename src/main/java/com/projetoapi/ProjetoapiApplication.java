@@ -2,8 +2,10 @@ package com.projetoapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(DicasDeExecucao.class)
 public class ProjetoapiApplication {
 
 	public static void main(String[] args) {
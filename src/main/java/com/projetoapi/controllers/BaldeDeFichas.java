@@ -0,0 +1,34 @@
+package com.projetoapi.controllers;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+// Balde de fichas no formato GCRA: em vez de guardar fichas e horário separados,
+// guarda só o instante teórico em que o balde estaria cheio de novo.
+// O estado cabe num único long e é atualizado com CAS, sem locks.
+final class BaldeDeFichas {
+
+    private final AtomicLong instanteTeorico = new AtomicLong(Long.MIN_VALUE);
+
+    // Retorna 0 quando a ficha foi consumida ou, se o balde está vazio,
+    // os nanossegundos até a próxima ficha.
+    // Quando a ficha consumida era a última, aoEsgotar recebe o instante em que a próxima
+    // volta. Como o balde só se esgota de novo depois desse instante, os períodos
+    // avisados de um mesmo balde nunca se sobrepõem.
+    long consumir(long agora, long intervalo, long capacidade, LongConsumer aoEsgotar) {
+        while (true) {
+            long atual = instanteTeorico.get();
+            long novo = Math.max(atual, agora) + intervalo;
+            long excesso = novo - agora - capacidade;
+            if (excesso > 0) {
+                return excesso;
+            }
+            if (instanteTeorico.compareAndSet(atual, novo)) {
+                if (excesso + intervalo > 0) {
+                    aoEsgotar.accept(agora + excesso + intervalo);
+                }
+                return 0;
+            }
+        }
+    }
+}
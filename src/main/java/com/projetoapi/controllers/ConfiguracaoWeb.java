@@ -0,0 +1,43 @@
+package com.projetoapi.controllers;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+@Configuration
+class ConfiguracaoWeb implements WebMvcConfigurer {
+
+    private final IdentificacaoDeCliente identificacaoDeCliente;
+    private final LimitadorDeRequisicoes limitador;
+    private final boolean limiteHabilitado;
+
+    ConfiguracaoWeb(IdentificacaoDeCliente identificacaoDeCliente,
+                    LimitadorDeRequisicoes limitador,
+                    @Value("${usuarios.limite.habilitado:true}") boolean limiteHabilitado) {
+        this.identificacaoDeCliente = identificacaoDeCliente;
+        this.limitador = limitador;
+        this.limiteHabilitado = limiteHabilitado;
+    }
+
+    // A identificação vem antes: o limitador usa o cliente que ela definiu
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(identificacaoDeCliente).addPathPatterns("/usuarios/**", "/usuarios");
+        if (limiteHabilitado) {
+            registry.addInterceptor(limitador).addPathPatterns("/usuarios/**", "/usuarios");
+        }
+    }
+
+    // CBOR (application/cbor) com o CBORMapper configurado pelo Boot, o mesmo usado no
+    // streaming da lista. Fica depois do JSON na ordem dos conversores: sem Accept ou
+    // com */*, a resposta continua em JSON.
+    @Bean
+    ServerHttpMessageConvertersCustomizer conversorCbor(CBORMapper cborMapper) {
+        return conversores -> conversores.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper));
+    }
+}
@@ -0,0 +1,80 @@
+package com.projetoapi.controllers;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Descarte adaptativo de carga guiado pela espera por conexão do Hikari.
+// A cada amostra calcula a espera média desde a amostra anterior
+// (timer hikaricp.connections.acquire). Acima do limiar, a probabilidade de
+// descartar os endpoints marcados como descartáveis sobe na proporção do excesso
+// (o dobro do limiar descarta tudo) e, quando a espera normaliza, cai pela metade
+// a cada amostra, para não oscilar entre aceitar e recusar tudo.
+@Component
+public class ControleDeCarga {
+
+    private final MeterRegistry meterRegistry;
+    private final double limiarNanos;
+
+    private volatile double probabilidadeDescarte;
+    private volatile double esperaMediaNanos;
+
+    // Só a thread do agendador escreve nestes campos
+    private long contagemAnterior;
+    private double totalAnteriorNanos;
+
+    public ControleDeCarga(MeterRegistry meterRegistry,
+                           @Value("${usuarios.carga.limiar-espera-conexao:50ms}") Duration limiar) {
+        this.meterRegistry = meterRegistry;
+        this.limiarNanos = limiar.toNanos();
+
+        Gauge.builder("usuarios.carga.espera.conexao", () -> esperaMediaNanos / 1_000_000)
+                .description("Espera média por conexão do pool na última amostra")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("usuarios.carga.descarte", () -> probabilidadeDescarte)
+                .description("Fração das requisições descartáveis recusadas com 503")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${usuarios.carga.intervalo-amostra-ms:250}")
+    public void amostrar() {
+
+        // Soma todos os pools (pode haver mais de um DataSource)
+        long contagem = 0;
+        double totalNanos = 0;
+        for (Timer timer : meterRegistry.find("hikaricp.connections.acquire").timers()) {
+            contagem += timer.count();
+            totalNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+        }
+
+        long aquisicoes = contagem - contagemAnterior;
+        double media = aquisicoes > 0 ? (totalNanos - totalAnteriorNanos) / aquisicoes : 0;
+        contagemAnterior = contagem;
+        totalAnteriorNanos = totalNanos;
+
+        registrarAmostra(media);
+    }
+
+    // Separado da leitura do timer para ser exercitado nos testes
+    void registrarAmostra(double mediaNanos) {
+        esperaMediaNanos = mediaNanos;
+
+        double alvo = mediaNanos <= limiarNanos ? 0 : Math.min(1, (mediaNanos - limiarNanos) / limiarNanos);
+        double atual = probabilidadeDescarte;
+        double nova = alvo >= atual ? alvo : atual / 2;
+        probabilidadeDescarte = nova < 0.01 ? 0 : nova;
+    }
+
+    public boolean deveDescartar() {
+        double probabilidade = probabilidadeDescarte;
+        return probabilidade > 0 && ThreadLocalRandom.current().nextDouble() < probabilidade;
+    }
+}
@@ -0,0 +1,62 @@
+package com.projetoapi.controllers;
+
+import com.projetoapi.dto.VersaoListaDTO;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Formato dos ETags da API:
+//   usuário: "<id>-<versao>" (forte, usado no If-Match)
+//   lista:   W/"l-<total>-<maiorId>-<ultimaAtualizacao em micros>" ("lc-..." na variante CBOR)
+// A lista usa ETag fraco porque é comprimida com gzip: o Tomcat não comprime respostas
+// com ETag forte, já que os bytes enviados deixariam de corresponder a ele.
+final class Etags {
+
+    private Etags() {
+    }
+
+    static String deUsuario(Long id, Long versao) {
+        return "\"" + id + "-" + versao + "\"";
+    }
+
+    // Cada formato tem o seu: um 304 revalida só a representação que o cliente já tem
+    static String deLista(VersaoListaDTO versao, boolean cbor) {
+        long micros = 0L;
+        if (versao.getUltimaAtualizacao() != null) {
+            Instant instante = versao.getUltimaAtualizacao().atZone(ZoneId.systemDefault()).toInstant();
+            micros = instante.getEpochSecond() * 1_000_000 + instante.getNano() / 1_000;
+        }
+        long maiorId = versao.getMaiorId() == null ? 0L : versao.getMaiorId();
+        return (cbor ? "W/\"lc-" : "W/\"l-") + versao.getTotal() + "-" + maiorId + "-" + micros + "\"";
+    }
+
+    static long emMillis(LocalDateTime data) {
+        return data == null ? -1L : data.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Extrai a versão esperada do If-Match para este usuário.
+    // Retorna null quando não há header ou quando é "*" (qualquer versão serve)
+    // e -1 quando nenhum ETag da lista corresponde ao usuário (o 412 é garantido).
+    static Long versaoDoIfMatch(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+
+        String prefixo = "\"" + id + "-";
+        for (String etag : ifMatch.split(",")) {
+            String valor = etag.trim();
+            if (valor.equals("*")) {
+                return null;
+            }
+            if (valor.startsWith(prefixo) && valor.endsWith("\"") && valor.length() > prefixo.length() + 1) {
+                try {
+                    return Long.parseLong(valor.substring(prefixo.length(), valor.length() - 1));
+                } catch (NumberFormatException e) {
+                    // ETag malformado: segue para o próximo da lista
+                }
+            }
+        }
+        return -1L;
+    }
+}
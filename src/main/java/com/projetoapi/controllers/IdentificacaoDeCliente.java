@@ -0,0 +1,41 @@
+package com.projetoapi.controllers;
+
+import com.projetoapi.repositorios.LeiturasAposEscrita;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Identifica o cliente de cada requisição: o header configurado em
+// usuarios.cliente.cabecalho ou, sem ele, o IP. O valor fica num atributo da
+// requisição, usado pelo limite de requisições e pelo roteamento de leituras.
+@Component
+public class IdentificacaoDeCliente implements HandlerInterceptor {
+
+    private final String cabecalho;
+
+    public IdentificacaoDeCliente(@Value("${usuarios.cliente.cabecalho:}") String cabecalho) {
+        this.cabecalho = cabecalho;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(LeiturasAposEscrita.ATRIBUTO_CLIENTE, identificar(request));
+        return true;
+    }
+
+    static String de(HttpServletRequest request) {
+        return (String) request.getAttribute(LeiturasAposEscrita.ATRIBUTO_CLIENTE);
+    }
+
+    private String identificar(HttpServletRequest request) {
+        if (!cabecalho.isEmpty()) {
+            String valor = request.getHeader(cabecalho);
+            if (valor != null && !valor.isBlank()) {
+                return valor;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,123 @@
+package com.projetoapi.controllers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projetoapi.excecoes.LimiteDeTaxaExcedidoException;
+import com.projetoapi.excecoes.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+
+// Admissão das requisições da API, antes de chegarem ao controller:
+//   1. endpoints descartáveis são recusados com 503 quando o ControleDeCarga indica saturação;
+//   2. cada cliente tem um balde de fichas por endpoint; sem ficha, 429 com Retry-After.
+// O cliente é o definido pela IdentificacaoDeCliente (header configurado ou IP).
+// Os baldes ficam num cache Caffeine: leituras não bloqueiam e clientes inativos expiram.
+@Component
+public class LimitadorDeRequisicoes implements HandlerInterceptor {
+
+    private final ControleDeCarga controleDeCarga;
+    private final MeterRegistry meterRegistry;
+    private final double porSegundoPadrao;
+    private final int rajadaPadrao;
+    private final Cache<Chave, BaldeDeFichas> baldes;
+    private final Map<Method, Regra> regras = new ConcurrentHashMap<>();
+
+    // Fim de cada período de esgotamento em andamento (System.nanoTime), o menor primeiro.
+    // A coleta da métrica só descarta os que já terminaram, sem percorrer os baldes.
+    private final PriorityBlockingQueue<Long> fimDosEsgotamentos = new PriorityBlockingQueue<>();
+
+    public LimitadorDeRequisicoes(ControleDeCarga controleDeCarga,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${usuarios.limite.padrao.por-segundo:50}") double porSegundo,
+                                  @Value("${usuarios.limite.padrao.rajada:100}") int rajada,
+                                  @Value("${usuarios.limite.clientes-maximo:100000}") long clientesMaximo) {
+        this.controleDeCarga = controleDeCarga;
+        this.meterRegistry = meterRegistry;
+        this.porSegundoPadrao = porSegundo;
+        this.rajadaPadrao = rajada;
+
+        // Um balde parado mais tempo do que leva para encher equivale a um balde novo
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(clientesMaximo)
+                .expireAfterAccess(Duration.ofMinutes(5))
+                .build();
+
+        Gauge.builder("usuarios.limite.baldes", baldes, Cache::estimatedSize)
+                .description("Baldes de fichas ativos (cliente x endpoint)")
+                .register(meterRegistry);
+        Gauge.builder("usuarios.limite.baldes.esgotados", this, LimitadorDeRequisicoes::contarEsgotados)
+                .description("Baldes sem ficha disponível no momento da coleta")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+        // O despacho assíncrono (ex.: fim do long-poll de eventos) já foi admitido na entrada
+        if (!(handler instanceof HandlerMethod metodo) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        Regra regra = regras.computeIfAbsent(metodo.getMethod(), this::regraDe);
+
+        if (regra.descartavel() && controleDeCarga.deveDescartar()) {
+            regra.descartes().increment();
+            throw new ServicoSobrecarregadoException("Serviço sobrecarregado; tente novamente em instantes.");
+        }
+
+        BaldeDeFichas balde = baldes.get(new Chave(IdentificacaoDeCliente.de(request), metodo.getMethod()), chave -> new BaldeDeFichas());
+        long espera = balde.consumir(System.nanoTime(), regra.intervaloNanos(), regra.capacidadeNanos(), fimDosEsgotamentos::add);
+        if (espera > 0) {
+            regra.rejeicoes().increment();
+            throw new LimiteDeTaxaExcedidoException("Limite de requisições excedido.",
+                    Math.max(1, (espera + 999_999_999) / 1_000_000_000));
+        }
+
+        return true;
+    }
+
+    // Lida uma vez por endpoint, junto com os contadores usuarios.limite.rejeicoes dele
+    private Regra regraDe(Method metodo) {
+        LimiteDeTaxa limite = metodo.getAnnotation(LimiteDeTaxa.class);
+        double porSegundo = limite == null ? porSegundoPadrao : limite.porSegundo();
+        int rajada = limite == null ? rajadaPadrao : limite.rajada();
+        boolean descartavel = limite != null && limite.descartavelSobCarga();
+
+        long intervalo = (long) (1_000_000_000 / porSegundo);
+        String endpoint = metodo.getName();
+        return new Regra(intervalo, intervalo * rajada, descartavel,
+                meterRegistry.counter("usuarios.limite.rejeicoes", "endpoint", endpoint, "motivo", "taxa"),
+                meterRegistry.counter("usuarios.limite.rejeicoes", "endpoint", endpoint, "motivo", "carga"));
+    }
+
+    // Synchronized só entre coletas: entre o peek e o poll ninguém mais retira da fila
+    private synchronized double contarEsgotados() {
+        long agora = System.nanoTime();
+        Long fim;
+        while ((fim = fimDosEsgotamentos.peek()) != null && fim - agora <= 0) {
+            fimDosEsgotamentos.poll();
+        }
+        return fimDosEsgotamentos.size();
+    }
+
+    private record Chave(String cliente, Method metodo) {
+    }
+
+    private record Regra(long intervaloNanos, long capacidadeNanos, boolean descartavel,
+                         Counter rejeicoes, Counter descartes) {
+    }
+}
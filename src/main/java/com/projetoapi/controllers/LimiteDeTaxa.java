@@ -0,0 +1,22 @@
+package com.projetoapi.controllers;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Cota por cliente de um endpoint, aplicada pelo LimitadorDeRequisicoes.
+// Endpoints sem a anotação usam usuarios.limite.padrao.*.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LimiteDeTaxa {
+
+    // Fichas repostas por segundo
+    double porSegundo();
+
+    // Fichas acumuladas no máximo (tamanho do balde)
+    int rajada();
+
+    // Se true, o endpoint é descartado primeiro quando o pool de conexões satura
+    boolean descartavelSobCarga() default false;
+}
@@ -1,41 +1,222 @@
 package com.projetoapi.controllers;
 
 import com.projetoapi.dominio.Usuario;
+import com.projetoapi.dto.AtualizacaoParcialUsuarioDTO;
+import com.projetoapi.dto.ConsultaEmLoteDTO;
+import com.projetoapi.dto.FiltroUsuarioDTO;
+import com.projetoapi.dto.FormatoExportacao;
+import com.projetoapi.dto.LoteEventosDTO;
+import com.projetoapi.dto.PaginaDTO;
+import com.projetoapi.dto.ResultadoImportacaoDTO;
+import com.projetoapi.dto.ResultadoPesquisaDTO;
 import com.projetoapi.dto.UsuarioRequestDTO;
 import com.projetoapi.dto.UsuarioResponseDTO;
+import com.projetoapi.dto.VersaoUsuarioDTO;
+import com.projetoapi.services.EventosUsuarioService;
+import com.projetoapi.services.ExportacaoDeUsuarios;
+import com.projetoapi.services.ImportacaoUsuarioService;
+import com.projetoapi.services.PesquisaDeUsuarios;
 import com.projetoapi.services.UsuarioService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/usuarios")
 public class UsuarioController {
 
     private final UsuarioService service;
+    private final ImportacaoUsuarioService importacaoService;
+    private final EventosUsuarioService eventosService;
+    private final ExportacaoDeUsuarios exportacao;
+    private final ObjectMapper objectMapper;
+    private final CBORMapper cborMapper;
+    private final ContentNegotiationManager negociacao;
+    private final Duration esperaMaximaEventos;
 
-    public UsuarioController(UsuarioService service) {
+    public UsuarioController(UsuarioService service,
+                             ImportacaoUsuarioService importacaoService,
+                             EventosUsuarioService eventosService,
+                             ExportacaoDeUsuarios exportacao,
+                             ObjectMapper objectMapper,
+                             CBORMapper cborMapper,
+                             ContentNegotiationManager negociacao,
+                             @Value("${usuarios.eventos.espera-maxima:25s}") Duration esperaMaximaEventos) {
         this.service = service;
+        this.importacaoService = importacaoService;
+        this.eventosService = eventosService;
+        this.exportacao = exportacao;
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborMapper;
+        this.negociacao = negociacao;
+        this.esperaMaximaEventos = esperaMaximaEventos;
     }
 
     // ===========================
-    // BUSCAR TODOS USUARIOS
+    // BUSCAR TODOS USUARIOS (STREAMING)
     // ===========================
-    @GetMapping
-    public ResponseEntity<List<UsuarioResponseDTO>> listarTodos() {
+    // Escreve o array direto na resposta (chunked), um usuário por vez,
+    // sem montar a lista completa em memória.
+    // JSON por padrão; com Accept: application/cbor o mesmo array sai em CBOR.
+    // O ETag vem de uma consulta agregada; com If-None-Match igual responde 304 sem ler as linhas.
+    // Por ser uma varredura da tabela, tem a menor cota e é o primeiro a ser descartado sob carga.
+    @LimiteDeTaxa(porSegundo = 1, rajada = 3, descartavelSobCarga = true)
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public void listarTodos(NativeWebRequest request, HttpServletResponse response)
+            throws IOException, HttpMediaTypeNotAcceptableException {
 
-        return ResponseEntity.ok(service.listarTodos());
+        boolean cbor = prefereCbor(request);
+        // O corpo muda com o Accept; caches intermediários precisam separar as variantes
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+        if (request.checkNotModified(Etags.deLista(service.versaoDaLista(), cbor))) {
+            return;
+        }
+
+        try (JsonGenerator gerador = criarGerador(cbor, response)) {
+            gerador.writeStartArray();
+            service.percorrerTodos(gerador::writePOJO);
+            gerador.writeEndArray();
+        }
+    }
+
+    // ===========================
+    // EXPORTACAO EM MASSA (CSV OU NDJSON)
+    // ===========================
+    // Todos os usuários em ordem de id, lidos por cursor e escritos direto na resposta.
+    // CSV por padrão; com Accept: application/x-ndjson, um objeto JSON por linha.
+    // Se a conexão cair, ?apos=<último id recebido> continua dali (o CSV vem sem cabeçalho).
+    @LimiteDeTaxa(porSegundo = 0.2, rajada = 2, descartavelSobCarga = true)
+    @GetMapping(value = "/exportacao", produces = {"text/csv", "application/x-ndjson"})
+    public void exportar(@RequestParam(defaultValue = "0") long apos,
+                         NativeWebRequest request,
+                         HttpServletResponse response)
+            throws IOException, HttpMediaTypeNotAcceptableException {
+
+        FormatoExportacao formato = formatoExportacao(request);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.setContentType(formato.getTipo());
+        response.setCharacterEncoding("UTF-8");
+        exportacao.exportar(formato, apos, Channels.newChannel(response.getOutputStream()));
+    }
+
+    // ===========================
+    // LISTAR USUARIOS PAGINADOS
+    // ===========================
+    @LimiteDeTaxa(porSegundo = 20, rajada = 40, descartavelSobCarga = true)
+    @GetMapping(params = "limite")
+    public ResponseEntity<PaginaDTO<UsuarioResponseDTO>> listarPagina(
+            @RequestParam int limite,
+            @RequestParam(required = false) String apos) {
+
+        return ResponseEntity.ok(service.listarPagina(apos, limite));
+    }
+
+    // ===========================
+    // BUSCAR USUARIOS COM FILTROS
+    // ===========================
+    // Ex.: /usuarios/busca?role=ADMIN&criadoDe=2026-02-10T00:00:00&limite=50
+    @LimiteDeTaxa(porSegundo = 20, rajada = 40, descartavelSobCarga = true)
+    @GetMapping("/busca")
+    public ResponseEntity<PaginaDTO<UsuarioResponseDTO>> buscar(
+            FiltroUsuarioDTO filtro,
+            @RequestParam(defaultValue = "" + UsuarioService.LIMITE_PADRAO_PAGINA) int limite,
+            @RequestParam(required = false) String apos) {
+
+        return ResponseEntity.ok(service.buscar(filtro, apos, limite));
+    }
+
+    // ===========================
+    // CONSULTA EM LOTE POR IDS E EMAILS
+    // ===========================
+    // Substitui centenas de GET /usuarios/{id}: um item por chave, na ordem enviada (ids e
+    // depois emails), com situacao NAO_ENCONTRADO em vez de 404. Cada item é escrito na
+    // resposta assim que o seu bloco é resolvido, sem montar a lista antes (JSON ou CBOR).
+    @LimiteDeTaxa(porSegundo = 20, rajada = 40)
+    @PostMapping(value = "/consulta", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public void consultarEmLote(@Valid @RequestBody ConsultaEmLoteDTO consulta,
+                                NativeWebRequest request,
+                                HttpServletResponse response)
+            throws IOException, HttpMediaTypeNotAcceptableException {
+
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        try (JsonGenerator gerador = criarGerador(prefereCbor(request), response)) {
+            gerador.writeStartArray();
+            service.consultarEmLote(consulta, gerador::writePOJO);
+            gerador.writeEndArray();
+        }
+    }
+
+    // ===========================
+    // PESQUISA APROXIMADA
+    // ===========================
+    // Ex.: /usuarios/pesquisa?q=joao silv&limite=10 — trechos e nomes com erros de digitação,
+    // do mais ao menos parecido. Não usa o banco, por isso não é descartada sob carga.
+    @LimiteDeTaxa(porSegundo = 20, rajada = 40)
+    @GetMapping("/pesquisa")
+    public ResponseEntity<List<ResultadoPesquisaDTO>> pesquisar(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + PesquisaDeUsuarios.LIMITE_PADRAO) int limite) {
+
+        return ResponseEntity.ok(service.pesquisar(q, limite));
+    }
+
+    // ===========================
+    // ACOMPANHAR ALTERAÇÕES (LONG-POLL)
+    // ===========================
+    // Devolve os eventos com posição maior que "desde". Sem novidades, segura a resposta
+    // por até "espera" segundos; o cliente repete a chamada com o "proximo" recebido.
+    @GetMapping("/eventos")
+    public CompletableFuture<LoteEventosDTO> acompanharEventos(
+            @RequestParam(defaultValue = "0") long desde,
+            @RequestParam(defaultValue = "100") int limite,
+            @RequestParam(defaultValue = "25") long espera) {
+
+        Duration tempo = Duration.ofSeconds(Math.max(espera, 0));
+        if (tempo.compareTo(esperaMaximaEventos) > 0) {
+            tempo = esperaMaximaEventos;
+        }
+
+        return eventosService.aguardar(desde, limite, tempo);
     }
 
     // ===========================
     // BUSCAR USUARIO POR ID
     // ===========================
+    // Requisições condicionais consultam só a versão; o corpo é montado apenas quando mudou.
     @GetMapping("/{id}")
-    public ResponseEntity<UsuarioResponseDTO> buscarPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(service.buscarPorId(id));
+    public ResponseEntity<UsuarioResponseDTO> buscarPorId(@PathVariable Long id, WebRequest request) {
+
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            VersaoUsuarioDTO versao = service.buscarVersao(id);
+            if (request.checkNotModified(Etags.deUsuario(id, versao.getVersao()),
+                    Etags.emMillis(versao.getDataAtualizacao()))) {
+                return null;
+            }
+        }
+
+        return comVersao(service.buscarPorId(id));
     }
 
     // ===========================
@@ -50,6 +231,23 @@ public class UsuarioController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // ===========================
+    // IMPORTAR USUARIOS EM LOTE
+    // ===========================
+    // Aceita um array JSON ou NDJSON (um usuário por linha). O corpo é lido
+    // item a item, sem desserializar a lista inteira de uma vez.
+    @LimiteDeTaxa(porSegundo = 0.2, rajada = 2, descartavelSobCarga = true)
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ResultadoImportacaoDTO> importarLote(HttpServletRequest request) throws IOException {
+
+        try (MappingIterator<UsuarioRequestDTO> usuarios = objectMapper
+                .readerFor(UsuarioRequestDTO.class)
+                .readValues(request.getInputStream())) {
+
+            return ResponseEntity.ok(importacaoService.importar(usuarios));
+        }
+    }
+
     // ===========================
     // DELETAR USUARIO POR ID
     // ===========================
@@ -62,11 +260,76 @@ public class UsuarioController {
     // ===========================
     // ATUALIZAR USUARIO POR ID
     // ===========================
+    // Com If-Match, só atualiza se o ETag informado ainda for o atual (senão 412)
     @PutMapping("/{id}")
     public ResponseEntity<UsuarioResponseDTO> atualizar(
             @PathVariable Long id,
-            @Valid @RequestBody UsuarioRequestDTO usuarioDTO) {
+            @Valid @RequestBody UsuarioRequestDTO usuarioDTO,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        Long versaoEsperada = Etags.versaoDoIfMatch(ifMatch, id);
+
+        return comVersao(service.atualizar(id, usuarioDTO, versaoEsperada));
+    }
+
+    // ===========================
+    // ATUALIZAR USUARIO PARCIALMENTE
+    // ===========================
+    // Aceita JSON comum ou merge-patch; só os campos presentes são alterados.
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    public ResponseEntity<UsuarioResponseDTO> atualizarParcial(
+            @PathVariable Long id,
+            @Valid @RequestBody AtualizacaoParcialUsuarioDTO usuarioDTO,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        Long versaoEsperada = Etags.versaoDoIfMatch(ifMatch, id);
+
+        return comVersao(service.atualizarParcial(id, usuarioDTO, versaoEsperada));
+    }
+
+    // O primeiro tipo aceito (por especificidade e qualidade) que seja JSON ou CBOR decide;
+    // sem Accept, ou com */*, fica o JSON
+    private boolean prefereCbor(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        for (MediaType aceito : negociacao.resolveMediaTypes(request)) {
+            if (aceito.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (aceito.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Mesma regra do prefereCbor, entre CSV e NDJSON
+    private FormatoExportacao formatoExportacao(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        for (MediaType aceito : negociacao.resolveMediaTypes(request)) {
+            for (FormatoExportacao formato : FormatoExportacao.values()) {
+                if (aceito.isCompatibleWith(MediaType.parseMediaType(formato.getTipo()))) {
+                    return formato;
+                }
+            }
+        }
+        return FormatoExportacao.CSV;
+    }
+
+    // Gerador sobre o corpo da resposta, já com o Content-Type do formato escolhido
+    private JsonGenerator criarGerador(boolean cbor, HttpServletResponse response) throws IOException {
+        if (cbor) {
+            response.setContentType(MediaType.APPLICATION_CBOR_VALUE);
+            return cborMapper.createGenerator(response.getOutputStream());
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        return objectMapper.createGenerator(response.getOutputStream());
+    }
 
-        return ResponseEntity.ok(service.atualizar(id, usuarioDTO));
+    // 200 com ETag e Last-Modified do usuário; o corpo pode ser JSON ou CBOR conforme o Accept
+    private ResponseEntity<UsuarioResponseDTO> comVersao(UsuarioResponseDTO usuario) {
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(Etags.deUsuario(usuario.getId(), usuario.getVersao()))
+                .lastModified(Etags.emMillis(usuario.getDataAtualizacao()))
+                .body(usuario);
     }
 }
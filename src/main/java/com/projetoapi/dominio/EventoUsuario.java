@@ -0,0 +1,51 @@
+package com.projetoapi.dominio;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Outbox das alterações de usuários.
+// Cada escrita em usuarios grava um evento na mesma transação, ainda sem posição.
+// O RelayDeEventos atribui a posição (sequencial e sem lacunas) ao publicar;
+// é ela o offset usado pelos consumidores em GET /usuarios/eventos?desde=.
+@Entity
+@Table(
+        name = "usuarios_eventos",
+        indexes = @Index(name = "idx_usuarios_eventos_posicao", columnList = "posicao", unique = true)
+)
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class EventoUsuario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_eventos_seq")
+    @SequenceGenerator(name = "usuarios_eventos_seq", sequenceName = "usuarios_eventos_seq", allocationSize = 50)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    // Nula enquanto o evento não foi publicado
+    @Setter
+    private Long posicao;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TipoEventoUsuario tipo;
+
+    @Column(nullable = false)
+    private Long usuarioId;
+
+    // Versão do usuário após a alteração (na remoção, a gravada pelo UPDATE da exclusão lógica)
+    private Long versao;
+
+    @Column(nullable = false)
+    private LocalDateTime dataHora;
+
+    public EventoUsuario(TipoEventoUsuario tipo, Long usuarioId, Long versao) {
+        this.tipo = tipo;
+        this.usuarioId = usuarioId;
+        this.versao = versao;
+        this.dataHora = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,8 @@
+package com.projetoapi.dominio;
+
+public enum TipoEventoUsuario {
+
+    CRIADO,
+    ATUALIZADO,
+    REMOVIDO
+}
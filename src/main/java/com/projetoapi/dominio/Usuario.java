@@ -2,18 +2,47 @@ package com.projetoapi.dominio;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "usuarios")
+@Table(
+        name = "usuarios",
+        // Índices da busca filtrada (GET /usuarios/busca), paginada por "id > ? order by id":
+        // role com id (lido já na ordem da paginação, sem ordenar), datas sozinhas e prefixo
+        // de nome. No PostgreSQL o prefixo usa o índice varchar_pattern_ops de
+        // db/indices-postgresql.sql: com collation diferente de C, este não serve ao LIKE.
+        indexes = {
+                @Index(name = "idx_usuarios_role_id", columnList = "role, id"),
+                @Index(name = "idx_usuarios_criacao", columnList = "data_criacao"),
+                @Index(name = "idx_usuarios_atualizacao", columnList = "data_atualizacao"),
+                @Index(name = "idx_usuarios_nome", columnList = "nome")
+        }
+)
+// O UPDATE gerado inclui só as colunas alteradas (além de versão e data de atualização),
+// o que deixa o PATCH barato e evita reescrever a senha quando ela não muda.
+@DynamicUpdate
+// Exclusão lógica: toda consulta e carga da entidade ignora as linhas com deletado_em.
+// A unicidade do email e os índices parciais que sustentam este filtro ficam em
+// db/indices-<banco>.sql, porque dependem do banco e o Hibernate não os gera.
+@SQLRestriction("deletado_em is null")
 @Getter
 @NoArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Usuario {
 
+    // Prefixo dos nomes da restrição de unicidade do email (só entre usuários não removidos):
+    // uk_usuarios_emails no diretório de emails e uk_usuarios_emails_p<n> em cada partição dele.
+    // Usado para traduzir violações em 409.
+    public static final String UK_EMAIL = "uk_usuarios_email";
+
+    // Sequência com alocação em blocos (pooled): o Hibernate reserva 50 ids por ida ao banco
+    // e consegue agrupar os INSERTs em lotes JDBC, o que IDENTITY não permite.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_seq")
+    @SequenceGenerator(name = "usuarios_seq", sequenceName = "usuarios_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -22,7 +51,7 @@ public class Usuario {
     private String nome;
 
     @Setter
-    @Column(unique = true, nullable = false, length = 50)
+    @Column(nullable = false, length = 50)
     private String email;
 
     @Setter
@@ -40,6 +69,17 @@ public class Usuario {
     @Column(nullable = false)
     private LocalDateTime dataAtualizacao;
 
+    // Incrementada pelo Hibernate a cada UPDATE; base dos ETags e do If-Match.
+    // Um UPDATE com versão antiga não altera linhas e falha com erro de lock otimista.
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
+    // Preenchida pelo UPDATE de UsuarioRepository.marcarComoDeletado; a linha fica
+    // invisível para a aplicação até ser apagada pelo ExpurgoDeUsuarios.
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime deletadoEm;
+
     public Usuario(String nome, String email, String senha, Role role) {
         this.nome = nome;
         this.email = email;
@@ -0,0 +1,25 @@
+package com.projetoapi.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+// Corpo do PATCH: campos ausentes (ou null) mantêm o valor atual.
+// As regras dos campos enviados são as mesmas do UsuarioRequestDTO.
+@Getter
+@Setter
+public class AtualizacaoParcialUsuarioDTO {
+
+    @Pattern(regexp = ".*\\S.*", message = "não deve estar em branco")
+    private String nome;
+
+    @Email
+    @Pattern(regexp = ".*\\S.*", message = "não deve estar em branco")
+    private String email;
+
+    @Size(min = 6, max = 10)
+    private String senha;
+
+}
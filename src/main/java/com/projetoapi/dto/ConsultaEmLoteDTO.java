@@ -0,0 +1,24 @@
+package com.projetoapi.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+// Corpo de POST /usuarios/consulta: ids e/ou emails, até LIMITE de cada
+@Getter
+@Setter
+public class ConsultaEmLoteDTO {
+
+    public static final int LIMITE = 500;
+
+    @Size(max = LIMITE)
+    private List<@NotNull Long> ids = List.of();
+
+    @Size(max = LIMITE)
+    private List<@NotBlank String> emails = List.of();
+
+}
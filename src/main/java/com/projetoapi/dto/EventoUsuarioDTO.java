@@ -0,0 +1,21 @@
+package com.projetoapi.dto;
+
+import com.projetoapi.dominio.TipoEventoUsuario;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Evento compacto: o consumidor busca o estado atual em GET /usuarios/{id}
+// (com If-None-Match) quando precisa dos dados.
+@Getter
+@AllArgsConstructor
+public class EventoUsuarioDTO {
+
+    private final long posicao;
+    private final TipoEventoUsuario tipo;
+    private final Long usuarioId;
+    private final Long versao;
+    private final LocalDateTime dataHora;
+
+}
@@ -0,0 +1,33 @@
+package com.projetoapi.dto;
+
+import com.projetoapi.dominio.Role;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// Filtros opcionais da busca de usuários; campos nulos não restringem a consulta.
+// As datas seguem ISO-8601 (ex.: 2026-02-17T00:00:00) e os intervalos são inclusivos.
+@Getter
+@Setter
+public class FiltroUsuarioDTO {
+
+    private Role role;
+
+    // Prefixo do nome; a comparação diferencia maiúsculas para aproveitar o índice em nome
+    private String nome;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime criadoDe;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime criadoAte;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime atualizadoDe;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime atualizadoAte;
+
+}
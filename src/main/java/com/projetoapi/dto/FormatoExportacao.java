@@ -0,0 +1,16 @@
+package com.projetoapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Formatos da exportação completa de usuários (GET /usuarios/exportacao e job noturno)
+@Getter
+@AllArgsConstructor
+public enum FormatoExportacao {
+
+    CSV("csv", "text/csv"),
+    NDJSON("ndjson", "application/x-ndjson");
+
+    private final String extensao;
+    private final String tipo;
+}
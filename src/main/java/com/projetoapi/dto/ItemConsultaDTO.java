@@ -0,0 +1,28 @@
+package com.projetoapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Um item por chave enviada em POST /usuarios/consulta. Só uma das chaves (id ou
+// email) vem preenchida; usuario é null quando a situação é NAO_ENCONTRADO.
+@Getter
+@AllArgsConstructor
+public class ItemConsultaDTO {
+
+    private final Long id;
+    private final String email;
+    private final SituacaoItemConsulta situacao;
+    private final UsuarioResponseDTO usuario;
+
+    public static ItemConsultaDTO porId(Long id, UsuarioResponseDTO usuario) {
+        return new ItemConsultaDTO(id, null, situacao(usuario), usuario);
+    }
+
+    public static ItemConsultaDTO porEmail(String email, UsuarioResponseDTO usuario) {
+        return new ItemConsultaDTO(null, email, situacao(usuario), usuario);
+    }
+
+    private static SituacaoItemConsulta situacao(UsuarioResponseDTO usuario) {
+        return usuario == null ? SituacaoItemConsulta.NAO_ENCONTRADO : SituacaoItemConsulta.ENCONTRADO;
+    }
+}
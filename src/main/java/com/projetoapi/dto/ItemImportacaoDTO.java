@@ -0,0 +1,16 @@
+package com.projetoapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemImportacaoDTO {
+
+    // Posição do item no corpo enviado (começando em 0)
+    private final int indice;
+    private final SituacaoItemImportacao situacao;
+    private final Long id;
+    private final String mensagem;
+
+}
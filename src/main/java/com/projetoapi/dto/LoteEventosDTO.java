@@ -0,0 +1,17 @@
+package com.projetoapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class LoteEventosDTO {
+
+    private final List<EventoUsuarioDTO> eventos;
+
+    // Valor para o próximo "desde": a posição do último evento, ou o próprio "desde" se veio vazio
+    private final long proximo;
+
+}
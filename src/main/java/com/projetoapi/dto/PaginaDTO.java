@@ -0,0 +1,17 @@
+package com.projetoapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class PaginaDTO<T> {
+
+    private final List<T> itens;
+
+    // Cursor opaco para a próxima página; nulo quando não há mais registros.
+    private final String proximo;
+
+}
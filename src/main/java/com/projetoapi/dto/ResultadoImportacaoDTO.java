@@ -0,0 +1,17 @@
+package com.projetoapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ResultadoImportacaoDTO {
+
+    private final int total;
+    private final int criados;
+    private final int rejeitados;
+    private final List<ItemImportacaoDTO> itens;
+
+}
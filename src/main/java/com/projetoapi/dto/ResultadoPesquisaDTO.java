@@ -0,0 +1,17 @@
+package com.projetoapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Item da pesquisa aproximada (GET /usuarios/pesquisa). A relevância é a fração
+// dos trigramas do termo encontrados no nome ou no email, de 0 a 1.
+@Getter
+@AllArgsConstructor
+public class ResultadoPesquisaDTO {
+
+    private final Long id;
+    private final String nome;
+    private final String email;
+    private final double relevancia;
+
+}
@@ -0,0 +1,7 @@
+package com.projetoapi.dto;
+
+public enum SituacaoItemConsulta {
+
+    ENCONTRADO,
+    NAO_ENCONTRADO
+}
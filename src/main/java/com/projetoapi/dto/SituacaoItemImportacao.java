@@ -0,0 +1,9 @@
+package com.projetoapi.dto;
+
+public enum SituacaoItemImportacao {
+
+    CRIADO,
+    INVALIDO,
+    DUPLICADO,
+    ERRO
+}
@@ -1,5 +1,7 @@
 package com.projetoapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.projetoapi.dominio.Role;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -15,4 +17,19 @@ public class UsuarioResponseDTO {
     private final String role;
     private final LocalDateTime dataCriacao;
 
+    // Usados apenas para os headers ETag/Last-Modified; não fazem parte do JSON
+    @JsonIgnore
+    private final Long versao;
+    @JsonIgnore
+    private final LocalDateTime dataAtualizacao;
+
+    public UsuarioResponseDTO(Long id, String nome, String email, String role, LocalDateTime dataCriacao) {
+        this(id, nome, email, role, dataCriacao, null, null);
+    }
+
+    // Usado pelas consultas que projetam direto no DTO, onde a role chega como enum
+    public UsuarioResponseDTO(Long id, String nome, String email, Role role, LocalDateTime dataCriacao) {
+        this(id, nome, email, role.name(), dataCriacao);
+    }
+
 }
@@ -0,0 +1,19 @@
+package com.projetoapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Resumo da tabela que muda a cada inserção, atualização ou remoção:
+// o total muda em inserções/remoções, o maior id em trocas (ids só crescem)
+// e a maior dataAtualizacao em qualquer atualização.
+@Getter
+@AllArgsConstructor
+public class VersaoListaDTO {
+
+    private final long total;
+    private final Long maiorId;
+    private final LocalDateTime ultimaAtualizacao;
+
+}
@@ -0,0 +1,17 @@
+package com.projetoapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Versão de um usuário, lida sem carregar a entidade (GET condicional)
+@Getter
+@AllArgsConstructor
+public class VersaoUsuarioDTO {
+
+    private final Long id;
+    private final Long versao;
+    private final LocalDateTime dataAtualizacao;
+
+}
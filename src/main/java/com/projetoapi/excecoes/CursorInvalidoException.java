@@ -0,0 +1,9 @@
+package com.projetoapi.excecoes;
+
+public class CursorInvalidoException extends RuntimeException {
+
+    // Erro do cliente: a pilha não ajuda no diagnóstico, então não é capturada.
+    public CursorInvalidoException(String mensagem) {
+        super(mensagem, null, false, false);
+    }
+}
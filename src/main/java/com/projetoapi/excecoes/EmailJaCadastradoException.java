@@ -2,7 +2,8 @@ package com.projetoapi.excecoes;
 
 public class EmailJaCadastradoException extends RuntimeException{
 
+    // Comum em picos de cadastro; a pilha nunca é usada no tratamento do 409.
     public EmailJaCadastradoException(String mensagem) {
-        super(mensagem);
+        super(mensagem, null, false, false);
     }
 }
@@ -0,0 +1,16 @@
+package com.projetoapi.excecoes;
+
+import lombok.Getter;
+
+@Getter
+public class LimiteDeTaxaExcedidoException extends RuntimeException {
+
+    // Segundos até o cliente ter uma ficha disponível (header Retry-After)
+    private final long segundosParaNovaTentativa;
+
+    // Rejeição rotineira de um cliente acima da cota: a pilha não tem utilidade.
+    public LimiteDeTaxaExcedidoException(String mensagem, long segundosParaNovaTentativa) {
+        super(mensagem, null, false, false);
+        this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+    }
+}
@@ -1,83 +1,225 @@
 package com.projetoapi.excecoes;
 
+import com.projetoapi.dominio.Usuario;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import tools.jackson.core.exc.StreamReadException;
+import tools.jackson.databind.exc.MismatchedInputException;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// As respostas de erro são escritas pelo SerializadorDeErro no formato de RespostaDeErro
 @RestControllerAdvice
 public class ManipuladorDeExcecoesGlobal {
 
+    private final MeterRegistry meterRegistry;
+    private final SerializadorDeErro serializadorDeErro;
+    private final Map<Class<?>, Counter> contadores = new ConcurrentHashMap<>();
+
+    public ManipuladorDeExcecoesGlobal(MeterRegistry meterRegistry, SerializadorDeErro serializadorDeErro) {
+        this.meterRegistry = meterRegistry;
+        this.serializadorDeErro = serializadorDeErro;
+    }
+
     // 404 - Usuário não encontrado
     @ExceptionHandler(UsuarioNaoEncontradoException.class)
-    public ResponseEntity<RespostaDeErro> handleUsuarioNaoEncontrado(
+    public ResponseEntity<byte[]> handleUsuarioNaoEncontrado(
             UsuarioNaoEncontradoException ex,
             HttpServletRequest request) {
 
-        RespostaDeErro erro = new RespostaDeErro(
-                HttpStatus.NOT_FOUND.value(),
-                HttpStatus.NOT_FOUND.getReasonPhrase(),
-                ex.getMessage(),
-                request.getRequestURI()
-        );
-
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(erro);
+        return responder(HttpStatus.NOT_FOUND, ex.getMessage(), ex, request);
     }
 
     // 409 - Email já cadastrado
     @ExceptionHandler(EmailJaCadastradoException.class)
-    public ResponseEntity<RespostaDeErro> handleEmailJaCadastrado(
+    public ResponseEntity<byte[]> handleEmailJaCadastrado(
             EmailJaCadastradoException ex,
             HttpServletRequest request) {
 
-        RespostaDeErro erro = new RespostaDeErro(
-                HttpStatus.CONFLICT.value(),
-                HttpStatus.CONFLICT.getReasonPhrase(),
-                ex.getMessage(),
-                request.getRequestURI()
-        );
+        return responder(HttpStatus.CONFLICT, ex.getMessage(), ex, request);
+    }
+
+    // 409 - Violação da restrição única de email no banco.
+    // Outras violações de integridade seguem como erro inesperado.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<byte[]> handleViolacaoDeIntegridade(
+            DataIntegrityViolationException ex,
+            HttpServletRequest request) {
+
+        if (violouRestricao(ex, Usuario.UK_EMAIL)) {
+            return handleEmailJaCadastrado(
+                    new EmailJaCadastradoException("Email já cadastrado."), request);
+        }
+
+        return handleExcecaoGenerica(ex, request);
+    }
+
+    // 409 - Usuário alterado por outra requisição entre a leitura e o UPDATE (@Version)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> handleConflitoDeVersao(
+            OptimisticLockingFailureException ex,
+            HttpServletRequest request) {
 
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(erro);
+        return responder(HttpStatus.CONFLICT, "Usuario foi alterado por outra requisição.", ex, request);
+    }
+
+    // 412 - If-Match não corresponde à versão atual do usuário
+    @ExceptionHandler(VersaoDesatualizadaException.class)
+    public ResponseEntity<byte[]> handleVersaoDesatualizada(
+            VersaoDesatualizadaException ex,
+            HttpServletRequest request) {
+
+        return responder(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), ex, request);
     }
 
     // 400 - Erro de validação
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<RespostaDeErro> handleValidacao(
+    public ResponseEntity<byte[]> handleValidacao(
             MethodArgumentNotValidException ex,
             HttpServletRequest request) {
 
-        String mensagem = ex.getBindingResult()
-                .getFieldErrors()
-                .stream()
-                .map(erro -> erro.getField() + ": " + erro.getDefaultMessage())
-                .reduce((msg1, msg2) -> msg1 + ", " + msg2)
-                .orElse("Erro de validação");
+        List<FieldError> camposInvalidos = ex.getBindingResult().getFieldErrors();
+
+        // Um único StringBuilder em vez de concatenar a cada campo
+        String mensagem = "Erro de validação";
+        if (!camposInvalidos.isEmpty()) {
+            StringBuilder texto = new StringBuilder(64);
+            for (FieldError campo : camposInvalidos) {
+                if (!texto.isEmpty()) {
+                    texto.append(", ");
+                }
+                texto.append(campo.getField()).append(": ").append(campo.getDefaultMessage());
+            }
+            mensagem = texto.toString();
+        }
+
+        return responder(HttpStatus.BAD_REQUEST, mensagem, ex, request);
+    }
+
+    // 400 - Cursor de paginação inválido
+    @ExceptionHandler(CursorInvalidoException.class)
+    public ResponseEntity<byte[]> handleCursorInvalido(
+            CursorInvalidoException ex,
+            HttpServletRequest request) {
+
+        return responder(HttpStatus.BAD_REQUEST, ex.getMessage(), ex, request);
+    }
+
+    // 400 - Parâmetro de consulta com tipo inválido (ex.: limite=abc)
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<byte[]> handleParametroInvalido(
+            MethodArgumentTypeMismatchException ex,
+            HttpServletRequest request) {
+
+        return responder(HttpStatus.BAD_REQUEST, "Parâmetro inválido: " + ex.getName(), ex, request);
+    }
 
-        RespostaDeErro erro = new RespostaDeErro(
-                HttpStatus.BAD_REQUEST.value(),
-                HttpStatus.BAD_REQUEST.getReasonPhrase(),
-                mensagem,
-                request.getRequestURI()
-        );
+    // 400 - Corpo lido manualmente (ex.: importação em lote) com JSON malformado
+    @ExceptionHandler({StreamReadException.class, MismatchedInputException.class})
+    public ResponseEntity<byte[]> handleCorpoInvalido(
+            RuntimeException ex,
+            HttpServletRequest request) {
 
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(erro);
+        return responder(HttpStatus.BAD_REQUEST, "Corpo da requisição inválido.", ex, request);
+    }
+
+    // 503 - Executor de hash de senhas sem capacidade no momento
+    @ExceptionHandler(ServicoSobrecarregadoException.class)
+    public ResponseEntity<byte[]> handleServicoSobrecarregado(
+            ServicoSobrecarregadoException ex,
+            HttpServletRequest request) {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+
+        return responder(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), ex, request, headers);
+    }
+
+    // 429 - Cliente acima da cota do endpoint (LimitadorDeRequisicoes)
+    @ExceptionHandler(LimiteDeTaxaExcedidoException.class)
+    public ResponseEntity<byte[]> handleLimiteDeTaxaExcedido(
+            LimiteDeTaxaExcedidoException ex,
+            HttpServletRequest request) {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getSegundosParaNovaTentativa()));
+
+        return responder(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), ex, request, headers);
     }
 
     // 500 - Erro inesperado
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<RespostaDeErro> handleExcecaoGenerica(
+    public ResponseEntity<byte[]> handleExcecaoGenerica(
             Exception ex,
             HttpServletRequest request) {
 
-        RespostaDeErro erro = new RespostaDeErro(
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase(),
-                "Erro interno inesperado",
-                request.getRequestURI()
-        );
+        return responder(HttpStatus.INTERNAL_SERVER_ERROR, "Erro interno inesperado", ex, request);
+    }
+
+    // Procura na cadeia de causas a violação de restrição do Hibernate e compara o nome.
+    // O nome é comparado sem diferenciar maiúsculas porque cada banco o reporta de um jeito
+    // (H2, por exemplo, devolve em caixa alta e com o nome do índice).
+    private boolean violouRestricao(Throwable ex, String nomeRestricao) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao
+                    && violacao.getConstraintName() != null
+                    && violacao.getConstraintName().toLowerCase().contains(nomeRestricao)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ResponseEntity<byte[]> responder(
+            HttpStatus status,
+            String mensagem,
+            Throwable ex,
+            HttpServletRequest request) {
+
+        return responder(status, mensagem, ex, request, HttpHeaders.EMPTY);
+    }
+
+    // Monta a resposta de erro com o SerializadorDeErro (mesmo JSON de RespostaDeErro)
+    private ResponseEntity<byte[]> responder(
+            HttpStatus status,
+            String mensagem,
+            Throwable ex,
+            HttpServletRequest request,
+            HttpHeaders headers) {
+
+        contarErro(status, ex);
+
+        return ResponseEntity.status(status)
+                .headers(headers)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(serializadorDeErro.serializar(status, mensagem, request.getRequestURI()));
+    }
 
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(erro);
+    // Conta os erros devolvidos por status HTTP e tipo de exceção (usuarios.erros).
+    // Cada tipo de exceção sempre resulta no mesmo status, então o contador é guardado
+    // por classe e o caminho quente não monta tags a cada erro.
+    private void contarErro(HttpStatus status, Throwable ex) {
+        Counter contador = contadores.get(ex.getClass());
+        if (contador == null) {
+            contador = contadores.computeIfAbsent(ex.getClass(), tipo -> meterRegistry.counter("usuarios.erros",
+                    "status", String.valueOf(status.value()),
+                    "excecao", tipo.getSimpleName()));
+        }
+        contador.increment();
     }
 }
@@ -0,0 +1,63 @@
+package com.projetoapi.excecoes;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Relógio compartilhado pelas respostas de erro.
+// O horário já formatado até os segundos (ISO-8601, como o Jackson escreve um
+// LocalDateTime) é reaproveitado por todas as respostas dentro do mesmo segundo;
+// só a fração, com a mesma precisão do LocalDateTime.now(), é escrita a cada erro.
+final class RelogioCompartilhado {
+
+    private final Clock clock;
+    private volatile Segundo atual = new Segundo(Long.MIN_VALUE, new byte[0]);
+
+    RelogioCompartilhado(Clock clock) {
+        this.clock = clock;
+    }
+
+    void escreverAgoraIso(ByteArrayOutputStream buffer) {
+        Instant agora = clock.instant();
+        Segundo segundo = atual;
+        if (segundo.epoca() != agora.getEpochSecond()) {
+            // Corrida benigna: duas threads podem formatar o mesmo segundo, o resultado é igual
+            LocalDateTime inicio = LocalDateTime.ofInstant(agora, clock.getZone()).withNano(0);
+            segundo = new Segundo(agora.getEpochSecond(),
+                    DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(inicio).getBytes(StandardCharsets.US_ASCII));
+            atual = segundo;
+        }
+        buffer.writeBytes(segundo.iso());
+        escreverFracao(buffer, agora.getNano());
+    }
+
+    // Como o ISO_LOCAL_DATE_TIME: sem fração no segundo cheio e sem zeros à direita
+    private static void escreverFracao(ByteArrayOutputStream buffer, int nanos) {
+        if (nanos == 0) {
+            return;
+        }
+        int digitos = 9;
+        while (nanos % 10 == 0) {
+            nanos /= 10;
+            digitos--;
+        }
+        buffer.write('.');
+        for (int divisor = pow10(digitos - 1); divisor > 0; divisor /= 10) {
+            buffer.write('0' + nanos / divisor % 10);
+        }
+    }
+
+    private static int pow10(int expoente) {
+        int valor = 1;
+        for (int i = 0; i < expoente; i++) {
+            valor *= 10;
+        }
+        return valor;
+    }
+
+    private record Segundo(long epoca, byte[] iso) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.projetoapi.excecoes;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Escreve o corpo de erro no mesmo formato JSON de RespostaDeErro
+// ({"dataHora","status","erro","mensagem","caminho"}) sem passar pelo Jackson.
+// Os trechos fixos de cada status são pré-codificados e o horário vem do
+// RelogioCompartilhado. O buffer é local a cada chamada, não depende do modelo de
+// threads (com threads virtuais, um buffer por thread não seria reaproveitado), e já
+// nasce do tamanho do texto, então em geral não cresce durante a escrita.
+@Component
+public class SerializadorDeErro {
+
+    private static final byte[] INICIO = bytes("{\"dataHora\":\"");
+    private static final byte[] CAMINHO = bytes("\",\"caminho\":\"");
+    private static final byte[] FIM = bytes("\"}");
+    private static final byte[] HEX = bytes("0123456789abcdef");
+
+    // Horário, trechos fixos e o maior "erro" de HttpStatus, com folga
+    private static final int TAMANHO_FIXO = 160;
+
+    private final RelogioCompartilhado relogio;
+    private final Map<HttpStatus, byte[]> trechosPorStatus = new EnumMap<>(HttpStatus.class);
+
+    public SerializadorDeErro() {
+        this(Clock.systemDefaultZone());
+    }
+
+    SerializadorDeErro(Clock clock) {
+        this.relogio = new RelogioCompartilhado(clock);
+
+        // Ex.: ","status":404,"erro":"Not Found","mensagem":"
+        for (HttpStatus status : HttpStatus.values()) {
+            trechosPorStatus.put(status, bytes("\",\"status\":" + status.value()
+                    + ",\"erro\":\"" + status.getReasonPhrase() + "\",\"mensagem\":\""));
+        }
+    }
+
+    public byte[] serializar(HttpStatus status, String mensagem, String caminho) {
+
+        // Até 3 bytes por char em UTF-8; escapes longos são raros e só fazem o buffer crescer
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(
+                TAMANHO_FIXO + 3 * (comprimento(mensagem) + comprimento(caminho)));
+
+        buffer.writeBytes(INICIO);
+        relogio.escreverAgoraIso(buffer);
+        buffer.writeBytes(trechosPorStatus.get(status));
+        escreverTexto(buffer, mensagem);
+        buffer.writeBytes(CAMINHO);
+        escreverTexto(buffer, caminho);
+        buffer.writeBytes(FIM);
+
+        return buffer.toByteArray();
+    }
+
+    // Escapa para string JSON e codifica em UTF-8 direto no buffer, caractere a caractere
+    private static void escreverTexto(ByteArrayOutputStream buffer, String texto) {
+
+        if (texto == null) {
+            return;
+        }
+
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                buffer.write('\\');
+                buffer.write(c);
+            } else if (c < 0x20) {
+                buffer.write('\\');
+                buffer.write('u');
+                buffer.write('0');
+                buffer.write('0');
+                buffer.write(HEX[c >> 4]);
+                buffer.write(HEX[c & 0xF]);
+            } else if (c < 0x80) {
+                buffer.write(c);
+            } else if (c < 0x800) {
+                buffer.write(0xC0 | (c >> 6));
+                buffer.write(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                    && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, texto.charAt(++i));
+                buffer.write(0xF0 | (codePoint >> 18));
+                buffer.write(0x80 | ((codePoint >> 12) & 0x3F));
+                buffer.write(0x80 | ((codePoint >> 6) & 0x3F));
+                buffer.write(0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer.write('?');
+            } else {
+                buffer.write(0xE0 | (c >> 12));
+                buffer.write(0x80 | ((c >> 6) & 0x3F));
+                buffer.write(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static int comprimento(String texto) {
+        return texto == null ? 0 : texto.length();
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+}
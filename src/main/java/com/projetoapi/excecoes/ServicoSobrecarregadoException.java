@@ -0,0 +1,9 @@
+package com.projetoapi.excecoes;
+
+public class ServicoSobrecarregadoException extends RuntimeException {
+
+    // Lançada justamente quando o serviço está sob pressão: não captura a pilha.
+    public ServicoSobrecarregadoException(String mensagem) {
+        super(mensagem, null, false, false);
+    }
+}
@@ -2,7 +2,9 @@ package com.projetoapi.excecoes;
 
 public class UsuarioNaoEncontradoException extends RuntimeException {
 
+    // Sem stack trace nem exceções suprimidas: é um resultado esperado de negócio,
+    // e capturar a pilha a cada ocorrência custaria mais que o próprio tratamento.
     public UsuarioNaoEncontradoException(String mensagem) {
-        super(mensagem);
+        super(mensagem, null, false, false);
     }
 }
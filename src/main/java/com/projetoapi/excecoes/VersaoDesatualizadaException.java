@@ -0,0 +1,9 @@
+package com.projetoapi.excecoes;
+
+public class VersaoDesatualizadaException extends RuntimeException {
+
+    // Resultado esperado de concorrência otimista; a pilha não é usada no 412.
+    public VersaoDesatualizadaException(String mensagem) {
+        super(mensagem, null, false, false);
+    }
+}
@@ -0,0 +1,76 @@
+package com.projetoapi.repositorios;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Ativada pelo perfil "replica" (usuarios.replicas.habilitado=true).
+// O primário continua configurado por spring.datasource.*; cada URL em
+// usuarios.replicas.urls vira um pool Hikari somente leitura.
+@Configuration
+@ConditionalOnProperty(name = "usuarios.replicas.habilitado", havingValue = "true")
+class ConfiguracaoReplicas {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        HikariDataSource dataSource = propriedades.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(RoteadorDeDataSource.PRIMARIO);
+        return dataSource;
+    }
+
+    @Bean
+    LeiturasAposEscrita leiturasAposEscrita(@Value("${usuarios.replicas.atraso-maximo:5s}") Duration atrasoMaximo) {
+        return new LeiturasAposEscrita(atrasoMaximo);
+    }
+
+    @Bean(destroyMethod = "fecharReplicas")
+    RoteadorDeDataSource roteadorDeDataSource(
+            @Qualifier("dataSourcePrimario") DataSource primario,
+            DataSourceProperties propriedades,
+            LeiturasAposEscrita leiturasAposEscrita,
+            @Value("${usuarios.replicas.urls}") List<String> urls,
+            @Value("${usuarios.replicas.tamanho-pool:10}") int tamanhoPool,
+            @Value("${usuarios.replicas.consulta-atraso}") String consultaAtraso,
+            @Value("${usuarios.replicas.atraso-maximo:5s}") Duration atrasoMaximo,
+            MeterRegistry meterRegistry) {
+
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i));
+            replica.setUsername(propriedades.determineUsername());
+            replica.setPassword(propriedades.determinePassword());
+            replica.setMaximumPoolSize(tamanhoPool);
+            replica.setReadOnly(true);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.add(replica);
+        }
+
+        return new RoteadorDeDataSource(primario, replicas, leiturasAposEscrita,
+                consultaAtraso, atrasoMaximo, meterRegistry);
+    }
+
+    // DataSource usado pelo JPA: adia a escolha do banco até o primeiro comando SQL
+    @Bean
+    @Primary
+    DataSource dataSource(RoteadorDeDataSource roteador) {
+        return new LazyConnectionDataSourceProxy(roteador);
+    }
+}
@@ -0,0 +1,27 @@
+package com.projetoapi.repositorios;
+
+import com.projetoapi.dominio.EventoUsuario;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EventoUsuarioRepository extends JpaRepository<EventoUsuario, Long> {
+
+    // Eventos ainda não publicados, na ordem em que foram gravados
+    List<EventoUsuario> findByPosicaoIsNullOrderByIdAsc(Limit limite);
+
+    @Query("select coalesce(max(e.posicao), 0) from EventoUsuario e")
+    long findUltimaPosicao();
+
+    // Leitura incremental dos consumidores, pelo índice único de posicao
+    List<EventoUsuario> findByPosicaoGreaterThanOrderByPosicaoAsc(Long posicao, Limit limite);
+
+    // Pelo idx_usuarios_eventos_publicados (db/indices-*.sql), sem varrer o outbox inteiro
+    @Modifying
+    @Query("delete from EventoUsuario e where e.posicao is not null and e.dataHora < :limite")
+    int expurgarPublicadosAntesDe(LocalDateTime limite);
+}
@@ -0,0 +1,46 @@
+package com.projetoapi.repositorios;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+
+// Garante leitura das próprias escritas com réplicas assíncronas: o cliente que abriu
+// uma transação de escrita tem as leituras enviadas ao primário durante a janela
+// (o atraso máximo aceito das réplicas). Os demais clientes seguem lendo das réplicas.
+// O cliente é o atributo ATRIBUTO_CLIENTE da requisição atual; fora de uma requisição
+// (tarefas agendadas) não há cliente e nada é registrado.
+public class LeiturasAposEscrita {
+
+    public static final String ATRIBUTO_CLIENTE = LeiturasAposEscrita.class.getName() + ".cliente";
+
+    private final Cache<String, Boolean> escritasRecentes;
+
+    public LeiturasAposEscrita(Duration janela) {
+        this.escritasRecentes = Caffeine.newBuilder()
+                .expireAfterWrite(janela)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    void registrarEscrita() {
+        String cliente = clienteAtual();
+        if (cliente != null) {
+            escritasRecentes.put(cliente, Boolean.TRUE);
+        }
+    }
+
+    boolean escreveuRecentemente() {
+        String cliente = clienteAtual();
+        return cliente != null && escritasRecentes.getIfPresent(cliente) != null;
+    }
+
+    private static String clienteAtual() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        return atributos == null
+                ? null
+                : (String) atributos.getAttribute(ATRIBUTO_CLIENTE, RequestAttributes.SCOPE_REQUEST);
+    }
+}
@@ -0,0 +1,164 @@
+package com.projetoapi.repositorios;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Escolhe o banco de cada conexão:
+//   transação somente leitura                -> réplica (rodízio entre as disponíveis)
+//   qualquer outra (escrita ou sem transação) -> primário
+// Leituras de um cliente que escreveu há pouco e leituras sem réplica disponível
+// também vão ao primário. Precisa estar atrás de um LazyConnectionDataSourceProxy,
+// para que a conexão só seja escolhida quando a transação já está marcada como readOnly.
+public class RoteadorDeDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARIO = "primario";
+
+    private final List<Replica> replicas;
+    private final LeiturasAposEscrita leiturasAposEscrita;
+    private final String consultaAtraso;
+    private final double atrasoMaximoSegundos;
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    private final Counter escritas;
+    private final Counter leiturasAposEscritaNoPrimario;
+    private final Counter leiturasSemReplica;
+
+    public RoteadorDeDataSource(DataSource primario,
+                                List<HikariDataSource> replicas,
+                                LeiturasAposEscrita leiturasAposEscrita,
+                                String consultaAtraso,
+                                Duration atrasoMaximo,
+                                MeterRegistry meterRegistry) {
+        this.leiturasAposEscrita = leiturasAposEscrita;
+        this.consultaAtraso = consultaAtraso;
+        this.atrasoMaximoSegundos = atrasoMaximo.toMillis() / 1000.0;
+
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(PRIMARIO, primario);
+
+        this.replicas = new ArrayList<>(replicas.size());
+        for (HikariDataSource dataSource : replicas) {
+            Replica replica = new Replica(dataSource.getPoolName(), dataSource,
+                    meterRegistry.counter("usuarios.datasource.roteamento",
+                            "destino", dataSource.getPoolName(), "motivo", "leitura"));
+            this.replicas.add(replica);
+            destinos.put(replica.nome, dataSource);
+
+            Gauge.builder("usuarios.replica.atraso", replica, r -> r.atrasoSegundos)
+                    .description("Atraso de replicação medido na última verificação")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.nome)
+                    .register(meterRegistry);
+            Gauge.builder("usuarios.replica.disponivel", replica, r -> r.disponivel ? 1 : 0)
+                    .description("1 se a réplica está recebendo leituras")
+                    .tag("replica", replica.nome)
+                    .register(meterRegistry);
+        }
+
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+
+        this.escritas = meterRegistry.counter("usuarios.datasource.roteamento",
+                "destino", PRIMARIO, "motivo", "escrita");
+        this.leiturasAposEscritaNoPrimario = meterRegistry.counter("usuarios.datasource.roteamento",
+                "destino", PRIMARIO, "motivo", "leitura-apos-escrita");
+        this.leiturasSemReplica = meterRegistry.counter("usuarios.datasource.roteamento",
+                "destino", PRIMARIO, "motivo", "sem-replica");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            leiturasAposEscrita.registrarEscrita();
+            escritas.increment();
+            return PRIMARIO;
+        }
+
+        if (leiturasAposEscrita.escreveuRecentemente()) {
+            leiturasAposEscritaNoPrimario.increment();
+            return PRIMARIO;
+        }
+
+        Replica replica = proximaDisponivel();
+        if (replica == null) {
+            leiturasSemReplica.increment();
+            return PRIMARIO;
+        }
+
+        replica.leituras.increment();
+        return replica.nome;
+    }
+
+    private Replica proximaDisponivel() {
+        int total = replicas.size();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), Math.max(total, 1));
+        for (int i = 0; i < total; i++) {
+            Replica replica = replicas.get((inicio + i) % total);
+            if (replica.disponivel) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // Mede o atraso de cada réplica. Uma réplica acima do atraso máximo, ou que não
+    // responde, sai do rodízio até a próxima verificação bem-sucedida.
+    @Scheduled(fixedDelayString = "${usuarios.replicas.intervalo-verificacao-ms:5000}")
+    public void verificarReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection conexao = replica.dataSource.getConnection();
+                 Statement consulta = conexao.createStatement();
+                 ResultSet resultado = consulta.executeQuery(consultaAtraso)) {
+
+                resultado.next();
+                replica.atrasoSegundos = resultado.getDouble(1);
+                replica.disponivel = replica.atrasoSegundos <= atrasoMaximoSegundos;
+            } catch (SQLException e) {
+                replica.disponivel = false;
+                logger.warn("Réplica " + replica.nome + " indisponível: " + e.getMessage());
+            }
+        }
+    }
+
+    // Os pools das réplicas pertencem ao roteador; o do primário é um bean próprio
+    public void fecharReplicas() {
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+    }
+
+    private static final class Replica {
+
+        private final String nome;
+        private final HikariDataSource dataSource;
+        private final Counter leituras;
+
+        // Começa fora do rodízio até a primeira verificação
+        private volatile boolean disponivel;
+        private volatile double atrasoSegundos;
+
+        private Replica(String nome, HikariDataSource dataSource, Counter leituras) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+            this.leituras = leituras;
+        }
+    }
+}
@@ -1,14 +1,128 @@
 package com.projetoapi.repositorios;
 
 import com.projetoapi.dominio.Usuario;
+import com.projetoapi.dto.VersaoListaDTO;
+import com.projetoapi.dto.VersaoUsuarioDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+// As consultas declaradas aqui rodam em transações somente leitura quando chamadas fora
+// de uma transação; com réplicas configuradas (perfil "replica") elas vão para as réplicas.
+// Os métodos herdados de escrita (save, delete...) mantêm a transação de escrita do Spring Data.
+// Todas as consultas sobre a entidade já excluem os usuários removidos (@SQLRestriction em Usuario).
+@Transactional(readOnly = true)
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, UsuarioRepositoryCustom {
 
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+    // ============================
+    // DIRETÓRIO DE EMAILS
+    // ============================
+    // usuarios_emails guarda email -> id dos usuários ativos. Com a tabela usuarios
+    // particionada por hash do id e o diretório por hash do email, cada busca por email
+    // lê uma partição do diretório e, com o id, uma partição de usuarios.
+    // A unicidade do email entre os ativos é a do diretório (uk_usuarios_emails).
 
+    @Query(nativeQuery = true, value = "select case when count(*) > 0 then true else false end "
+            + "from usuarios_emails where email = :email")
     boolean existsByEmail(String email);
 
+    @Query(nativeQuery = true, value = "select u.* from usuarios u where u.id = "
+            + "(select e.usuario_id from usuarios_emails e where e.email = :email) and u.deletado_em is null")
     Optional<Usuario> findByEmail(String email);
+
+    // Consulta em lote: os usuários de um bloco de emails numa única consulta IN pelo diretório
+    @Query(nativeQuery = true, value = "select u.* from usuarios_emails e join usuarios u on u.id = e.usuario_id "
+            + "where e.email in :emails and u.deletado_em is null")
+    List<Usuario> findAllByEmails(Collection<String> emails);
+
+    // Verifica de uma vez quais emails de um bloco já estão cadastrados (uma consulta IN)
+    @Query(nativeQuery = true, value = "select email from usuarios_emails where email in :emails")
+    List<String> findEmailsCadastrados(Collection<String> emails);
+
+    // Na troca de email o antigo sai do diretório e o novo entra por registrarEmails,
+    // que é quem verifica a unicidade
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from usuarios_emails where email = :email")
+    int liberarEmail(String email);
+
+    // Na remoção lógica o email deixa o diretório e fica livre para outro cadastro
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from usuarios_emails where email = "
+            + "(select email from usuarios where id = :id and deletado_em is null)")
+    int liberarEmailDoUsuario(Long id);
+
+    // Paginação por cursor (keyset): busca os próximos registros após o último id visto,
+    // usando o índice da chave primária em vez de OFFSET.
+    List<Usuario> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+
+    // Leitura forward-only de toda a tabela. Deve ser consumida dentro de uma transação
+    // e fechada ao final; o fetch size evita que o driver traga todas as linhas de uma vez.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from Usuario u order by u.id")
+    Stream<Usuario> streamTodosOrdenadosPorId();
+
+    // Só os emails, para montar o FiltroDeEmails sem carregar entidades;
+    // o diretório é bem mais estreito que a tabela de usuários
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(nativeQuery = true, value = "select email from usuarios_emails")
+    Stream<String> streamEmails();
+
+    // id, nome e email dos usuários ativos, para montar o índice da PesquisaDeUsuarios
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u.id, u.nome, u.email from Usuario u")
+    Stream<Object[]> streamNomesEEmails();
+
+    // Consultas leves dos GETs condicionais: só as colunas de versão, sem montar a entidade
+    @Query("select new com.projetoapi.dto.VersaoUsuarioDTO(u.id, u.versao, u.dataAtualizacao) "
+            + "from Usuario u where u.id = :id")
+    Optional<VersaoUsuarioDTO> findVersaoById(Long id);
+
+    @Query("select new com.projetoapi.dto.VersaoListaDTO(count(u), max(u.id), max(u.dataAtualizacao)) "
+            + "from Usuario u")
+    VersaoListaDTO findVersaoDaLista();
+
+    // ============================
+    // EXCLUSÃO LÓGICA E EXPURGO
+    // ============================
+
+    // Um único UPDATE: marca a remoção e avança a versão, para que uma escrita concorrente
+    // que leu o usuário antes falhe no lock otimista em vez de gravar numa linha removida.
+    // Retorna 0 quando o usuário não existe ou já foi removido. O contexto de persistência
+    // é descarregado e limpo para que uma cópia carregada antes não continue visível.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Usuario u set u.deletadoEm = :agora, u.versao = u.versao + 1 "
+            + "where u.id = :id and u.deletadoEm is null")
+    int marcarComoDeletado(Long id, LocalDateTime agora);
+
+    // As consultas abaixo são nativas porque enxergam justamente as linhas que o filtro esconde.
+    // O expurgo em lotes, partição por partição, fica em UsuarioRepositoryImpl.
+    // Versão gravada pelo marcarComoDeletado, lida na mesma transação para o evento de remoção
+    @Query(nativeQuery = true, value = "select versao from usuarios where id = :id")
+    Long findVersaoDoRemovido(Long id);
+
+    @Query(nativeQuery = true, value = "select count(*) from usuarios where deletado_em is not null")
+    long contarDeletados();
+
+    @Query(nativeQuery = true, value = "select min(deletado_em) from usuarios where deletado_em is not null")
+    Optional<LocalDateTime> findDeletadoMaisAntigo();
 }
@@ -0,0 +1,32 @@
+package com.projetoapi.repositorios;
+
+import com.projetoapi.dominio.Usuario;
+import com.projetoapi.dto.FiltroUsuarioDTO;
+import com.projetoapi.dto.UsuarioResponseDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Consultas montadas dinamicamente, implementadas em UsuarioRepositoryImpl
+public interface UsuarioRepositoryCustom {
+
+    // Busca filtrada com paginação por keyset (id > aposId), projetando direto no DTO
+    List<UsuarioResponseDTO> buscar(FiltroUsuarioDTO filtro, long aposId, int limite);
+
+    // Exportação: entrega os usuários com id > aposId em ordem de id, projetados no DTO,
+    // por um cursor forward-only com o fetch size informado numa StatelessSession
+    // (sem contexto de persistência). A transação e a conexão ficam abertas até o fim.
+    void percorrerParaExportacao(long aposId, int tamanhoFetch, Consumer<UsuarioResponseDTO> consumidor);
+
+    // Insere os emails no diretório usuarios_emails num único lote JDBC.
+    // Um email já usado por outro usuário ativo viola uk_usuarios_emails.
+    void registrarEmails(List<Usuario> usuarios);
+
+    // Partições da tabela usuarios (ver db/particionamento-postgresql.sql).
+    // Sem particionamento, a própria tabela é a única partição.
+    List<String> listarParticoes();
+
+    // Apaga um lote dos removidos mais antigos de uma partição, pelo índice local de deletado_em
+    int expurgarDeletadosAntesDe(String particao, LocalDateTime limite, int lote);
+}
@@ -0,0 +1,175 @@
+package com.projetoapi.repositorios;
+
+import com.projetoapi.dominio.Usuario;
+import com.projetoapi.dto.FiltroUsuarioDTO;
+import com.projetoapi.dto.UsuarioResponseDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Implementação do fragmento UsuarioRepositoryCustom (convenção de nome do Spring Data).
+// Na busca, só os filtros informados entram no WHERE, para que o banco escolha o índice
+// adequado declarado em Usuario (ou, no PostgreSQL, o de prefixo de nome). Os demais métodos montam SQL que o Spring Data
+// não gera: lote JDBC no diretório de emails, cursor da exportação e comandos por partição.
+@Transactional(readOnly = true)
+class UsuarioRepositoryImpl implements UsuarioRepositoryCustom {
+
+    private static final String TABELA = "usuarios";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Descobertas no catálogo na primeira chamada; mudar o número de partições exige reiniciar
+    private volatile List<String> particoes;
+
+    @Override
+    public List<UsuarioResponseDTO> buscar(FiltroUsuarioDTO filtro, long aposId, int limite) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UsuarioResponseDTO> query = cb.createQuery(UsuarioResponseDTO.class);
+        Root<Usuario> usuario = query.from(Usuario.class);
+
+        List<Predicate> condicoes = new ArrayList<>();
+        condicoes.add(cb.greaterThan(usuario.get("id"), aposId));
+
+        if (filtro.getRole() != null) {
+            condicoes.add(cb.equal(usuario.get("role"), filtro.getRole()));
+        }
+        if (filtro.getNome() != null && !filtro.getNome().isBlank()) {
+            condicoes.add(cb.like(usuario.get("nome"), escaparLike(filtro.getNome()) + "%", '\\'));
+        }
+        if (filtro.getCriadoDe() != null) {
+            condicoes.add(cb.greaterThanOrEqualTo(usuario.get("dataCriacao"), filtro.getCriadoDe()));
+        }
+        if (filtro.getCriadoAte() != null) {
+            condicoes.add(cb.lessThanOrEqualTo(usuario.get("dataCriacao"), filtro.getCriadoAte()));
+        }
+        if (filtro.getAtualizadoDe() != null) {
+            condicoes.add(cb.greaterThanOrEqualTo(usuario.get("dataAtualizacao"), filtro.getAtualizadoDe()));
+        }
+        if (filtro.getAtualizadoAte() != null) {
+            condicoes.add(cb.lessThanOrEqualTo(usuario.get("dataAtualizacao"), filtro.getAtualizadoAte()));
+        }
+
+        // Projeção direta no DTO: nenhuma entidade é carregada no contexto de persistência
+        query.select(cb.construct(UsuarioResponseDTO.class,
+                        usuario.get("id"),
+                        usuario.get("nome"),
+                        usuario.get("email"),
+                        usuario.get("role"),
+                        usuario.get("dataCriacao")))
+                .where(condicoes.toArray(Predicate[]::new))
+                .orderBy(cb.asc(usuario.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public void percorrerParaExportacao(long aposId, int tamanhoFetch, Consumer<UsuarioResponseDTO> consumidor) {
+        Session sessao = entityManager.unwrap(Session.class);
+        // A StatelessSession usa a conexão da transação atual (a réplica, quando houver)
+        sessao.doWork(conexao -> {
+            try (StatelessSession leitura = sessao.getSessionFactory().withStatelessOptions()
+                    .connection(conexao)
+                    .openStatelessSession();
+                 ScrollableResults<UsuarioResponseDTO> usuarios = leitura.createSelectionQuery(
+                                 "select new com.projetoapi.dto.UsuarioResponseDTO(u.id, u.nome, u.email, u.role, "
+                                         + "u.dataCriacao) from Usuario u where u.id > :apos order by u.id",
+                                 UsuarioResponseDTO.class)
+                         .setParameter("apos", aposId)
+                         .setFetchSize(tamanhoFetch)
+                         .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (usuarios.next()) {
+                    consumidor.accept(usuarios.get());
+                }
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public void registrarEmails(List<Usuario> usuarios) {
+        // Violações viram ConstraintViolationException com o nome do índice, como no flush
+        entityManager.unwrap(Session.class).doWork(conexao -> {
+            try (PreparedStatement insert = conexao.prepareStatement(
+                    "insert into usuarios_emails (email, usuario_id) values (?, ?)")) {
+                for (Usuario usuario : usuarios) {
+                    insert.setString(1, usuario.getEmail());
+                    insert.setLong(2, usuario.getId());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> listarParticoes() {
+        List<String> atuais = particoes;
+        if (atuais == null) {
+            atuais = List.of(TABELA);
+            if (dialeto() instanceof PostgreSQLDialect) {
+                List<String> filhas = entityManager.createNativeQuery(
+                                "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid "
+                                        + "where i.inhparent = cast(:tabela as regclass) order by c.relname", String.class)
+                        .setParameter("tabela", TABELA)
+                        .getResultList();
+                if (!filhas.isEmpty()) {
+                    atuais = List.copyOf(filhas);
+                }
+            }
+            particoes = atuais;
+        }
+        return atuais;
+    }
+
+    @Override
+    @Transactional
+    public int expurgarDeletadosAntesDe(String particao, LocalDateTime limite, int lote) {
+        // O nome vai no SQL (não há parâmetro para tabela); só aceita os que vieram do catálogo
+        if (!listarParticoes().contains(particao)) {
+            throw new IllegalArgumentException("Partição desconhecida: " + particao);
+        }
+
+        return entityManager.createNativeQuery("delete from " + particao + " where id in ("
+                        + "select id from " + particao + " where deletado_em < :limite order by deletado_em limit :lote)")
+                .setParameter("limite", limite)
+                .setParameter("lote", lote)
+                .executeUpdate();
+    }
+
+    private Dialect dialeto() {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+    }
+
+    // Evita que % e _ digitados pelo cliente virem curingas no LIKE
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
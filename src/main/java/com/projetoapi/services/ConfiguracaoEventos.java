@@ -0,0 +1,20 @@
+package com.projetoapi.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Habilita o relay agendado e escolhe o broker pela propriedade usuarios.eventos.broker.
+// Um broker externo é outro bean PublicadorDeEventos condicionado a outro valor dela.
+@Configuration
+@EnableScheduling
+class ConfiguracaoEventos {
+
+    @Bean
+    @ConditionalOnProperty(name = "usuarios.eventos.broker", havingValue = "local", matchIfMissing = true)
+    PublicadorDeEventos publicadorDeEventosLocal(ApplicationEventPublisher publisher) {
+        return new PublicadorDeEventosLocal(publisher);
+    }
+}
@@ -0,0 +1,114 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dto.UsuarioResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Agrupa buscas simultâneas pela mesma chave (single-flight): quando um usuário muito
+// acessado sai do cache, só a primeira requisição vai ao banco e as que chegam enquanto
+// ela está em andamento esperam e recebem o mesmo resultado ou a mesma exceção.
+// Sem trava global: cada chave ocupa uma posição no ConcurrentHashMap e a entrada
+// existe só durante a consulta.
+@Component
+public class ConsultasEmAndamento {
+
+    private final ConcurrentMap<Long, CompletableFuture<UsuarioResponseDTO>> porId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<UsuarioResponseDTO>> porEmail = new ConcurrentHashMap<>();
+    private final Counter economizadasPorId;
+    private final Counter economizadasPorEmail;
+
+    public ConsultasEmAndamento(MeterRegistry meterRegistry) {
+        this.economizadasPorId = economizadas(meterRegistry, "id");
+        this.economizadasPorEmail = economizadas(meterRegistry, "email");
+    }
+
+    private static Counter economizadas(MeterRegistry meterRegistry, String chave) {
+        return Counter.builder("usuarios.consultas.economizadas")
+                .description("Buscas atendidas por uma consulta ao banco já em andamento")
+                .tag("chave", chave)
+                .register(meterRegistry);
+    }
+
+    // guardar recebe o resultado só se nenhuma escrita invalidou a chave durante a
+    // consulta, para não devolver ao cache uma versão anterior à escrita.
+    public UsuarioResponseDTO buscarPorId(Long id, Supplier<UsuarioResponseDTO> consulta,
+                                          Consumer<UsuarioResponseDTO> guardar) {
+        return compartilhar(porId, id, consulta, guardar, economizadasPorId);
+    }
+
+    public UsuarioResponseDTO buscarPorEmail(String email, Supplier<UsuarioResponseDTO> consulta,
+                                             Consumer<UsuarioResponseDTO> guardar) {
+        return compartilhar(porEmail, email, consulta, guardar, economizadasPorEmail);
+    }
+
+    // Chamado depois de cada escrita confirmada: quem buscar a chave a partir daqui
+    // começa uma consulta nova em vez de aproveitar a que leu antes da escrita.
+    // Os emails são o anterior e o novo; um cadastro também invalida o seu, para
+    // que um 404 em andamento não seja compartilhado depois da criação.
+    public void invalidar(Long id, String... emails) {
+        if (id != null) {
+            porId.remove(id);
+        }
+        for (String email : emails) {
+            if (email != null) {
+                porEmail.remove(email);
+            }
+        }
+    }
+
+    // Na remoção o email não é lido. As buscas por email em andamento são só as que
+    // estão no banco neste instante (poucas), então todas são descartadas.
+    public void invalidarEmails() {
+        porEmail.clear();
+    }
+
+    private <K> UsuarioResponseDTO compartilhar(ConcurrentMap<K, CompletableFuture<UsuarioResponseDTO>> emAndamento,
+                                                K chave,
+                                                Supplier<UsuarioResponseDTO> consulta,
+                                                Consumer<UsuarioResponseDTO> guardar,
+                                                Counter economizadas) {
+        CompletableFuture<UsuarioResponseDTO> minha = new CompletableFuture<>();
+        CompletableFuture<UsuarioResponseDTO> existente = emAndamento.putIfAbsent(chave, minha);
+        if (existente != null) {
+            economizadas.increment();
+            return aguardar(existente);
+        }
+
+        try {
+            UsuarioResponseDTO resultado = consulta.get();
+            minha.complete(resultado);
+            // remove devolve false se uma escrita já tirou a entrada do mapa
+            if (emAndamento.remove(chave, minha)) {
+                guardar.accept(resultado);
+            }
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            minha.completeExceptionally(e);
+            emAndamento.remove(chave, minha);
+            throw e;
+        }
+    }
+
+    // Repassa a exceção original da consulta (ex.: UsuarioNaoEncontradoException → 404)
+    private static UsuarioResponseDTO aguardar(CompletableFuture<UsuarioResponseDTO> consulta) {
+        try {
+            return consulta.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.projetoapi.services;
+
+import com.projetoapi.excecoes.CursorInvalidoException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Codifica e decodifica o cursor opaco usado na paginação por keyset.
+// O cliente não deve depender do formato: hoje é apenas o último id em Base64 URL-safe.
+// Público para que a variante reativa (src/reativo) aceite os mesmos cursores.
+public final class CursorPaginacao {
+
+    private static final String PREFIXO = "id:";
+
+    private CursorPaginacao() {
+    }
+
+    public static String codificar(Long ultimoId) {
+        byte[] bytes = (PREFIXO + ultimoId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public static long decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIXO)) {
+                throw new CursorInvalidoException("Cursor de paginação inválido.");
+            }
+            return Long.parseLong(valor.substring(PREFIXO.length()));
+        } catch (IllegalArgumentException e) {
+            throw new CursorInvalidoException("Cursor de paginação inválido.");
+        }
+    }
+}
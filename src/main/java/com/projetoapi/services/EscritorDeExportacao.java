@@ -0,0 +1,167 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dto.FormatoExportacao;
+import com.projetoapi.dto.UsuarioResponseDTO;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+// Escreve usuários em CSV ou NDJSON num canal NIO, por um buffer de tamanho fixo e,
+// opcionalmente, com gzip. Cada linha é codificada e descartada em seguida: a memória
+// usada não depende de quantas linhas passam por aqui.
+// O conteúdo sai em blocos: concluirBloco() esvazia os buffers e, com gzip, fecha o membro
+// atual. Depois disso os bytes entregues ao canal já formam um arquivo válido, ao qual um
+// novo bloco pode ser anexado (gzip aceita membros concatenados).
+// Não fecha o canal: quem o abriu decide quando fechar.
+final class EscritorDeExportacao implements Closeable {
+
+    static final int TAMANHO_BUFFER = 64 * 1024;
+    static final String CABECALHO_CSV = "id,nome,email,role,dataCriacao\n";
+
+    private final FormatoExportacao formato;
+    private final boolean comprimir;
+    private final ObjectWriter json;
+    private final OutputStream canal;
+    private final StringBuilder linha = new StringBuilder(256);
+
+    // Recriados a cada bloco
+    private OutputStream saida;
+    private JsonGenerator gerador;
+
+    EscritorDeExportacao(WritableByteChannel destino, FormatoExportacao formato, boolean comprimir,
+                         ObjectMapper objectMapper) {
+        this.formato = formato;
+        this.comprimir = comprimir;
+        // Sem separador entre valores: cada usuário termina com a própria quebra de linha
+        this.json = objectMapper.writer().withRootValueSeparator("");
+        this.canal = new BufferedOutputStream(Channels.newOutputStream(destino), TAMANHO_BUFFER);
+    }
+
+    void escreverCabecalho() {
+        if (formato == FormatoExportacao.CSV) {
+            escreverTexto(CABECALHO_CSV);
+        }
+    }
+
+    void escrever(UsuarioResponseDTO usuario) {
+        if (formato == FormatoExportacao.NDJSON) {
+            if (gerador == null) {
+                gerador = json.createGenerator(saida());
+            }
+            gerador.writePOJO(usuario);
+            gerador.writeRaw('\n');
+            return;
+        }
+
+        linha.setLength(0);
+        linha.append(usuario.getId()).append(',');
+        campoCsv(usuario.getNome());
+        linha.append(',');
+        campoCsv(usuario.getEmail());
+        linha.append(',').append(usuario.getRole()).append(',');
+        if (usuario.getDataCriacao() != null) {
+            linha.append(usuario.getDataCriacao());
+        }
+        linha.append('\n');
+        escreverTexto(linha);
+    }
+
+    void concluirBloco() {
+        try {
+            if (gerador != null) {
+                gerador.flush();
+                gerador = null;
+            }
+            if (saida instanceof GZIPOutputStream gzip) {
+                gzip.finish();
+            }
+            saida = null;
+            canal.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        concluirBloco();
+    }
+
+    private OutputStream saida() {
+        if (saida == null) {
+            try {
+                saida = comprimir ? new GZIPOutputStream(naoFechavel(canal), TAMANHO_BUFFER) : naoFechavel(canal);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return saida;
+    }
+
+    private void escreverTexto(CharSequence texto) {
+        try {
+            saida().write(texto.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // RFC 4180: entre aspas só quando há vírgula, aspas ou quebra de linha
+    private void campoCsv(String valor) {
+        if (valor == null) {
+            return;
+        }
+        boolean aspas = false;
+        for (int i = 0; i < valor.length() && !aspas; i++) {
+            char c = valor.charAt(i);
+            aspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!aspas) {
+            linha.append(valor);
+            return;
+        }
+        linha.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                linha.append('"');
+            }
+            linha.append(c);
+        }
+        linha.append('"');
+    }
+
+    // O fim de um bloco fecha o gzip e o gerador, mas o canal continua recebendo os próximos
+    private static OutputStream naoFechavel(OutputStream destino) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                destino.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int inicio, int tamanho) throws IOException {
+                destino.write(b, inicio, tamanho);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                destino.flush();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
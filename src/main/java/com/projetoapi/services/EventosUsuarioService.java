@@ -0,0 +1,85 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dto.EventoUsuarioDTO;
+import com.projetoapi.dto.LoteEventosDTO;
+import com.projetoapi.repositorios.EventoUsuarioRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Leitura incremental do outbox para GET /usuarios/eventos (long-poll).
+// Sem eventos novos, a requisição fica pendente sem ocupar thread até o próximo
+// lote publicado pelo relay ou até o fim da espera, quando volta vazia.
+@Service
+public class EventosUsuarioService {
+
+    public static final int LIMITE_MAXIMO_EVENTOS = 1000;
+
+    private final EventoUsuarioRepository eventoRepository;
+    private final Set<Espera> esperas = ConcurrentHashMap.newKeySet();
+
+    public EventosUsuarioService(EventoUsuarioRepository eventoRepository) {
+        this.eventoRepository = eventoRepository;
+    }
+
+    public CompletableFuture<LoteEventosDTO> aguardar(long desde, int limite, Duration espera) {
+
+        int tamanho = Math.clamp(limite, 1, LIMITE_MAXIMO_EVENTOS);
+
+        LoteEventosDTO lote = ler(desde, tamanho);
+        if (!lote.getEventos().isEmpty() || espera.isZero()) {
+            return CompletableFuture.completedFuture(lote);
+        }
+
+        Espera pendente = new Espera(desde, tamanho, new CompletableFuture<>());
+        esperas.add(pendente);
+
+        // Relê depois de registrar a espera: um lote publicado entre a primeira
+        // leitura e o registro não seria avisado a esta requisição
+        lote = ler(desde, tamanho);
+        if (!lote.getEventos().isEmpty()) {
+            esperas.remove(pendente);
+            return CompletableFuture.completedFuture(lote);
+        }
+
+        return pendente.resultado()
+                .completeOnTimeout(new LoteEventosDTO(List.of(), desde), espera.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((resultado, erro) -> esperas.remove(pendente));
+    }
+
+    // Chamado depois do commit do relay, então os eventos já estão visíveis no banco.
+    // As esperas são atendidas com o próprio lote, sem nova consulta por requisição.
+    @TransactionalEventListener(fallbackExecution = true)
+    void aoPublicar(PublicadorDeEventosLocal.LotePublicado lote) {
+        for (Espera espera : esperas) {
+            List<EventoUsuarioDTO> novos = lote.eventos().stream()
+                    .filter(evento -> evento.getPosicao() > espera.desde())
+                    .limit(espera.limite())
+                    .toList();
+            if (!novos.isEmpty()) {
+                espera.resultado().complete(new LoteEventosDTO(novos, novos.getLast().getPosicao()));
+            }
+        }
+    }
+
+    private LoteEventosDTO ler(long desde, int limite) {
+        List<EventoUsuarioDTO> eventos = eventoRepository
+                .findByPosicaoGreaterThanOrderByPosicaoAsc(desde, Limit.of(limite))
+                .stream()
+                .map(RelayDeEventos::toDTO)
+                .toList();
+
+        long proximo = eventos.isEmpty() ? desde : eventos.getLast().getPosicao();
+        return new LoteEventosDTO(eventos, proximo);
+    }
+
+    private record Espera(long desde, int limite, CompletableFuture<LoteEventosDTO> resultado) {
+    }
+}
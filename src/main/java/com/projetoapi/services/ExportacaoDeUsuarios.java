@@ -0,0 +1,246 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dto.FormatoExportacao;
+import com.projetoapi.dto.UsuarioResponseDTO;
+import com.projetoapi.repositorios.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+
+// Exportação em massa dos usuários ativos, em CSV ou NDJSON, para a resposta HTTP ou para
+// um arquivo. As linhas vêm de um cursor do banco (fetch size fixo, StatelessSession) e vão
+// direto para o canal pelo EscritorDeExportacao: a memória usada é a mesma para mil ou
+// para dez milhões de usuários.
+// No arquivo, a cada bloco de linhas o conteúdo vai para o disco e o último id exportado
+// é anotado em <arquivo>.progresso. Se a rodada for interrompida (deploy, queda do banco),
+// a próxima descarta o que passou do último bloco concluído e continua daquele id.
+@Component
+public class ExportacaoDeUsuarios {
+
+    private final UsuarioRepository usuarioRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock relogio;
+    private final Path diretorio;
+    private final FormatoExportacao formato;
+    private final boolean gzip;
+    private final int tamanhoFetch;
+    private final int tamanhoBloco;
+
+    private final Counter linhasArquivo;
+    private final Counter linhasResposta;
+    private final Timer duracaoArquivo;
+    private final Timer duracaoResposta;
+
+    // Vazão da última exportação para arquivo concluída
+    private volatile double linhasPorSegundo;
+
+    public record ResultadoExportacao(long linhas, long ultimoId, Duration duracao, boolean retomada) {
+
+        public double linhasPorSegundo() {
+            return duracao.isZero() ? 0 : linhas * 1_000_000_000.0 / duracao.toNanos();
+        }
+    }
+
+    @Autowired
+    public ExportacaoDeUsuarios(UsuarioRepository usuarioRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${usuarios.exportacao.diretorio:exportacoes}") Path diretorio,
+                                @Value("${usuarios.exportacao.formato:CSV}") FormatoExportacao formato,
+                                @Value("${usuarios.exportacao.gzip:true}") boolean gzip,
+                                @Value("${usuarios.exportacao.fetch-size:1000}") int tamanhoFetch,
+                                @Value("${usuarios.exportacao.bloco:50000}") int tamanhoBloco,
+                                MeterRegistry meterRegistry) {
+        this(usuarioRepository, objectMapper, diretorio, formato, gzip, tamanhoFetch, tamanhoBloco,
+                meterRegistry, Clock.systemDefaultZone());
+    }
+
+    ExportacaoDeUsuarios(UsuarioRepository usuarioRepository,
+                         ObjectMapper objectMapper,
+                         Path diretorio,
+                         FormatoExportacao formato,
+                         boolean gzip,
+                         int tamanhoFetch,
+                         int tamanhoBloco,
+                         MeterRegistry meterRegistry,
+                         Clock relogio) {
+        this.usuarioRepository = usuarioRepository;
+        this.objectMapper = objectMapper;
+        this.relogio = relogio;
+        this.diretorio = diretorio;
+        this.formato = formato;
+        this.gzip = gzip;
+        this.tamanhoFetch = tamanhoFetch;
+        this.tamanhoBloco = tamanhoBloco;
+
+        // A taxa destes contadores é a vazão da exportação em andamento
+        this.linhasArquivo = linhas(meterRegistry, "arquivo");
+        this.linhasResposta = linhas(meterRegistry, "resposta");
+        this.duracaoArquivo = duracao(meterRegistry, "arquivo");
+        this.duracaoResposta = duracao(meterRegistry, "resposta");
+        Gauge.builder("usuarios.exportacao.vazao", this, exportacao -> exportacao.linhasPorSegundo)
+                .description("Linhas por segundo da última exportação para arquivo")
+                .register(meterRegistry);
+    }
+
+    private static Counter linhas(MeterRegistry meterRegistry, String destino) {
+        return Counter.builder("usuarios.exportacao.linhas")
+                .description("Usuários escritos pela exportação")
+                .tag("destino", destino)
+                .register(meterRegistry);
+    }
+
+    private static Timer duracao(MeterRegistry meterRegistry, String destino) {
+        return Timer.builder("usuarios.exportacao.duracao")
+                .description("Duração de cada exportação")
+                .tag("destino", destino)
+                .register(meterRegistry);
+    }
+
+    // ============================
+    // EXPORTAR PARA A RESPOSTA
+    // ============================
+    // Usuários com id > aposId; o cliente que perder a conexão pede de novo a partir do
+    // último id recebido, e nesse caso o CSV vem sem cabeçalho. Sem gzip aqui: a
+    // compressão da resposta fica com o servidor (server.compression).
+    public ResultadoExportacao exportar(FormatoExportacao formato, long aposId, WritableByteChannel destino) {
+        long inicio = System.nanoTime();
+        Progresso progresso = new Progresso(aposId, 0);
+
+        try (EscritorDeExportacao escritor = new EscritorDeExportacao(destino, formato, false, objectMapper)) {
+            if (aposId == 0) {
+                escritor.escreverCabecalho();
+            }
+            usuarioRepository.percorrerParaExportacao(aposId, tamanhoFetch, usuario -> {
+                escritor.escrever(usuario);
+                progresso.avancar(usuario);
+                linhasResposta.increment();
+            });
+        }
+
+        Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+        duracaoResposta.record(duracao);
+        return new ResultadoExportacao(progresso.linhas, progresso.ultimoId, duracao, aposId > 0);
+    }
+
+    // ============================
+    // EXPORTAR PARA ARQUIVO
+    // ============================
+    // Gera <diretorio>/usuarios-<data>.<ext>[.gz]. Enquanto não termina, o arquivo se chama
+    // usuarios.<ext>[.gz].parcial, para que ninguém consuma uma exportação incompleta.
+    // Disparada pelas TarefasLongas (desligada por padrão, cron "-"); synchronized evita
+    // duas rodadas sobre o mesmo parcial.
+    public synchronized ResultadoExportacao exportarParaArquivo() throws IOException {
+        long inicio = System.nanoTime();
+        String nome = "usuarios." + formato.getExtensao() + (gzip ? ".gz" : "");
+        Files.createDirectories(diretorio);
+        Path parcial = diretorio.resolve(nome + ".parcial");
+        Path arquivoProgresso = diretorio.resolve(nome + ".progresso");
+
+        Progresso progresso = Progresso.ler(arquivoProgresso);
+        boolean retomada = progresso != null;
+        if (!retomada) {
+            progresso = new Progresso(0, 0);
+        }
+        long linhasAnteriores = progresso.linhas;
+
+        try (FileChannel canal = FileChannel.open(parcial, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             EscritorDeExportacao escritor = new EscritorDeExportacao(canal, formato, gzip, objectMapper)) {
+            // Descarta o que foi escrito depois do último bloco concluído
+            canal.truncate(progresso.bytes);
+            canal.position(progresso.bytes);
+            if (!retomada) {
+                escritor.escreverCabecalho();
+            }
+
+            Progresso atual = progresso;
+            usuarioRepository.percorrerParaExportacao(progresso.ultimoId, tamanhoFetch, usuario -> {
+                escritor.escrever(usuario);
+                atual.avancar(usuario);
+                linhasArquivo.increment();
+                if (atual.linhas % tamanhoBloco == 0) {
+                    concluirBloco(escritor, canal, atual, arquivoProgresso);
+                }
+            });
+            escritor.concluirBloco();
+            canal.force(false);
+        }
+
+        Path destino = diretorio.resolve("usuarios-" + LocalDate.now(relogio) + "."
+                + formato.getExtensao() + (gzip ? ".gz" : ""));
+        Files.move(parcial, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(arquivoProgresso);
+
+        Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+        duracaoArquivo.record(duracao);
+        // A vazão considera só as linhas escritas nesta rodada
+        ResultadoExportacao resultado = new ResultadoExportacao(progresso.linhas - linhasAnteriores,
+                progresso.ultimoId, duracao, retomada);
+        linhasPorSegundo = resultado.linhasPorSegundo();
+        return resultado;
+    }
+
+    // O progresso só é anotado depois que o bloco está no disco
+    private static void concluirBloco(EscritorDeExportacao escritor, FileChannel canal, Progresso progresso,
+                                      Path arquivoProgresso) {
+        try {
+            escritor.concluirBloco();
+            canal.force(false);
+            progresso.bytes = canal.position();
+            progresso.gravar(arquivoProgresso);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Último id exportado, linhas e bytes do parcial até o fim do último bloco concluído
+    private static final class Progresso {
+
+        private long ultimoId;
+        private long linhas;
+        private long bytes;
+
+        private Progresso(long ultimoId, long linhas) {
+            this.ultimoId = ultimoId;
+            this.linhas = linhas;
+        }
+
+        private void avancar(UsuarioResponseDTO usuario) {
+            ultimoId = usuario.getId();
+            linhas++;
+        }
+
+        private static Progresso ler(Path arquivo) throws IOException {
+            if (!Files.exists(arquivo)) {
+                return null;
+            }
+            String[] campos = Files.readString(arquivo).trim().split(" ");
+            Progresso progresso = new Progresso(Long.parseLong(campos[0]), Long.parseLong(campos[1]));
+            progresso.bytes = Long.parseLong(campos[2]);
+            return progresso;
+        }
+
+        // Arquivo temporário + move atômico: uma queda no meio não deixa um progresso pela metade
+        private void gravar(Path arquivo) throws IOException {
+            Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+            Files.writeString(temporario, ultimoId + " " + linhas + " " + bytes);
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.projetoapi.services;
+
+import com.projetoapi.repositorios.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Apaga de fato os usuários removidos logicamente (deletado_em preenchido).
+// Roda só na janela de baixo movimento definida pelo cron, em lotes de tamanho fixo,
+// cada um na sua transação: nenhum lote segura locks ou gera WAL por muito tempo,
+// e a rodada para ao esgotar a duração máxima mesmo que ainda haja pendentes.
+// Com a tabela particionada, os lotes vão partição por partição: cada DELETE usa só o
+// índice local e o autovacuum de uma partição começa enquanto a próxima é expurgada.
+@Component
+public class ExpurgoDeUsuarios {
+
+    private final UsuarioRepository usuarioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock relogio;
+    private final int tamanhoLote;
+    private final Duration carencia;
+    private final Duration duracaoMaxima;
+    private final Duration pausaEntreLotes;
+
+    private final Counter removidos;
+    private final Timer tempoLote;
+
+    // Atualizados pela medição periódica e ao fim de cada rodada
+    private volatile long pendentes;
+    private volatile LocalDateTime maisAntigo;
+
+    @Autowired
+    public ExpurgoDeUsuarios(UsuarioRepository usuarioRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${usuarios.expurgo.lote:1000}") int tamanhoLote,
+                             @Value("${usuarios.expurgo.carencia:1d}") Duration carencia,
+                             @Value("${usuarios.expurgo.duracao-maxima:10m}") Duration duracaoMaxima,
+                             @Value("${usuarios.expurgo.pausa-entre-lotes:100ms}") Duration pausaEntreLotes,
+                             MeterRegistry meterRegistry) {
+        this(usuarioRepository, transactionManager, tamanhoLote, carencia, duracaoMaxima, pausaEntreLotes,
+                meterRegistry, Clock.systemDefaultZone());
+    }
+
+    ExpurgoDeUsuarios(UsuarioRepository usuarioRepository,
+                      PlatformTransactionManager transactionManager,
+                      int tamanhoLote,
+                      Duration carencia,
+                      Duration duracaoMaxima,
+                      Duration pausaEntreLotes,
+                      MeterRegistry meterRegistry,
+                      Clock relogio) {
+        this.usuarioRepository = usuarioRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.relogio = relogio;
+        this.tamanhoLote = tamanhoLote;
+        this.carencia = carencia;
+        this.duracaoMaxima = duracaoMaxima;
+        this.pausaEntreLotes = pausaEntreLotes;
+
+        // A taxa deste contador é a vazão do expurgo
+        this.removidos = Counter.builder("usuarios.expurgo.removidos")
+                .description("Usuários removidos logicamente que foram apagados do banco")
+                .register(meterRegistry);
+        this.tempoLote = Timer.builder("usuarios.expurgo.lote")
+                .description("Duração de cada lote do expurgo")
+                .register(meterRegistry);
+        Gauge.builder("usuarios.expurgo.pendentes", this, expurgo -> expurgo.pendentes)
+                .description("Usuários removidos logicamente ainda não apagados")
+                .register(meterRegistry);
+        // Atraso: há quanto tempo o removido mais antigo espera, calculado na leitura
+        Gauge.builder("usuarios.expurgo.atraso", this, ExpurgoDeUsuarios::atrasoEmSegundos)
+                .description("Idade do usuário removido mais antigo ainda não apagado")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    // Uma rodada por disparo do cron, pelas TarefasLongas.
+    // A duração máxima vale para a rodada toda, não para cada partição.
+    public void expurgar() {
+        LocalDateTime limite = LocalDateTime.now(relogio).minus(carencia);
+        long fim = System.nanoTime() + duracaoMaxima.toNanos();
+
+        try {
+            for (String particao : usuarioRepository.listarParticoes()) {
+                while (expurgarLote(particao, limite) == tamanhoLote && System.nanoTime() < fim) {
+                    // Dá espaço para o tráfego normal e para a replicação entre os lotes
+                    TimeUnit.MILLISECONDS.sleep(pausaEntreLotes.toMillis());
+                }
+                if (System.nanoTime() >= fim) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            medirPendentes();
+        }
+    }
+
+    // Retorna quantos usuários foram apagados da partição
+    int expurgarLote(String particao, LocalDateTime limite) {
+        Integer quantidade = tempoLote.record(() -> transactionTemplate.execute(status ->
+                usuarioRepository.expurgarDeletadosAntesDe(particao, limite, tamanhoLote)));
+
+        removidos.increment(quantidade);
+        return quantidade;
+    }
+
+    // Consulta barata pelos índices de deletado_em; mantém os gauges corretos entre as rodadas
+    @Scheduled(fixedDelayString = "${usuarios.expurgo.medicao-intervalo-ms:60000}")
+    public void medirPendentes() {
+        pendentes = usuarioRepository.contarDeletados();
+        maisAntigo = usuarioRepository.findDeletadoMaisAntigo().orElse(null);
+    }
+
+    double atrasoEmSegundos() {
+        LocalDateTime antigo = maisAntigo;
+        return antigo == null ? 0 : Duration.between(antigo, LocalDateTime.now(relogio)).toSeconds();
+    }
+}
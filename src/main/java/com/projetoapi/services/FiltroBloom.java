@@ -0,0 +1,93 @@
+package com.projetoapi.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom de tamanho fixo, seguro para uso concorrente sem locks:
+// cada bit é ligado com CAS na palavra de 64 bits que o contém.
+// "Não contém" é definitivo; "talvez contenha" pode ser falso positivo.
+final class FiltroBloom {
+
+    private final AtomicLongArray palavras;
+    private final long totalBits;
+    private final int funcoes;
+    private final AtomicLong bitsLigados = new AtomicLong();
+
+    // Dimensiona bits e funções de hash pelas fórmulas usuais:
+    // m = -n ln(p) / ln(2)^2 e k = (m / n) ln(2)
+    FiltroBloom(long capacidade, double taxaFalsoPositivo) {
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (ln2 * ln2));
+        int quantidadePalavras = (int) Math.max(1, (bits + 63) / 64);
+
+        this.palavras = new AtomicLongArray(quantidadePalavras);
+        this.totalBits = quantidadePalavras * 64L;
+        this.funcoes = Math.max(1, (int) Math.round((double) totalBits / capacidade * ln2));
+    }
+
+    void adicionar(String valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            if (ligar(Math.floorMod(h1 + i * h2, totalBits))) {
+                bitsLigados.incrementAndGet();
+            }
+        }
+    }
+
+    boolean talvezContenha(String valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, totalBits);
+            if ((palavras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Probabilidade de falso positivo com a ocupação atual: (bits ligados / total) ^ k
+    double taxaFalsoPositivoEstimada() {
+        return Math.pow(ocupacao(), funcoes);
+    }
+
+    double ocupacao() {
+        return (double) bitsLigados.get() / totalBits;
+    }
+
+    // Retorna true se o bit estava desligado
+    private boolean ligar(long bit) {
+        int indice = (int) (bit >>> 6);
+        long mascara = 1L << bit;
+        while (true) {
+            long atual = palavras.get(indice);
+            if ((atual & mascara) != 0) {
+                return false;
+            }
+            if (palavras.compareAndSet(indice, atual, atual | mascara)) {
+                return true;
+            }
+        }
+    }
+
+    // FNV-1a de 64 bits sobre os bytes UTF-8, finalizado com a mistura do MurmurHash3
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return misturar(h);
+    }
+
+    private static long misturar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
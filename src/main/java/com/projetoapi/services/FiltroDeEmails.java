@@ -0,0 +1,113 @@
+package com.projetoapi.services;
+
+import com.projetoapi.repositorios.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// Filtro de Bloom com todos os emails cadastrados, consultado antes do banco.
+// Quando o filtro responde "ausente" o email certamente é novo e a consulta é evitada;
+// quando responde "talvez", o banco decide. A restrição única continua sendo a garantia
+// final: um email que escape do filtro só custa o INSERT rejeitado.
+// Emails removidos ou trocados continuam no filtro até a próxima reconstrução.
+@Component
+public class FiltroDeEmails {
+
+    private final UsuarioRepository usuarioRepository;
+    private final TransactionTemplate leitura;
+    private final boolean habilitado;
+    private final long capacidadeMinima;
+    private final double taxaFalsoPositivo;
+
+    // null até a primeira construção: sem filtro, toda consulta vai ao banco
+    private volatile FiltroBloom atual;
+    // Recebe também os emails cadastrados enquanto a reconstrução percorre a tabela
+    private volatile FiltroBloom emConstrucao;
+
+    private final Counter ausentes;
+    private final Counter confirmados;
+    private final Counter falsosPositivos;
+
+    public FiltroDeEmails(UsuarioRepository usuarioRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${usuarios.emails.filtro.habilitado:true}") boolean habilitado,
+                          @Value("${usuarios.emails.filtro.capacidade-minima:1000000}") long capacidadeMinima,
+                          @Value("${usuarios.emails.filtro.taxa-falso-positivo:0.01}") double taxaFalsoPositivo,
+                          MeterRegistry meterRegistry) {
+        this.usuarioRepository = usuarioRepository;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.habilitado = habilitado;
+        this.capacidadeMinima = capacidadeMinima;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+
+        // falso-positivo / (falso-positivo + ausente) é a taxa observada de falsos positivos
+        this.ausentes = meterRegistry.counter("usuarios.emails.filtro", "resultado", "ausente");
+        this.confirmados = meterRegistry.counter("usuarios.emails.filtro", "resultado", "confirmado");
+        this.falsosPositivos = meterRegistry.counter("usuarios.emails.filtro", "resultado", "falso-positivo");
+
+        Gauge.builder("usuarios.emails.filtro.falso-positivo.estimado", this,
+                        filtro -> filtro.atual == null ? 1 : filtro.atual.taxaFalsoPositivoEstimada())
+                .description("Probabilidade de falso positivo pela ocupação atual do filtro")
+                .register(meterRegistry);
+        Gauge.builder("usuarios.emails.filtro.ocupacao", this,
+                        filtro -> filtro.atual == null ? 0 : filtro.atual.ocupacao())
+                .description("Fração dos bits do filtro ligados")
+                .register(meterRegistry);
+    }
+
+    // Indica se o email está cadastrado, consultando o banco só quando o filtro não descarta
+    public boolean existe(String email, Predicate<String> consultaNoBanco) {
+        FiltroBloom filtro = atual;
+        if (filtro != null && !filtro.talvezContenha(email)) {
+            ausentes.increment();
+            return false;
+        }
+
+        boolean existe = consultaNoBanco.test(email);
+        if (filtro != null) {
+            (existe ? confirmados : falsosPositivos).increment();
+        }
+        return existe;
+    }
+
+    public void registrar(String email) {
+        FiltroBloom filtro = atual;
+        if (filtro != null) {
+            filtro.adicionar(email);
+        }
+        FiltroBloom novo = emConstrucao;
+        if (novo != null) {
+            novo.adicionar(email);
+        }
+    }
+
+    // Monta um filtro novo a partir de uma leitura em streaming da tabela e troca o atual.
+    // Disparada pelas TarefasLongas no início e periodicamente, para descartar emails removidos.
+    public void reconstruir() {
+        if (!habilitado) {
+            return;
+        }
+
+        long capacidade = Math.max(capacidadeMinima, usuarioRepository.count() * 2);
+        FiltroBloom novo = new FiltroBloom(capacidade, taxaFalsoPositivo);
+        emConstrucao = novo;
+        try {
+            leitura.executeWithoutResult(status -> {
+                try (Stream<String> emails = usuarioRepository.streamEmails()) {
+                    emails.forEach(novo::adicionar);
+                }
+            });
+            atual = novo;
+        } finally {
+            emConstrucao = null;
+        }
+    }
+}
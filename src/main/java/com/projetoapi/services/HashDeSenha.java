@@ -0,0 +1,158 @@
+package com.projetoapi.services;
+
+import com.projetoapi.excecoes.ServicoSobrecarregadoException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Gera o hash BCrypt das senhas em um executor dedicado e limitado.
+// O BCrypt é caro de propósito; rodá-lo direto nas threads do Tomcat faria
+// um pico de cadastros ocupar todas elas. Aqui no máximo "threads" hashes
+// rodam ao mesmo tempo, "fila" esperam, e o excedente é rejeitado com 503.
+// A importação em massa usa no máximo threads - 1 delas ao mesmo tempo (somadas
+// todas as importações), para que sempre sobre uma para os cadastros individuais.
+@Component
+public class HashDeSenha {
+
+    private static final String MENSAGEM_SOBRECARGA = "Muitos cadastros simultâneos. Tente novamente em instantes.";
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration tempoMaximoEspera;
+    private final Semaphore vagasImportacao;
+
+    public HashDeSenha(
+            @Value("${usuarios.senha.bcrypt-custo:10}") int custo,
+            @Value("${usuarios.senha.threads:4}") int threads,
+            @Value("${usuarios.senha.fila:64}") int fila,
+            @Value("${usuarios.senha.tempo-maximo-espera:5s}") Duration tempoMaximoEspera) {
+
+        this.encoder = new BCryptPasswordEncoder(custo);
+        this.tempoMaximoEspera = tempoMaximoEspera;
+        // Justo: importações simultâneas se revezam nas vagas
+        this.vagasImportacao = new Semaphore(Math.max(1, threads - 1), true);
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "hash-senha-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String gerar(String senha) {
+
+        Future<String> hash;
+        try {
+            hash = executor.submit(() -> encoder.encode(senha));
+        } catch (RejectedExecutionException e) {
+            throw new ServicoSobrecarregadoException(MENSAGEM_SOBRECARGA);
+        }
+
+        try {
+            return hash.get(tempoMaximoEspera.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            hash.cancel(true);
+            throw new ServicoSobrecarregadoException(MENSAGEM_SOBRECARGA);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o hash da senha.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao gerar o hash da senha.", e.getCause());
+        }
+    }
+
+    // Mesmo executor e mesmos limites, sem bloquear quem chama: usado pela variante
+    // reativa, em que esperar o BCrypt travaria uma thread do event loop.
+    public CompletableFuture<String> gerarAssincrono(String senha) {
+
+        CompletableFuture<String> hash;
+        try {
+            hash = CompletableFuture.supplyAsync(() -> encoder.encode(senha), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new ServicoSobrecarregadoException(MENSAGEM_SOBRECARGA));
+        }
+
+        return hash
+                .orTimeout(tempoMaximoEspera.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(erro -> CompletableFuture.failedFuture(erro instanceof TimeoutException
+                        ? new ServicoSobrecarregadoException(MENSAGEM_SOBRECARGA)
+                        : erro));
+    }
+
+    // Hash de várias senhas em paralelo, para a importação. Cada posição do resultado traz o
+    // hash da senha correspondente, ou null se ela foi rejeitada (executor cheio ou espera
+    // além do tempo máximo): só esses itens precisam ser reenviados.
+    public List<String> gerarEmLote(List<String> senhas) {
+
+        List<CompletableFuture<String>> hashes = new ArrayList<>(senhas.size());
+        for (String senha : senhas) {
+            hashes.add(submeterDoLote(senha));
+        }
+
+        List<String> resultado = new ArrayList<>(senhas.size());
+        for (CompletableFuture<String> hash : hashes) {
+            resultado.add(aguardarDoLote(hash));
+        }
+        return resultado;
+    }
+
+    private CompletableFuture<String> submeterDoLote(String senha) {
+        try {
+            if (!vagasImportacao.tryAcquire(tempoMaximoEspera.toMillis(), TimeUnit.MILLISECONDS)) {
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o hash da senha.", e);
+        }
+
+        try {
+            // A vaga é devolvida ao concluir, inclusive se o hash for cancelado por tempo
+            CompletableFuture<String> hash = CompletableFuture.supplyAsync(() -> encoder.encode(senha), executor);
+            hash.whenComplete((valor, erro) -> vagasImportacao.release());
+            return hash;
+        } catch (RejectedExecutionException e) {
+            vagasImportacao.release();
+            return null;
+        }
+    }
+
+    private String aguardarDoLote(CompletableFuture<String> hash) {
+        if (hash == null) {
+            return null;
+        }
+        try {
+            return hash.get(tempoMaximoEspera.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            hash.cancel(true);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o hash da senha.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao gerar o hash da senha.", e.getCause());
+        }
+    }
+
+    public boolean confere(String senha, String hash) {
+        return encoder.matches(senha, hash);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+}
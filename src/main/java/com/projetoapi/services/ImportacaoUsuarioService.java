@@ -0,0 +1,212 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dominio.EventoUsuario;
+import com.projetoapi.dominio.Role;
+import com.projetoapi.dominio.TipoEventoUsuario;
+import com.projetoapi.dominio.Usuario;
+import com.projetoapi.dto.ItemImportacaoDTO;
+import com.projetoapi.dto.ResultadoImportacaoDTO;
+import com.projetoapi.dto.SituacaoItemImportacao;
+import com.projetoapi.dto.UsuarioRequestDTO;
+import com.projetoapi.repositorios.EventoUsuarioRepository;
+import com.projetoapi.repositorios.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Importação em massa de usuários.
+// Os itens são processados em blocos: cada bloco é validado, tem os emails
+// deduplicados em memória e contra o banco (uma consulta IN) e é gravado
+// em uma única transação com INSERTs agrupados em lotes JDBC.
+@Service
+public class ImportacaoUsuarioService {
+
+    public static final int TAMANHO_BLOCO = 500;
+
+    private final UsuarioRepository usuarioRepository;
+    private final EventoUsuarioRepository eventoRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final HashDeSenha hashDeSenha;
+    private final FiltroDeEmails filtroDeEmails;
+    private final PesquisaDeUsuarios pesquisaDeUsuarios;
+    private final ConsultasEmAndamento consultasEmAndamento;
+
+    public ImportacaoUsuarioService(UsuarioRepository usuarioRepository,
+                                    EventoUsuarioRepository eventoRepository,
+                                    EntityManager entityManager,
+                                    Validator validator,
+                                    PlatformTransactionManager transactionManager,
+                                    HashDeSenha hashDeSenha,
+                                    FiltroDeEmails filtroDeEmails,
+                                    PesquisaDeUsuarios pesquisaDeUsuarios,
+                                    ConsultasEmAndamento consultasEmAndamento) {
+        this.usuarioRepository = usuarioRepository;
+        this.eventoRepository = eventoRepository;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hashDeSenha = hashDeSenha;
+        this.filtroDeEmails = filtroDeEmails;
+        this.pesquisaDeUsuarios = pesquisaDeUsuarios;
+        this.consultasEmAndamento = consultasEmAndamento;
+    }
+
+    // ============================
+    // IMPORTAR LOTE DE USUARIOS
+    // ============================
+    // Recebe um Iterator para que o corpo possa ser lido sob demanda (NDJSON ou array JSON),
+    // mantendo em memória apenas o bloco atual e o resultado por item.
+    public ResultadoImportacaoDTO importar(Iterator<UsuarioRequestDTO> usuarios) {
+
+        List<ItemImportacaoDTO> resultado = new ArrayList<>();
+        Set<String> emailsVistos = new HashSet<>();
+        List<ItemPendente> bloco = new ArrayList<>(TAMANHO_BLOCO);
+        int indice = 0;
+
+        while (usuarios.hasNext()) {
+            UsuarioRequestDTO dto = usuarios.next();
+            int posicao = indice++;
+
+            String erros = validar(dto);
+            if (erros != null) {
+                resultado.add(new ItemImportacaoDTO(posicao, SituacaoItemImportacao.INVALIDO, null, erros));
+                continue;
+            }
+
+            // Duplicado dentro do próprio corpo enviado
+            if (!emailsVistos.add(dto.getEmail())) {
+                resultado.add(new ItemImportacaoDTO(posicao, SituacaoItemImportacao.DUPLICADO, null,
+                        "Email repetido no lote."));
+                continue;
+            }
+
+            bloco.add(new ItemPendente(posicao, dto));
+            if (bloco.size() == TAMANHO_BLOCO) {
+                gravarBloco(bloco, resultado);
+                bloco.clear();
+            }
+        }
+
+        if (!bloco.isEmpty()) {
+            gravarBloco(bloco, resultado);
+        }
+
+        resultado.sort(Comparator.comparingInt(ItemImportacaoDTO::getIndice));
+
+        int criados = (int) resultado.stream()
+                .filter(item -> item.getSituacao() == SituacaoItemImportacao.CRIADO)
+                .count();
+
+        return new ResultadoImportacaoDTO(resultado.size(), criados, resultado.size() - criados, resultado);
+    }
+
+    private void gravarBloco(List<ItemPendente> bloco, List<ItemImportacaoDTO> resultado) {
+
+        // Aqui a consulta IN não passa pelo FiltroDeEmails: ele não conhece emails gravados
+        // por outras instâncias, e um conflito no INSERT desfaria o bloco inteiro.
+        Set<String> jaCadastrados = new HashSet<>(usuarioRepository.findEmailsCadastrados(
+                bloco.stream().map(item -> item.dto().getEmail()).toList()));
+
+        List<ItemPendente> novos = new ArrayList<>(bloco.size());
+        for (ItemPendente item : bloco) {
+            if (jaCadastrados.contains(item.dto().getEmail())) {
+                resultado.add(new ItemImportacaoDTO(item.indice(), SituacaoItemImportacao.DUPLICADO, null,
+                        "Email já cadastrado."));
+            } else {
+                novos.add(item);
+            }
+        }
+
+        if (novos.isEmpty()) {
+            return;
+        }
+
+        // O hash é gerado antes de abrir a transação para não segurar conexão durante o BCrypt.
+        // O bloco é processado em paralelo numa parte limitada do executor de hash, que deixa
+        // vaga para os cadastros individuais; só os itens recusados por sobrecarga ficam de fora.
+        List<String> hashes = hashDeSenha.gerarEmLote(novos.stream().map(item -> item.dto().getSenha()).toList());
+        List<ItemPendente> aceitos = new ArrayList<>(novos.size());
+        List<Usuario> entidades = new ArrayList<>(novos.size());
+        for (int i = 0; i < novos.size(); i++) {
+            ItemPendente item = novos.get(i);
+            if (hashes.get(i) == null) {
+                resultado.add(new ItemImportacaoDTO(item.indice(), SituacaoItemImportacao.ERRO, null,
+                        "Serviço sobrecarregado ao gerar o hash; reenvie o item."));
+                continue;
+            }
+            aceitos.add(item);
+            entidades.add(new Usuario(item.dto().getNome(), item.dto().getEmail(), hashes.get(i), Role.CLIENTE));
+        }
+
+        if (entidades.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                usuarioRepository.saveAll(entidades);
+
+                // Um evento CRIADO por usuário, no mesmo lote de INSERTs (os ids já foram
+                // atribuídos pela sequência no persist)
+                eventoRepository.saveAll(entidades.stream()
+                        .map(usuario -> new EventoUsuario(TipoEventoUsuario.CRIADO, usuario.getId(), usuario.getVersao()))
+                        .toList());
+
+                // Envia os INSERTs em lote e libera o contexto de persistência do bloco
+                entityManager.flush();
+                entityManager.clear();
+
+                // Diretório de emails num segundo lote; um email gravado por outro cadastro
+                // desde a consulta acima viola uk_usuarios_emails e desfaz o bloco
+                usuarioRepository.registrarEmails(entidades);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Outro cadastro concorrente gravou um dos emails entre a consulta e o INSERT;
+            // o bloco inteiro é desfeito e os itens podem ser reenviados.
+            marcarComoErro(aceitos, resultado, "Conflito ao gravar o bloco; reenvie o item.");
+            return;
+        }
+
+        for (int i = 0; i < aceitos.size(); i++) {
+            Usuario criado = entidades.get(i);
+            filtroDeEmails.registrar(criado.getEmail());
+            consultasEmAndamento.invalidar(null, criado.getEmail());
+            pesquisaDeUsuarios.indexar(criado.getId(), criado.getNome(), criado.getEmail());
+            resultado.add(new ItemImportacaoDTO(aceitos.get(i).indice(), SituacaoItemImportacao.CRIADO,
+                    criado.getId(), null));
+        }
+    }
+
+    private void marcarComoErro(List<ItemPendente> itens, List<ItemImportacaoDTO> resultado, String mensagem) {
+        for (ItemPendente item : itens) {
+            resultado.add(new ItemImportacaoDTO(item.indice(), SituacaoItemImportacao.ERRO, null, mensagem));
+        }
+    }
+
+    // Retorna as mensagens de validação no mesmo formato do ManipuladorDeExcecoesGlobal,
+    // ou null quando o item é válido
+    private String validar(UsuarioRequestDTO dto) {
+
+        Set<ConstraintViolation<UsuarioRequestDTO>> violacoes = validator.validate(dto);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+
+        return violacoes.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private record ItemPendente(int indice, UsuarioRequestDTO dto) {
+    }
+}
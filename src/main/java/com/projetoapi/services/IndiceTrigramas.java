@@ -0,0 +1,556 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dto.ResultadoPesquisaDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice invertido de trigramas sobre nome e email (só a parte antes do @: o domínio
+// se repete em quase todos e tornaria as listas enormes).
+// Cada usuário ocupa uma posição e cada trigrama aponta para a lista crescente das
+// posições que o contêm, tudo em arrays primitivos. Na reconstrução, as listas com mais
+// de 1/32 das posições viram mapas de bits, que ocupam menos e respondem "contém" em O(1).
+// Atualizar um usuário ocupa uma posição nova e só libera a antiga; as listas são
+// compactadas na reconstrução.
+// Pesquisas rodam em paralelo entre si; escritas são exclusivas.
+final class IndiceTrigramas {
+
+    // Termos maiores são truncados: limitam o número de listas percorridas por pesquisa
+    static final int TAMANHO_MAXIMO_TERMO = 64;
+
+    // Em slotPorId: usuário removido. Impede que a leitura da reconstrução o traga de volta.
+    private static final int REMOVIDO = -1;
+    // Separa nome e email na única String guardada por posição
+    private static final char SEPARADOR = '\n';
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    private final TabelaLongInt slotPorId;
+    private final TabelaLongInt listaPorTrigrama = new TabelaLongInt(4096);
+    // Cada lista está em listas (posições em ordem) ou, se densa, em mapas (um bit por posição)
+    private int[][] listas = new int[4096][];
+    private long[][] mapas = new long[4096][];
+    private int[] tamanhosListas = new int[4096];
+    private int quantidadeListas;
+
+    // Por posição: id (0 quando liberada), "nome\nemail" e quantos trigramas distintos tem
+    private long[] ids;
+    private String[] textos;
+    private int[] trigramasPorSlot;
+    private int slots;
+    private int ativos;
+
+    IndiceTrigramas(int capacidade) {
+        int inicial = Math.max(16, capacidade);
+        this.slotPorId = new TabelaLongInt(inicial);
+        this.ids = new long[inicial];
+        this.textos = new String[inicial];
+        this.trigramasPorSlot = new int[inicial];
+    }
+
+    // substituir = false preserva o que já foi indexado para o id: usado pela leitura da
+    // reconstrução, que pode trazer uma versão mais antiga. Um id removido nunca volta,
+    // nem com substituir: ids não são reaproveitados, e uma atualização confirmada antes
+    // da remoção pode chegar aqui depois dela.
+    void indexar(long id, String nome, String email, boolean substituir) {
+        long[] trigramas = trigramas(nome + ' ' + parteLocal(email));
+
+        trava.writeLock().lock();
+        try {
+            int anterior = slotPorId.get(id);
+            if (anterior == REMOVIDO || (anterior != TabelaLongInt.AUSENTE && !substituir)) {
+                return;
+            }
+            if (anterior >= 0) {
+                liberar(anterior);
+            }
+
+            int slot = novoSlot();
+            ids[slot] = id;
+            textos[slot] = nome + SEPARADOR + email;
+            trigramasPorSlot[slot] = trigramas.length;
+            for (long trigrama : trigramas) {
+                adicionarNaLista(trigrama, slot);
+            }
+            slotPorId.put(id, slot);
+            ativos++;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    void remover(long id) {
+        trava.writeLock().lock();
+        try {
+            int slot = slotPorId.get(id);
+            if (slot >= 0) {
+                liberar(slot);
+            }
+            slotPorId.put(id, REMOVIDO);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // Só usuários com pelo menos minimoDeAcertos dos trigramas do termo entram, ordenados
+    // pela cobertura do termo e, no empate, pela similaridade de Jaccard, que favorece
+    // textos mais próximos do tamanho do termo.
+    // Um usuário com T acertos aparece em pelo menos uma das (k - T + 1) listas mais curtas:
+    // os candidatos saem só delas e são conferidos nas demais por busca exponencial,
+    // descartados assim que não podem mais chegar a T. A primeira passada exige todos os
+    // trigramas presentes no índice (uma interseção, barata mesmo com listas longas) e T
+    // só desce, um acerto por vez até o mínimo, enquanto o limite não se completa: quem
+    // ficou de fora tem menos acertos que todos os encontrados.
+    List<ResultadoPesquisaDTO> pesquisar(String termo, int limite, double coberturaMinima) {
+        String recortado = termo.length() > TAMANHO_MAXIMO_TERMO ? termo.substring(0, TAMANHO_MAXIMO_TERMO) : termo;
+        long[] trigramas = trigramas(recortado);
+        if (trigramas.length == 0) {
+            return List.of();
+        }
+
+        int minimoDeAcertos = Math.max(1, (int) Math.ceil(coberturaMinima * trigramas.length));
+
+        trava.readLock().lock();
+        try {
+            // Listas dos trigramas que existem no índice, da mais curta para a mais longa
+            int[] presentes = new int[trigramas.length];
+            int k = 0;
+            for (long trigrama : trigramas) {
+                int lista = listaPorTrigrama.get(trigrama);
+                if (lista != TabelaLongInt.AUSENTE) {
+                    presentes[k++] = lista;
+                }
+            }
+            if (k < minimoDeAcertos) {
+                return List.of();
+            }
+            // Inserção direta: k não passa de algumas dezenas
+            for (int i = 1; i < k; i++) {
+                int lista = presentes[i];
+                int j = i - 1;
+                while (j >= 0 && tamanhosListas[presentes[j]] > tamanhosListas[lista]) {
+                    presentes[j + 1] = presentes[j];
+                    j--;
+                }
+                presentes[j + 1] = lista;
+            }
+            Selecao selecao = new Selecao(k);
+            for (int i = 0; i < k; i++) {
+                selecao.listas[i] = listas[presentes[i]];
+                selecao.mapas[i] = mapas[presentes[i]];
+                selecao.tamanhos[i] = tamanhosListas[presentes[i]];
+            }
+
+            Melhores melhores = selecionar(selecao, k, limite);
+            for (int exigidos = k - 1; melhores.quantidade < limite && exigidos >= minimoDeAcertos; exigidos--) {
+                melhores = selecionar(selecao, exigidos, limite);
+            }
+
+            List<ResultadoPesquisaDTO> resultado = new ArrayList<>(melhores.quantidade);
+            for (int i = 0; i < melhores.quantidade; i++) {
+                int slot = melhores.slots[i];
+                String texto = textos[slot];
+                int separador = texto.indexOf(SEPARADOR);
+                resultado.add(new ResultadoPesquisaDTO(ids[slot], texto.substring(0, separador),
+                        texto.substring(separador + 1), (double) melhores.acertos(i) / trigramas.length));
+            }
+            return resultado;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Os melhores entre os usuários com pelo menos "exigidos" das listas selecionadas
+    private Melhores selecionar(Selecao selecao, int exigidos, int limite) {
+        int k = selecao.tamanhos.length;
+        int[] tamanhos = selecao.tamanhos;
+
+        // Candidatos: as posições das (k - exigidos + 1) listas mais curtas, com os acertos nelas
+        int geradoras = k - exigidos + 1;
+        int[][] posicoes = selecao.posicoes(geradoras);
+        int[] candidatos;
+        int[] acertos;
+        int quantidade = 0;
+        if (geradoras == 1) {
+            // Interseção: a lista mais curta já é a dos candidatos
+            quantidade = tamanhos[0];
+            candidatos = Arrays.copyOf(posicoes[0], quantidade);
+            acertos = new int[quantidade];
+            Arrays.fill(acertos, 1);
+        } else {
+            int total = 0;
+            for (int i = 0; i < geradoras; i++) {
+                total += tamanhos[i];
+            }
+            candidatos = new int[total];
+            acertos = new int[total];
+            Intercalacao intercalacao = new Intercalacao(posicoes, tamanhos, geradoras);
+            while (intercalacao.temProximo()) {
+                candidatos[quantidade] = intercalacao.atual();
+                acertos[quantidade++] = intercalacao.contarEAvancar();
+            }
+        }
+
+        // Confere nas listas restantes; os candidatos estão em ordem, então cada lista é
+        // percorrida uma vez só, saltando adiante
+        for (int j = geradoras; j < k && quantidade > 0; j++) {
+            int[] lista = selecao.listas[j];
+            long[] mapa = selecao.mapas[j];
+            int restantes = k - j - 1;
+            int cursor = 0;
+            int mantidos = 0;
+            for (int i = 0; i < quantidade; i++) {
+                int slot = candidatos[i];
+                boolean contem;
+                if (mapa != null) {
+                    contem = contem(mapa, slot);
+                } else {
+                    cursor = avancar(lista, tamanhos[j], cursor, slot);
+                    contem = cursor < tamanhos[j] && lista[cursor] == slot;
+                }
+                int contados = acertos[i] + (contem ? 1 : 0);
+                if (contados + restantes >= exigidos) {
+                    candidatos[mantidos] = slot;
+                    acertos[mantidos++] = contados;
+                }
+            }
+            quantidade = mantidos;
+        }
+
+        // Com os mesmos acertos, a similaridade de Jaccard (acertos / (termo + texto - acertos))
+        // só depende do número de trigramas do texto: a ordem cabe numa chave inteira
+        Melhores melhores = new Melhores(limite);
+        for (int i = 0; i < quantidade; i++) {
+            int slot = candidatos[i];
+            if (acertos[i] >= exigidos && ids[slot] != 0) {
+                melhores.oferecer(slot, ((long) acertos[i] << 32) | (Integer.MAX_VALUE - trigramasPorSlot[slot]));
+            }
+        }
+        return melhores;
+    }
+
+    // Primeira posição a partir de "inicio" com valor >= procurado: dobra o passo até
+    // passar do valor e termina com busca binária nesse trecho
+    private static int avancar(int[] lista, int tamanho, int inicio, int procurado) {
+        if (inicio >= tamanho || lista[inicio] >= procurado) {
+            return inicio;
+        }
+        int anterior = inicio;
+        int passo = 1;
+        int fim = inicio + 1;
+        while (fim < tamanho && lista[fim] < procurado) {
+            anterior = fim;
+            passo <<= 1;
+            fim = inicio + passo;
+        }
+        int posicao = Arrays.binarySearch(lista, anterior + 1, Math.min(fim, tamanho - 1) + 1, procurado);
+        return posicao >= 0 ? posicao : -posicao - 1;
+    }
+
+    private static boolean contem(long[] mapa, int slot) {
+        int palavra = slot >>> 6;
+        return palavra < mapa.length && (mapa[palavra] & (1L << slot)) != 0;
+    }
+
+    // Ao fim da reconstrução: listas densas viram mapas de bits (a partir de 1/32 das
+    // posições o mapa ocupa menos que os ints) e as demais perdem a folga do crescimento
+    void ajustarListas() {
+        trava.writeLock().lock();
+        try {
+            for (int i = 0; i < quantidadeListas; i++) {
+                int[] lista = listas[i];
+                int tamanho = tamanhosListas[i];
+                if (lista == null) {
+                    continue;
+                }
+                if ((long) tamanho * 32 >= slots) {
+                    long[] mapa = new long[(slots + 63) >>> 6];
+                    for (int j = 0; j < tamanho; j++) {
+                        mapa[lista[j] >>> 6] |= 1L << lista[j];
+                    }
+                    mapas[i] = mapa;
+                    listas[i] = null;
+                } else if (lista.length > tamanho) {
+                    listas[i] = Arrays.copyOf(lista, tamanho);
+                }
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    int ativos() {
+        trava.readLock().lock();
+        try {
+            return ativos;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Posições ocupadas, inclusive as liberadas que só somem na reconstrução
+    int posicoes() {
+        trava.readLock().lock();
+        try {
+            return slots;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // ============================
+    // TRIGRAMAS
+    // ============================
+
+    // Sem acentos, em minúsculas e com tudo que não é letra ou dígito virando espaço.
+    // Cada palavra recebe dois espaços antes e um depois, como no pg_trgm, para que
+    // o início das palavras pese mais e termos de uma ou duas letras também gerem trigramas.
+    // Cada trigrama é empacotado num long (16 bits por caractere), ordenado e sem repetição.
+    static long[] trigramas(String texto) {
+        String normalizado = Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+
+        long[] resultado = new long[normalizado.length() * 3 + 3];
+        int quantidade = 0;
+        char a = ' ';
+        char b = ' ';
+        for (int i = 0; i <= normalizado.length(); i++) {
+            char c = i < normalizado.length() ? normalizado.charAt(i) : ' ';
+            if (!Character.isLetterOrDigit(c)) {
+                // Fim de palavra: fecha com um espaço e reinicia o preenchimento
+                if (b != ' ') {
+                    resultado[quantidade++] = empacotar(a, b, ' ');
+                }
+                a = ' ';
+                b = ' ';
+                continue;
+            }
+            resultado[quantidade++] = empacotar(a, b, c);
+            a = b;
+            b = c;
+        }
+
+        Arrays.sort(resultado, 0, quantidade);
+        int distintos = 0;
+        for (int i = 0; i < quantidade; i++) {
+            if (distintos == 0 || resultado[distintos - 1] != resultado[i]) {
+                resultado[distintos++] = resultado[i];
+            }
+        }
+        return Arrays.copyOf(resultado, distintos);
+    }
+
+    private static long empacotar(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static String parteLocal(String email) {
+        int arroba = email.indexOf('@');
+        return arroba < 0 ? email : email.substring(0, arroba);
+    }
+
+    // ============================
+    // ESTRUTURAS INTERNAS
+    // ============================
+
+    private int novoSlot() {
+        if (slots == ids.length) {
+            int capacidade = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacidade);
+            textos = Arrays.copyOf(textos, capacidade);
+            trigramasPorSlot = Arrays.copyOf(trigramasPorSlot, capacidade);
+        }
+        return slots++;
+    }
+
+    private void liberar(int slot) {
+        ids[slot] = 0;
+        textos[slot] = null;
+        ativos--;
+    }
+
+    // As posições só crescem, então acrescentar no fim mantém cada lista ordenada
+    private void adicionarNaLista(long trigrama, int slot) {
+        int lista = listaPorTrigrama.get(trigrama);
+        if (lista == TabelaLongInt.AUSENTE) {
+            if (quantidadeListas == listas.length) {
+                listas = Arrays.copyOf(listas, listas.length * 2);
+                mapas = Arrays.copyOf(mapas, listas.length);
+                tamanhosListas = Arrays.copyOf(tamanhosListas, listas.length);
+            }
+            lista = quantidadeListas++;
+            listas[lista] = new int[4];
+            listaPorTrigrama.put(trigrama, lista);
+        }
+
+        int tamanho = tamanhosListas[lista];
+        long[] mapa = mapas[lista];
+        if (mapa != null) {
+            int palavra = slot >>> 6;
+            if (palavra >= mapa.length) {
+                mapa = Arrays.copyOf(mapa, Math.max(palavra + 1, mapa.length + (mapa.length >> 1)));
+                mapas[lista] = mapa;
+            }
+            mapa[palavra] |= 1L << slot;
+            tamanhosListas[lista] = tamanho + 1;
+            return;
+        }
+
+        if (tamanho == listas[lista].length) {
+            listas[lista] = Arrays.copyOf(listas[lista], tamanho + (tamanho >> 1) + 1);
+        }
+        listas[lista][tamanho] = slot;
+        tamanhosListas[lista] = tamanho + 1;
+    }
+
+    // Listas dos trigramas do termo presentes no índice, da mais curta para a mais longa
+    private static final class Selecao {
+
+        private final int[][] listas;
+        private final long[][] mapas;
+        private final int[] tamanhos;
+
+        Selecao(int k) {
+            this.listas = new int[k][];
+            this.mapas = new long[k][];
+            this.tamanhos = new int[k];
+        }
+
+        // As primeiras n listas como posições em ordem; os mapas são expandidos
+        int[][] posicoes(int n) {
+            int[][] resultado = new int[n][];
+            for (int i = 0; i < n; i++) {
+                if (mapas[i] == null) {
+                    resultado[i] = listas[i];
+                    continue;
+                }
+                int[] expandida = new int[tamanhos[i]];
+                int quantidade = 0;
+                for (int palavra = 0; palavra < mapas[i].length; palavra++) {
+                    for (long bits = mapas[i][palavra]; bits != 0; bits &= bits - 1) {
+                        expandida[quantidade++] = (palavra << 6) + Long.numberOfTrailingZeros(bits);
+                    }
+                }
+                resultado[i] = expandida;
+            }
+            return resultado;
+        }
+    }
+
+    // Percorre k listas crescentes em ordem, com um heap mínimo dos cursores:
+    // cada posição sai uma vez, com o número de listas em que aparece.
+    private static final class Intercalacao {
+
+        private final int[][] listas;
+        private final int[] tamanhos;
+        private final int[] cursores;
+        private final int[] heap;
+        private int tamanhoHeap;
+
+        Intercalacao(int[][] listas, int[] tamanhos, int k) {
+            this.listas = listas;
+            this.tamanhos = tamanhos;
+            this.cursores = new int[k];
+            this.heap = new int[k];
+            for (int i = 0; i < k; i++) {
+                if (tamanhos[i] > 0) {
+                    heap[tamanhoHeap++] = i;
+                }
+            }
+            for (int i = tamanhoHeap / 2 - 1; i >= 0; i--) {
+                descer(i);
+            }
+        }
+
+        boolean temProximo() {
+            return tamanhoHeap > 0;
+        }
+
+        int atual() {
+            return valor(heap[0]);
+        }
+
+        int contarEAvancar() {
+            int slot = atual();
+            int acertos = 0;
+            while (tamanhoHeap > 0 && valor(heap[0]) == slot) {
+                acertos++;
+                int lista = heap[0];
+                if (++cursores[lista] == tamanhos[lista]) {
+                    heap[0] = heap[--tamanhoHeap];
+                }
+                descer(0);
+            }
+            return acertos;
+        }
+
+        private int valor(int lista) {
+            return listas[lista][cursores[lista]];
+        }
+
+        private void descer(int i) {
+            while (true) {
+                int menor = i;
+                int esquerda = 2 * i + 1;
+                int direita = esquerda + 1;
+                if (esquerda < tamanhoHeap && valor(heap[esquerda]) < valor(heap[menor])) {
+                    menor = esquerda;
+                }
+                if (direita < tamanhoHeap && valor(heap[direita]) < valor(heap[menor])) {
+                    menor = direita;
+                }
+                if (menor == i) {
+                    return;
+                }
+                int troca = heap[i];
+                heap[i] = heap[menor];
+                heap[menor] = troca;
+                i = menor;
+            }
+        }
+    }
+
+    // Os "limite" melhores candidatos, em ordem, num array pequeno: a maioria dos
+    // candidatos é descartada comparando só com o último.
+    // Chave: acertos nos 32 bits altos e, nos baixos, o inverso do tamanho do texto.
+    // Em empate completo vence quem chegou antes (posição menor, cadastro mais antigo).
+    private static final class Melhores {
+
+        private final int[] slots;
+        private final long[] chaves;
+        private int quantidade;
+
+        Melhores(int limite) {
+            this.slots = new int[limite];
+            this.chaves = new long[limite];
+        }
+
+        void oferecer(int slot, long chave) {
+            int limite = slots.length;
+            if (quantidade == limite && chave <= chaves[limite - 1]) {
+                return;
+            }
+
+            int i = Math.min(quantidade, limite - 1);
+            while (i > 0 && chave > chaves[i - 1]) {
+                slots[i] = slots[i - 1];
+                chaves[i] = chaves[i - 1];
+                i--;
+            }
+            slots[i] = slot;
+            chaves[i] = chave;
+            if (quantidade < limite) {
+                quantidade++;
+            }
+        }
+
+        int acertos(int i) {
+            return (int) (chaves[i] >>> 32);
+        }
+    }
+}
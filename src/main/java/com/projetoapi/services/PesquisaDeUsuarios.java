@@ -0,0 +1,116 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dto.ResultadoPesquisaDTO;
+import com.projetoapi.excecoes.ServicoSobrecarregadoException;
+import com.projetoapi.repositorios.UsuarioRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Pesquisa aproximada por nome e email (GET /usuarios/pesquisa), respondida por um
+// índice de trigramas em memória, sem consulta ao banco.
+// O índice é montado no início por uma leitura em streaming dos usuários ativos e
+// recebe as escritas desta instância; a reconstrução periódica traz as de outras
+// instâncias e descarta as posições liberadas por atualizações e remoções.
+@Component
+public class PesquisaDeUsuarios {
+
+    public static final int LIMITE_PADRAO = 20;
+    public static final int LIMITE_MAXIMO = 100;
+
+    private final UsuarioRepository usuarioRepository;
+    private final TransactionTemplate leitura;
+    private final boolean habilitado;
+    private final double coberturaMinima;
+
+    // null até a primeira construção: a pesquisa responde 503 enquanto isso
+    private volatile IndiceTrigramas atual;
+    // Recebe também as escritas feitas enquanto a reconstrução percorre a tabela
+    private volatile IndiceTrigramas emConstrucao;
+
+    public PesquisaDeUsuarios(UsuarioRepository usuarioRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${usuarios.pesquisa.habilitada:true}") boolean habilitado,
+                              @Value("${usuarios.pesquisa.cobertura-minima:0.5}") double coberturaMinima,
+                              MeterRegistry meterRegistry) {
+        this.usuarioRepository = usuarioRepository;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.habilitado = habilitado;
+        this.coberturaMinima = coberturaMinima;
+
+        // posicoes - usuarios = espaço ocupado por versões antigas até a próxima reconstrução
+        Gauge.builder("usuarios.pesquisa.indice.usuarios", this,
+                        pesquisa -> pesquisa.atual == null ? 0 : pesquisa.atual.ativos())
+                .description("Usuários no índice de pesquisa")
+                .register(meterRegistry);
+        Gauge.builder("usuarios.pesquisa.indice.posicoes", this,
+                        pesquisa -> pesquisa.atual == null ? 0 : pesquisa.atual.posicoes())
+                .description("Posições ocupadas no índice de pesquisa, inclusive as liberadas")
+                .register(meterRegistry);
+    }
+
+    public List<ResultadoPesquisaDTO> pesquisar(String termo, int limite) {
+        IndiceTrigramas indice = atual;
+        if (indice == null) {
+            throw new ServicoSobrecarregadoException("Índice de pesquisa em construção.");
+        }
+        return indice.pesquisar(termo, Math.clamp(limite, 1, LIMITE_MAXIMO), coberturaMinima);
+    }
+
+    // Cadastro e atualização: a versão mais nova substitui a anterior
+    public void indexar(Long id, String nome, String email) {
+        for (IndiceTrigramas indice : destinos()) {
+            indice.indexar(id, nome, email, true);
+        }
+    }
+
+    public void remover(Long id) {
+        for (IndiceTrigramas indice : destinos()) {
+            indice.remover(id);
+        }
+    }
+
+    // emConstrucao é lido antes de atual: se a reconstrução terminar entre as duas
+    // leituras, a escrita chega ao índice novo mesmo assim
+    private List<IndiceTrigramas> destinos() {
+        IndiceTrigramas novo = emConstrucao;
+        IndiceTrigramas indice = atual;
+        if (novo == null) {
+            return indice == null ? List.of() : List.of(indice);
+        }
+        return indice == null || indice == novo ? List.of(novo) : List.of(indice, novo);
+    }
+
+    // Monta um índice novo a partir de uma leitura em streaming e troca o atual.
+    // Disparada pelas TarefasLongas no início e periodicamente; uma chamada direta espera
+    // a reconstrução em andamento, para que a última a terminar seja a mais recente.
+    public synchronized void reconstruir() {
+        if (!habilitado) {
+            return;
+        }
+
+        IndiceTrigramas anterior = atual;
+        IndiceTrigramas novo = new IndiceTrigramas(anterior == null ? 1024 : anterior.ativos() + 1024);
+        emConstrucao = novo;
+        try {
+            leitura.executeWithoutResult(status -> {
+                try (Stream<Object[]> usuarios = usuarioRepository.streamNomesEEmails()) {
+                    // Não substitui: o que as escritas já gravaram no índice novo é mais recente
+                    usuarios.forEach(linha ->
+                            novo.indexar((Long) linha[0], (String) linha[1], (String) linha[2], false));
+                }
+            });
+            novo.ajustarListas();
+            atual = novo;
+        } finally {
+            emConstrucao = null;
+        }
+    }
+}
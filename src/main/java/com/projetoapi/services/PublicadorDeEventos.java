@@ -0,0 +1,14 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dto.EventoUsuarioDTO;
+
+import java.util.List;
+
+// Ponto de integração com o broker de mensagens.
+// É chamado pelo RelayDeEventos dentro da transação que marca o lote como publicado:
+// se publicar lançar exceção, o lote volta a ficar pendente e é reenviado
+// (entrega pelo menos uma vez; a posição permite ao consumidor descartar repetidos).
+public interface PublicadorDeEventos {
+
+    void publicar(List<EventoUsuarioDTO> eventos);
+}
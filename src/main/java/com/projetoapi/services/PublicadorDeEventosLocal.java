@@ -0,0 +1,26 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dto.EventoUsuarioDTO;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+// Broker em processo, usado quando nenhum outro PublicadorDeEventos é configurado.
+// Repassa o lote como evento de aplicação do Spring; os ouvintes com
+// @TransactionalEventListener só o recebem depois do commit do relay.
+class PublicadorDeEventosLocal implements PublicadorDeEventos {
+
+    private final ApplicationEventPublisher publisher;
+
+    PublicadorDeEventosLocal(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void publicar(List<EventoUsuarioDTO> eventos) {
+        publisher.publishEvent(new LotePublicado(eventos));
+    }
+
+    record LotePublicado(List<EventoUsuarioDTO> eventos) {
+    }
+}
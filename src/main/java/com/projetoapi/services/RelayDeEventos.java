@@ -0,0 +1,90 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dominio.EventoUsuario;
+import com.projetoapi.dto.EventoUsuarioDTO;
+import com.projetoapi.repositorios.EventoUsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Lê o outbox em lotes, atribui as posições e entrega os eventos ao PublicadorDeEventos.
+// A posição é única no banco: se duas instâncias tentarem publicar o mesmo intervalo,
+// uma delas falha no flush, desfaz o lote e tenta de novo na rodada seguinte.
+@Component
+public class RelayDeEventos {
+
+    private final EventoUsuarioRepository eventoRepository;
+    private final PublicadorDeEventos publicador;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final Duration retencao;
+    private final Counter publicados;
+
+    public RelayDeEventos(EventoUsuarioRepository eventoRepository,
+                          PublicadorDeEventos publicador,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${usuarios.eventos.lote:500}") int tamanhoLote,
+                          @Value("${usuarios.eventos.retencao:7d}") Duration retencao,
+                          MeterRegistry meterRegistry) {
+        this.eventoRepository = eventoRepository;
+        this.publicador = publicador;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.retencao = retencao;
+        this.publicados = meterRegistry.counter("usuarios.eventos.publicados");
+    }
+
+    // Publica lotes enquanto eles vierem cheios, para esvaziar rajadas numa só rodada
+    @Scheduled(fixedDelayString = "${usuarios.eventos.relay-intervalo-ms:200}",
+            initialDelayString = "${usuarios.eventos.relay-intervalo-ms:200}")
+    public void publicarPendentes() {
+        while (publicarLote() == tamanhoLote) {
+            // continua até o outbox ficar sem pendentes
+        }
+    }
+
+    // Retorna quantos eventos foram publicados
+    int publicarLote() {
+        Integer quantidade = transactionTemplate.execute(status -> {
+            List<EventoUsuario> pendentes = eventoRepository.findByPosicaoIsNullOrderByIdAsc(Limit.of(tamanhoLote));
+            if (pendentes.isEmpty()) {
+                return 0;
+            }
+
+            long posicao = eventoRepository.findUltimaPosicao();
+            for (EventoUsuario evento : pendentes) {
+                evento.setPosicao(++posicao);
+            }
+            eventoRepository.flush();
+
+            publicador.publicar(pendentes.stream().map(RelayDeEventos::toDTO).toList());
+            return pendentes.size();
+        });
+
+        publicados.increment(quantidade);
+        return quantidade;
+    }
+
+    // Remove os eventos publicados mais antigos que a retenção; consumidores com
+    // um "desde" anterior a isso recomeçam do evento mais antigo que restou.
+    @Scheduled(fixedDelayString = "${usuarios.eventos.expurgo-intervalo-ms:3600000}",
+            initialDelayString = "${usuarios.eventos.expurgo-intervalo-ms:3600000}")
+    public void expurgar() {
+        transactionTemplate.executeWithoutResult(status ->
+                eventoRepository.expurgarPublicadosAntesDe(LocalDateTime.now().minus(retencao)));
+    }
+
+    static EventoUsuarioDTO toDTO(EventoUsuario evento) {
+        return new EventoUsuarioDTO(evento.getPosicao(), evento.getTipo(), evento.getUsuarioId(),
+                evento.getVersao(), evento.getDataHora());
+    }
+}
@@ -0,0 +1,86 @@
+package com.projetoapi.services;
+
+// Tabela de espalhamento long -> int com endereçamento aberto (sondagem linear),
+// sem um objeto por entrada. A chave 0 marca posição vazia e não pode ser usada;
+// não há remoção: quem usa grava um valor sentinela. Não é thread-safe.
+final class TabelaLongInt {
+
+    static final int AUSENTE = Integer.MIN_VALUE;
+
+    private long[] chaves;
+    private int[] valores;
+    private int mascara;
+    private int tamanho;
+
+    TabelaLongInt(int capacidadeEsperada) {
+        // Ocupação máxima de 50%, com capacidade em potência de 2
+        int capacidade = Integer.highestOneBit(Math.max(8, capacidadeEsperada) * 2 - 1) << 1;
+        this.chaves = new long[capacidade];
+        this.valores = new int[capacidade];
+        this.mascara = capacidade - 1;
+    }
+
+    int get(long chave) {
+        for (int i = posicao(chave); ; i = (i + 1) & mascara) {
+            long atual = chaves[i];
+            if (atual == chave) {
+                return valores[i];
+            }
+            if (atual == 0) {
+                return AUSENTE;
+            }
+        }
+    }
+
+    void put(long chave, int valor) {
+        for (int i = posicao(chave); ; i = (i + 1) & mascara) {
+            long atual = chaves[i];
+            if (atual == chave) {
+                valores[i] = valor;
+                return;
+            }
+            if (atual == 0) {
+                chaves[i] = chave;
+                valores[i] = valor;
+                if (++tamanho * 2 > chaves.length) {
+                    crescer();
+                }
+                return;
+            }
+        }
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    private void crescer() {
+        long[] chavesAntigas = chaves;
+        int[] valoresAntigos = valores;
+
+        chaves = new long[chavesAntigas.length * 2];
+        valores = new int[chaves.length];
+        mascara = chaves.length - 1;
+
+        for (int j = 0; j < chavesAntigas.length; j++) {
+            long chave = chavesAntigas[j];
+            if (chave != 0) {
+                int i = posicao(chave);
+                while (chaves[i] != 0) {
+                    i = (i + 1) & mascara;
+                }
+                chaves[i] = chave;
+                valores[i] = valoresAntigos[j];
+            }
+        }
+    }
+
+    // Mistura do MurmurHash3: ids e trigramas sequenciais se espalham pela tabela
+    private int posicao(long chave) {
+        long h = chave;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mascara;
+    }
+}
@@ -0,0 +1,107 @@
+package com.projetoapi.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Disparo das tarefas agendadas que podem levar minutos: as reconstruções que percorrem
+// a tabela inteira, o expurgo e a exportação para arquivo. O agendador compartilhado só
+// entrega cada uma a este executor próprio e volta na hora, então o relay de eventos e a
+// amostragem de carga nunca esperam por elas.
+// Uma tarefa ainda em andamento não é disparada de novo: o disparo seguinte é ignorado.
+@Component
+class TarefasLongas {
+
+    private final FiltroDeEmails filtroDeEmails;
+    private final PesquisaDeUsuarios pesquisaDeUsuarios;
+    private final ExpurgoDeUsuarios expurgoDeUsuarios;
+    private final ExportacaoDeUsuarios exportacaoDeUsuarios;
+
+    private final ThreadPoolExecutor executor;
+    private final Set<String> emAndamento = ConcurrentHashMap.newKeySet();
+
+    TarefasLongas(FiltroDeEmails filtroDeEmails,
+                  PesquisaDeUsuarios pesquisaDeUsuarios,
+                  ExpurgoDeUsuarios expurgoDeUsuarios,
+                  ExportacaoDeUsuarios exportacaoDeUsuarios,
+                  @Value("${usuarios.tarefas-longas.threads:2}") int threads) {
+        this.filtroDeEmails = filtroDeEmails;
+        this.pesquisaDeUsuarios = pesquisaDeUsuarios;
+        this.expurgoDeUsuarios = expurgoDeUsuarios;
+        this.exportacaoDeUsuarios = exportacaoDeUsuarios;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "tarefa-longa-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Sem initialDelay: o filtro e o índice são montados logo no início
+    @Scheduled(fixedDelayString = "${usuarios.emails.filtro.reconstrucao-ms:21600000}")
+    void reconstruirFiltroDeEmails() {
+        executar("filtro-de-emails", filtroDeEmails::reconstruir);
+    }
+
+    @Scheduled(fixedDelayString = "${usuarios.pesquisa.reconstrucao-ms:3600000}")
+    void reconstruirPesquisa() {
+        executar("pesquisa", pesquisaDeUsuarios::reconstruir);
+    }
+
+    // Uma rodada por disparo do cron; fora da janela o método simplesmente não é chamado
+    @Scheduled(cron = "${usuarios.expurgo.cron:0 */10 1-5 * * *}")
+    void expurgar() {
+        executar("expurgo", expurgoDeUsuarios::expurgar);
+    }
+
+    // Desligada por padrão (cron "-")
+    @Scheduled(cron = "${usuarios.exportacao.cron:-}")
+    void exportarParaArquivo() {
+        executar("exportacao", () -> {
+            try {
+                exportacaoDeUsuarios.exportarParaArquivo();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void executar(String nome, Runnable tarefa) {
+        if (!emAndamento.add(nome)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    tarefa.run();
+                } finally {
+                    emAndamento.remove(nome);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Só acontece no encerramento
+            emAndamento.remove(nome);
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+}
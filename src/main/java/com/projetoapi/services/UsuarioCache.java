@@ -0,0 +1,81 @@
+package com.projetoapi.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projetoapi.dto.UsuarioResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+// Cache em memória dos usuários já convertidos para DTO, com limite de tamanho e TTL.
+// O DTO fica guardado apenas pelo id; o índice por email guarda só o id correspondente.
+// Assim uma escrita precisa invalidar apenas o id, e um mapeamento de email antigo
+// nunca devolve dados errados, pois o email do DTO é conferido na leitura.
+@Component
+public class UsuarioCache {
+
+    private final Cache<Long, UsuarioResponseDTO> porId;
+    private final Cache<String, Long> idPorEmail;
+    private final Executor reinvalidacao;
+
+    public UsuarioCache(
+            @Value("${usuarios.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+            @Value("${usuarios.cache.ttl:10m}") Duration ttl,
+            @Value("${usuarios.cache.reinvalidacao:0s}") Duration atrasoReinvalidacao,
+            MeterRegistry meterRegistry) {
+
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        this.idPorEmail = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        this.reinvalidacao = atrasoReinvalidacao.isZero()
+                ? null
+                : CompletableFuture.delayedExecutor(atrasoReinvalidacao.toMillis(), TimeUnit.MILLISECONDS);
+
+        // Expõe hits, misses e evictions em /actuator/metrics (cache.gets, cache.evictions...)
+        CaffeineCacheMetrics.monitor(meterRegistry, porId, "usuariosPorId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idPorEmail, "usuariosPorEmail");
+    }
+
+    public Optional<UsuarioResponseDTO> buscarPorId(Long id) {
+        return Optional.ofNullable(porId.getIfPresent(id));
+    }
+
+    public Optional<UsuarioResponseDTO> buscarPorEmail(String email) {
+        Long id = idPorEmail.getIfPresent(email);
+        if (id == null) {
+            return Optional.empty();
+        }
+        return buscarPorId(id).filter(usuario -> usuario.getEmail().equals(email));
+    }
+
+    public void guardar(UsuarioResponseDTO usuario) {
+        porId.put(usuario.getId(), usuario);
+        idPorEmail.put(usuario.getEmail(), usuario.getId());
+    }
+
+    // Com réplicas de leitura, uma busca de outro cliente logo após a escrita pode ler
+    // a versão antiga e guardá-la de novo; a segunda invalidação, depois do atraso
+    // máximo das réplicas, descarta esse valor.
+    public void invalidar(Long id) {
+        porId.invalidate(id);
+        if (reinvalidacao != null) {
+            reinvalidacao.execute(() -> porId.invalidate(id));
+        }
+    }
+}
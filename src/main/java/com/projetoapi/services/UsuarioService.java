@@ -1,23 +1,95 @@
 package com.projetoapi.services;
 
+import com.projetoapi.dominio.EventoUsuario;
 import com.projetoapi.dominio.Role;
+import com.projetoapi.dominio.TipoEventoUsuario;
 import com.projetoapi.dominio.Usuario;
+import com.projetoapi.dto.AtualizacaoParcialUsuarioDTO;
+import com.projetoapi.dto.ConsultaEmLoteDTO;
+import com.projetoapi.dto.ItemConsultaDTO;
 import com.projetoapi.dto.UsuarioRequestDTO;
 import com.projetoapi.dto.UsuarioResponseDTO;
+import com.projetoapi.dto.VersaoListaDTO;
+import com.projetoapi.dto.VersaoUsuarioDTO;
 import com.projetoapi.excecoes.EmailJaCadastradoException;
 import com.projetoapi.excecoes.UsuarioNaoEncontradoException;
+import com.projetoapi.excecoes.VersaoDesatualizadaException;
+import com.projetoapi.dto.FiltroUsuarioDTO;
+import com.projetoapi.dto.PaginaDTO;
+import com.projetoapi.dto.ResultadoPesquisaDTO;
+import com.projetoapi.repositorios.EventoUsuarioRepository;
 import com.projetoapi.repositorios.UsuarioRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+// Cada método público gera o timer usuarios.servico (tags class/method) e, com tracing
+// configurado, um span; os percentis são habilitados no application.properties.
+// Toda escrita grava, na mesma transação, um EventoUsuario no outbox (ver RelayDeEventos).
+// O hash da senha é calculado antes de abrir a transação, para não segurar conexão no BCrypt.
 @Service
+@Observed(name = "usuarios.servico")
 public class UsuarioService {
 
+    public static final int LIMITE_PADRAO_PAGINA = 50;
+    public static final int LIMITE_MAXIMO_PAGINA = 500;
+    // Chaves por consulta IN na consulta em lote
+    public static final int TAMANHO_BLOCO_CONSULTA = 100;
+
     private final UsuarioRepository usuarioRepository;
+    private final EventoUsuarioRepository eventoRepository;
+    private final EntityManager entityManager;
+    private final UsuarioCache usuarioCache;
+    private final HashDeSenha hashDeSenha;
+    private final FiltroDeEmails filtroDeEmails;
+    private final PesquisaDeUsuarios pesquisaDeUsuarios;
+    private final ConsultasEmAndamento consultasEmAndamento;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary linhasListadas;
 
-    public UsuarioService(UsuarioRepository usuarioRepository) {
+    public UsuarioService(UsuarioRepository usuarioRepository,
+                          EventoUsuarioRepository eventoRepository,
+                          EntityManager entityManager,
+                          UsuarioCache usuarioCache,
+                          HashDeSenha hashDeSenha,
+                          FiltroDeEmails filtroDeEmails,
+                          PesquisaDeUsuarios pesquisaDeUsuarios,
+                          ConsultasEmAndamento consultasEmAndamento,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
         this.usuarioRepository = usuarioRepository;
+        this.eventoRepository = eventoRepository;
+        this.entityManager = entityManager;
+        this.usuarioCache = usuarioCache;
+        this.hashDeSenha = hashDeSenha;
+        this.filtroDeEmails = filtroDeEmails;
+        this.pesquisaDeUsuarios = pesquisaDeUsuarios;
+        this.consultasEmAndamento = consultasEmAndamento;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // Quantidade de linhas lidas por listagem completa, para acompanhar o custo do scan
+        this.linhasListadas = DistributionSummary.builder("usuarios.listar.linhas")
+                .description("Linhas lidas por listagem completa de usuários")
+                .baseUnit("linhas")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     // =============================
@@ -25,8 +97,12 @@ public class UsuarioService {
     // =============================
     public UsuarioResponseDTO cadastrarUsuario(UsuarioRequestDTO usuarioDTO) {
 
-        // Verificando se já existe usuário com o mesmo email
-        if (usuarioRepository.existsByEmail(usuarioDTO.getEmail())) {
+        // A unicidade do email é garantida pela restrição uk_usuarios_emails do diretório
+        // de emails: um único INSERT, sem janela de corrida entre verificação e gravação.
+        // A violação é traduzida para 409 no ManipuladorDeExcecoesGlobal.
+        // O FiltroDeEmails só antecipa o caso duplicado para não gastar o BCrypt à toa:
+        // quando ele descarta o email, nenhuma consulta é feita.
+        if (filtroDeEmails.existe(usuarioDTO.getEmail(), usuarioRepository::existsByEmail)) {
             throw new EmailJaCadastradoException("Email já cadastrado.");
         }
 
@@ -34,12 +110,17 @@ public class UsuarioService {
         Usuario usuario = new Usuario();
         usuario.setNome(usuarioDTO.getNome());
         usuario.setEmail(usuarioDTO.getEmail());
-        usuario.setSenha(usuarioDTO.getSenha());
+        usuario.setSenha(hashDeSenha.gerar(usuarioDTO.getSenha()));
 
         // Define role padrão
         usuario.setRole(Role.CLIENTE);
 
-        Usuario salvo = usuarioRepository.save(usuario);
+        // Com ids por sequência o INSERT só acontece no flush; forçamos aqui para que
+        // a violação de email único apareça nesta chamada.
+        Usuario salvo = gravar(usuario, TipoEventoUsuario.CRIADO, null);
+        filtroDeEmails.registrar(salvo.getEmail());
+        consultasEmAndamento.invalidar(null, salvo.getEmail());
+        pesquisaDeUsuarios.indexar(salvo.getId(), salvo.getNome(), salvo.getEmail());
 
         return toResponseDTO(salvo);
     }
@@ -49,10 +130,32 @@ public class UsuarioService {
     // ============================
     public UsuarioResponseDTO buscarPorId(Long id) {
 
-        Usuario usuario = usuarioRepository.findById(id)
-                .orElseThrow(() -> new UsuarioNaoEncontradoException("Usuario não encontrado."));
+        // Consulta o cache antes de ir ao banco (read-through); buscas simultâneas
+        // pelo mesmo id compartilham uma única consulta
+        return usuarioCache.buscarPorId(id).orElseGet(() -> consultasEmAndamento.buscarPorId(id,
+                () -> usuarioRepository.findById(id)
+                        .map(this::toResponseDTO)
+                        .orElseThrow(() -> new UsuarioNaoEncontradoException("Usuario não encontrado.")),
+                usuarioCache::guardar));
+    }
+
+    // ============================
+    // VERSAO DO USUARIO (GET CONDICIONAL)
+    // ============================
+    // Usa o DTO em cache quando existe; senão lê só id, versão e data de atualização.
+    public VersaoUsuarioDTO buscarVersao(Long id) {
 
-        return toResponseDTO(usuario);
+        return usuarioCache.buscarPorId(id)
+                .map(usuario -> new VersaoUsuarioDTO(usuario.getId(), usuario.getVersao(), usuario.getDataAtualizacao()))
+                .orElseGet(() -> usuarioRepository.findVersaoById(id)
+                        .orElseThrow(() -> new UsuarioNaoEncontradoException("Usuario não encontrado.")));
+    }
+
+    // ============================
+    // VERSAO DA LISTA COMPLETA (GET CONDICIONAL)
+    // ============================
+    public VersaoListaDTO versaoDaLista() {
+        return usuarioRepository.findVersaoDaLista();
     }
 
     // ============================
@@ -60,64 +163,297 @@ public class UsuarioService {
     // ============================
     public List<UsuarioResponseDTO> listarTodos() {
 
-        return usuarioRepository.findAll()
+        List<UsuarioResponseDTO> usuarios = usuarioRepository.findAll()
                 .stream()
                 .map(this::toResponseDTO)
                 .toList();
+
+        linhasListadas.record(usuarios.size());
+        return usuarios;
+    }
+
+    // ============================
+    // LISTAR USUARIOS PAGINADOS (CURSOR)
+    // ============================
+    public PaginaDTO<UsuarioResponseDTO> listarPagina(String apos, int limite) {
+
+        int tamanho = Math.clamp(limite, 1, LIMITE_MAXIMO_PAGINA);
+        long ultimoId = apos == null || apos.isBlank() ? 0L : CursorPaginacao.decodificar(apos);
+
+        // Busca um registro a mais apenas para saber se existe próxima página
+        List<Usuario> usuarios = usuarioRepository
+                .findByIdGreaterThanOrderByIdAsc(ultimoId, Limit.of(tamanho + 1));
+
+        boolean temProxima = usuarios.size() > tamanho;
+        List<UsuarioResponseDTO> itens = usuarios.stream()
+                .limit(tamanho)
+                .map(this::toResponseDTO)
+                .toList();
+
+        String proximo = temProxima ? CursorPaginacao.codificar(itens.getLast().getId()) : null;
+
+        return new PaginaDTO<>(itens, proximo);
+    }
+
+    // ============================
+    // BUSCAR USUARIOS COM FILTROS (CURSOR)
+    // ============================
+    public PaginaDTO<UsuarioResponseDTO> buscar(FiltroUsuarioDTO filtro, String apos, int limite) {
+
+        int tamanho = Math.clamp(limite, 1, LIMITE_MAXIMO_PAGINA);
+        long ultimoId = apos == null || apos.isBlank() ? 0L : CursorPaginacao.decodificar(apos);
+
+        // Mesma estratégia de listarPagina: um registro extra indica se há próxima página
+        List<UsuarioResponseDTO> usuarios = usuarioRepository.buscar(filtro, ultimoId, tamanho + 1);
+
+        boolean temProxima = usuarios.size() > tamanho;
+        List<UsuarioResponseDTO> itens = temProxima ? usuarios.subList(0, tamanho) : usuarios;
+
+        String proximo = temProxima ? CursorPaginacao.codificar(itens.getLast().getId()) : null;
+
+        return new PaginaDTO<>(itens, proximo);
+    }
+
+    // ============================
+    // PERCORRER TODOS USUARIOS (STREAMING)
+    // ============================
+    // Entrega cada usuário ao consumidor assim que é lido do banco.
+    // A entidade é desanexada logo após a conversão para que o contexto
+    // de persistência não cresça junto com a tabela.
+    @Transactional(readOnly = true)
+    public void percorrerTodos(Consumer<UsuarioResponseDTO> consumidor) {
+
+        AtomicLong linhas = new AtomicLong();
+        try (Stream<Usuario> usuarios = usuarioRepository.streamTodosOrdenadosPorId()) {
+            usuarios.forEach(usuario -> {
+                consumidor.accept(toResponseDTO(usuario));
+                entityManager.detach(usuario);
+                linhas.incrementAndGet();
+            });
+        } finally {
+            linhasListadas.record(linhas.get());
+        }
     }
 
     // ============================
     // BUSCAR USUARIO POR EMAIL
     // ============================
-    public Usuario buscarPorEmail(String email) {
-        return usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new UsuarioNaoEncontradoException("Usuario não encontrado"));
+    public UsuarioResponseDTO buscarPorEmail(String email) {
+
+        return usuarioCache.buscarPorEmail(email).orElseGet(() -> consultasEmAndamento.buscarPorEmail(email,
+                () -> usuarioRepository.findByEmail(email)
+                        .map(this::toResponseDTO)
+                        .orElseThrow(() -> new UsuarioNaoEncontradoException("Usuario não encontrado")),
+                usuarioCache::guardar));
+    }
+
+    // ============================
+    // CONSULTA EM LOTE POR IDS E EMAILS
+    // ============================
+    // Entrega um item por chave, na ordem enviada: primeiro os ids, depois os emails.
+    // Cada bloco de até TAMANHO_BLOCO_CONSULTA chaves vai ao banco numa única consulta IN,
+    // só com as que não estão no cache; os itens do bloco saem assim que ele é resolvido,
+    // então a resposta pode ser escrita enquanto os blocos seguintes são consultados.
+    // O que vem do banco não é guardado no cache: sem a checagem do ConsultasEmAndamento,
+    // uma escrita confirmada durante a consulta teria a versão anterior devolvida ao cache.
+    public void consultarEmLote(ConsultaEmLoteDTO consulta, Consumer<ItemConsultaDTO> consumidor) {
+
+        for (List<Long> bloco : blocos(consulta.getIds())) {
+            Map<Long, UsuarioResponseDTO> encontrados = new HashMap<>();
+            Set<Long> faltantes = new LinkedHashSet<>();
+            for (Long id : bloco) {
+                usuarioCache.buscarPorId(id).ifPresentOrElse(
+                        usuario -> encontrados.put(id, usuario), () -> faltantes.add(id));
+            }
+            if (!faltantes.isEmpty()) {
+                for (Usuario usuario : usuarioRepository.findAllById(faltantes)) {
+                    encontrados.put(usuario.getId(), toResponseDTO(usuario));
+                }
+            }
+            bloco.forEach(id -> consumidor.accept(ItemConsultaDTO.porId(id, encontrados.get(id))));
+        }
+
+        for (List<String> bloco : blocos(consulta.getEmails())) {
+            Map<String, UsuarioResponseDTO> encontrados = new HashMap<>();
+            Set<String> faltantes = new LinkedHashSet<>();
+            for (String email : bloco) {
+                usuarioCache.buscarPorEmail(email).ifPresentOrElse(
+                        usuario -> encontrados.put(email, usuario), () -> faltantes.add(email));
+            }
+            if (!faltantes.isEmpty()) {
+                for (Usuario usuario : usuarioRepository.findAllByEmails(faltantes)) {
+                    encontrados.put(usuario.getEmail(), toResponseDTO(usuario));
+                }
+            }
+            bloco.forEach(email -> consumidor.accept(ItemConsultaDTO.porEmail(email, encontrados.get(email))));
+        }
+    }
+
+    private static <T> List<List<T>> blocos(List<T> chaves) {
+        if (chaves == null || chaves.isEmpty()) {
+            return List.of();
+        }
+        List<List<T>> blocos = new ArrayList<>();
+        for (int inicio = 0; inicio < chaves.size(); inicio += TAMANHO_BLOCO_CONSULTA) {
+            blocos.add(chaves.subList(inicio, Math.min(inicio + TAMANHO_BLOCO_CONSULTA, chaves.size())));
+        }
+        return blocos;
+    }
+
+    // ============================
+    // PESQUISA APROXIMADA POR NOME E EMAIL
+    // ============================
+    // Respondida pelo índice em memória: trechos e erros de digitação, sem consulta ao banco
+    public List<ResultadoPesquisaDTO> pesquisar(String termo, int limite) {
+        return pesquisaDeUsuarios.pesquisar(termo, limite);
     }
 
     // ============================
     // DELETAR USUARIO POR ID
     // ============================
+    // Exclusão lógica num único UPDATE (sem o SELECT prévio): zero linhas afetadas
+    // significa usuário inexistente. A linha é apagada depois pelo ExpurgoDeUsuarios.
     public void deletar(Long id) {
-        if (!usuarioRepository.existsById(id)) {
-            throw new UsuarioNaoEncontradoException("Usuario não encontrado.");
-        }
-        usuarioRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            usuarioRepository.liberarEmailDoUsuario(id);
+            if (usuarioRepository.marcarComoDeletado(id, LocalDateTime.now()) == 0) {
+                throw new UsuarioNaoEncontradoException("Usuario não encontrado.");
+            }
+            // A remoção também avança a versão; o evento leva a da linha removida
+            eventoRepository.save(new EventoUsuario(TipoEventoUsuario.REMOVIDO, id,
+                    usuarioRepository.findVersaoDoRemovido(id)));
+        });
+        usuarioCache.invalidar(id);
+        consultasEmAndamento.invalidar(id);
+        consultasEmAndamento.invalidarEmails();
+        pesquisaDeUsuarios.remover(id);
     }
 
     // ============================
     // ATUALIZAR USUARIO POR ID
     // ============================
     public UsuarioResponseDTO atualizar(Long id, UsuarioRequestDTO usuarioDTO) {
+        return atualizar(id, usuarioDTO, null);
+    }
 
-        Usuario usuario = usuarioRepository.findById(id)
-                .orElseThrow(() -> new UsuarioNaoEncontradoException("Usuario não encontrado"));
+    // versaoEsperada vem do If-Match; null aceita qualquer versão.
+    // A comparação aqui evita o hash da senha quando o cliente já está desatualizado;
+    // uma atualização concorrente entre a leitura e o flush é barrada pelo @Version.
+    public UsuarioResponseDTO atualizar(Long id, UsuarioRequestDTO usuarioDTO, Long versaoEsperada) {
 
-        // Verificando se o novo email já existe para outro usuário
-        if (usuarioRepository.existsByEmail(usuarioDTO.getEmail())
-                && !usuario.getEmail().equals(usuarioDTO.getEmail())) {
-            throw new EmailJaCadastradoException("Email já cadastrado.");
+        Usuario usuario = carregarParaEscrita(id);
+
+        if (versaoEsperada != null && !versaoEsperada.equals(usuario.getVersao())) {
+            throw new VersaoDesatualizadaException("Usuario foi alterado desde a última leitura.");
         }
 
+        String emailAnterior = usuario.getEmail();
         usuario.setNome(usuarioDTO.getNome());
         usuario.setEmail(usuarioDTO.getEmail());
-        usuario.setSenha(usuarioDTO.getSenha());
+        usuario.setSenha(hashDeSenha.gerar(usuarioDTO.getSenha()));
+
+        // A troca no diretório garante que um email duplicado seja detectado aqui pela
+        // restrição única, mesmo quando o método roda dentro de uma transação maior.
+        Usuario atualizado = gravar(usuario, TipoEventoUsuario.ATUALIZADO, emailAnterior);
+        usuarioCache.invalidar(id);
+        consultasEmAndamento.invalidar(id, emailAnterior, atualizado.getEmail());
+        filtroDeEmails.registrar(atualizado.getEmail());
+        pesquisaDeUsuarios.indexar(atualizado.getId(), atualizado.getNome(), atualizado.getEmail());
+
+        return toResponseDTO(atualizado);
+    }
 
-        Usuario atualizado = usuarioRepository.save(usuario);
+
+    // ============================
+    // ATUALIZAR USUARIO PARCIALMENTE (PATCH)
+    // ============================
+    // Só os campos enviados e diferentes do valor atual são alterados. Se nada mudou,
+    // não há UPDATE nem invalidação de cache. O email continua protegido pela
+    // restrição única, então nenhuma consulta extra é feita para ele.
+    public UsuarioResponseDTO atualizarParcial(Long id, AtualizacaoParcialUsuarioDTO usuarioDTO, Long versaoEsperada) {
+
+        Usuario usuario = carregarParaEscrita(id);
+
+        if (versaoEsperada != null && !versaoEsperada.equals(usuario.getVersao())) {
+            throw new VersaoDesatualizadaException("Usuario foi alterado desde a última leitura.");
+        }
+
+        boolean alterado = false;
+        boolean nomeAlterado = false;
+        boolean emailAlterado = false;
+        String emailAnterior = usuario.getEmail();
+
+        if (usuarioDTO.getNome() != null && !usuarioDTO.getNome().equals(usuario.getNome())) {
+            usuario.setNome(usuarioDTO.getNome());
+            alterado = true;
+            nomeAlterado = true;
+        }
+        if (usuarioDTO.getEmail() != null && !usuarioDTO.getEmail().equals(usuario.getEmail())) {
+            usuario.setEmail(usuarioDTO.getEmail());
+            alterado = true;
+            emailAlterado = true;
+        }
+        // Cada hash tem um salt novo: a senha só é recalculada quando é enviada
+        if (usuarioDTO.getSenha() != null) {
+            usuario.setSenha(hashDeSenha.gerar(usuarioDTO.getSenha()));
+            alterado = true;
+        }
+
+        if (!alterado) {
+            return toResponseDTO(usuario);
+        }
+
+        Usuario atualizado = gravar(usuario, TipoEventoUsuario.ATUALIZADO, emailAnterior);
+        usuarioCache.invalidar(id);
+        consultasEmAndamento.invalidar(id, emailAnterior, atualizado.getEmail());
+        if (emailAlterado) {
+            filtroDeEmails.registrar(atualizado.getEmail());
+        }
+        if (nomeAlterado || emailAlterado) {
+            pesquisaDeUsuarios.indexar(atualizado.getId(), atualizado.getNome(), atualizado.getEmail());
+        }
 
         return toResponseDTO(atualizado);
     }
 
+    // Lê o usuário numa transação de escrita, para que venha sempre do primário:
+    // a versão comparada com o If-Match e a usada no UPDATE precisam ser a atual.
+    private Usuario carregarParaEscrita(Long id) {
+        return transactionTemplate.execute(status -> usuarioRepository.findById(id))
+                .orElseThrow(() -> new UsuarioNaoEncontradoException("Usuario não encontrado"));
+    }
+
+    // Grava o usuário, o diretório de emails e o evento no outbox numa única transação.
+    // Após o flush o id e a versão já são os definitivos.
+    // emailAnterior é null no cadastro; nas atualizações, o email lido antes da alteração.
+    private Usuario gravar(Usuario usuario, TipoEventoUsuario tipo, String emailAnterior) {
+        return transactionTemplate.execute(status -> {
+            Usuario salvo = usuarioRepository.saveAndFlush(usuario);
+            if (emailAnterior == null) {
+                usuarioRepository.registrarEmails(List.of(salvo));
+            } else if (!emailAnterior.equals(salvo.getEmail())) {
+                usuarioRepository.liberarEmail(emailAnterior);
+                usuarioRepository.registrarEmails(List.of(salvo));
+            }
+            eventoRepository.save(new EventoUsuario(tipo, salvo.getId(), salvo.getVersao()));
+            return salvo;
+        });
+    }
+
 
     // Método responsável por conversão entidade -> DTO
     // Centraliza transformação e evita repetição de código
-    private UsuarioResponseDTO toResponseDTO(Usuario usuario) {
+    // (visível no pacote para ser medido pelos benchmarks JMH)
+    UsuarioResponseDTO toResponseDTO(Usuario usuario) {
 
         return new UsuarioResponseDTO(
                 usuario.getId(),
                 usuario.getNome(),
                 usuario.getEmail(),
                 usuario.getRole().name(),
-                usuario.getDataCriacao()
+                usuario.getDataCriacao(),
+                usuario.getVersao(),
+                usuario.getDataAtualizacao()
         );
     }
 }
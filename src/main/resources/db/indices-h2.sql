@@ -0,0 +1,26 @@
+-- Executado após o Hibernate criar/atualizar as tabelas (spring.jpa.defer-datasource-initialization).
+-- O H2 não particiona tabelas: aqui usuarios e o diretório de emails são tabelas comuns,
+-- com as mesmas colunas e restrições da versão particionada do PostgreSQL.
+
+-- Diretório email -> id dos usuários ativos (ver UsuarioRepository). A unicidade do email
+-- entre os ativos vem dele: a remoção lógica apaga a linha e libera o email.
+-- Substitui a restrição sobre usuarios (email, deletado_em) de versões anteriores.
+alter table usuarios drop constraint if exists uk_usuarios_email;
+create table if not exists usuarios_emails (
+    email varchar(50) not null,
+    usuario_id bigint not null,
+    constraint uk_usuarios_emails unique (email)
+);
+insert into usuarios_emails (email, usuario_id)
+select u.email, u.id from usuarios u
+where u.deletado_em is null and not exists (select 1 from usuarios_emails);
+
+-- Substituídos por idx_usuarios_role_id (Usuario), que segue a ordem da paginação por id
+drop index if exists idx_usuarios_role_criacao;
+drop index if exists idx_usuarios_role_atualizacao;
+
+-- Lotes do expurgo e medição dos pendentes
+create index if not exists idx_usuarios_deletado_em on usuarios (deletado_em);
+
+-- Expurgo do outbox (RelayDeEventos)
+create index if not exists idx_usuarios_eventos_publicados on usuarios_eventos (data_hora);
@@ -0,0 +1,39 @@
+-- Executado após o Hibernate criar/atualizar as tabelas (spring.jpa.defer-datasource-initialization).
+-- Índices parciais que sustentam o filtro "deletado_em is null" de Usuario: só as linhas
+-- ativas entram neles, então as remoções lógicas não os fazem crescer. Criados na tabela
+-- particionada, valem para cada partição (ver db/particionamento-postgresql.sql).
+
+-- Diretório email -> id dos usuários ativos, dono da unicidade do email entre os ativos.
+-- Sem o particionamento aplicado, fica como tabela comum e a API funciona igual.
+-- Substitui a restrição e o índice únicos sobre usuarios (email) de versões anteriores.
+alter table usuarios drop constraint if exists uk_usuarios_email;
+drop index if exists uk_usuarios_email;
+create table if not exists usuarios_emails (
+    email varchar(50) not null,
+    usuario_id bigint not null,
+    constraint uk_usuarios_emails unique (email)
+);
+-- Preenchido só quando está vazio (primeira subida desta versão); a subconsulta não
+-- correlacionada é avaliada uma vez, então nas demais subidas nada é lido.
+insert into usuarios_emails (email, usuario_id)
+select u.email, u.id from usuarios u
+where u.deletado_em is null and not exists (select 1 from usuarios_emails);
+
+-- Listagem e paginação por id sem visitar linhas removidas
+create index if not exists idx_usuarios_ativos on usuarios (id) where deletado_em is null;
+
+-- Prefixo de nome da busca filtrada (nome like 'x%'). Com collation diferente de C, o
+-- idx_usuarios_nome declarado em Usuario não serve ao LIKE; varchar_pattern_ops serve.
+create index if not exists idx_usuarios_nome_prefixo on usuarios (nome varchar_pattern_ops)
+    where deletado_em is null;
+
+-- Substituídos por idx_usuarios_role_id (Usuario), que segue a ordem da paginação por id
+drop index if exists idx_usuarios_role_criacao;
+drop index if exists idx_usuarios_role_atualizacao;
+
+-- Lotes do expurgo e medição dos pendentes: só as linhas removidas
+create index if not exists idx_usuarios_deletado_em on usuarios (deletado_em) where deletado_em is not null;
+
+-- Expurgo do outbox (RelayDeEventos): só os eventos já publicados, os únicos que ele apaga
+create index if not exists idx_usuarios_eventos_publicados on usuarios_eventos (data_hora)
+    where posicao is not null;
@@ -0,0 +1,110 @@
+-- Converte usuarios e o diretório usuarios_emails em tabelas particionadas por hash:
+--   usuarios_p<n>        partição de usuarios por hash do id
+--   usuarios_emails_p<n> partição do diretório por hash do email
+-- A busca por id poda para uma partição de usuarios; a busca por email lê uma partição
+-- do diretório e, com o id, uma de usuarios. Cada partição tem heap, índices e
+-- autovacuum próprios, e a unicidade do email fica em uk_usuarios_emails_p<n>.
+--
+-- Não é executado pelo spring.sql.init: rode uma vez, com a aplicação parada, depois
+-- que ela já tiver criado as tabelas. Pode ser rodado de novo, também com a aplicação
+-- parada, para mudar o número de partições:
+--   psql -v particoes=16 -f src/main/resources/db/particionamento-postgresql.sql
+-- Os índices de db/indices-postgresql.sql e os de Usuario são recriados aqui e passam a
+-- valer para cada partição; o ExpurgoDeUsuarios descobre as partições no catálogo.
+\set ON_ERROR_STOP on
+select set_config('usuarios.particoes', :'particoes', false);
+
+begin;
+
+-- Numa nova execução, as partições atuais e os índices delas (inclusive
+-- uk_usuarios_emails_p<n>, cuja restrição é renomeada junto) ganham o sufixo _antiga,
+-- para que as novas possam ser criadas; saem no drop das tabelas antigas, mais abaixo.
+-- Na primeira execução as tabelas não são particionadas e nada é renomeado.
+do $$
+declare
+    particao regclass;
+    indice regclass;
+begin
+    for particao in
+        select inhrelid::regclass from pg_inherits
+        where inhparent in (select oid from pg_class
+                            where relname in ('usuarios', 'usuarios_emails')
+                              and relnamespace = current_schema()::regnamespace)
+    loop
+        for indice in select indexrelid::regclass from pg_index where indrelid = particao loop
+            execute format('alter index %s rename to %I', indice,
+                           (select relname from pg_class where oid = indice) || '_antiga');
+        end loop;
+        execute format('alter table %s rename to %I', particao,
+                       (select relname from pg_class where oid = particao) || '_antiga');
+    end loop;
+end $$;
+
+-- Libera os nomes (a chave primária e os índices têm nomes únicos no schema)
+alter table usuarios rename to usuarios_antiga;
+alter table usuarios_antiga rename constraint usuarios_pkey to usuarios_antiga_pkey;
+alter table if exists usuarios_emails rename to usuarios_emails_antiga;
+alter table if exists usuarios_emails_antiga rename constraint uk_usuarios_emails to uk_usuarios_emails_antiga;
+
+create table usuarios (
+    id bigint not null,
+    nome varchar(50) not null,
+    email varchar(50) not null,
+    senha varchar(255) not null,
+    role varchar(255) not null check (role in ('ADMIN', 'CLIENTE')),
+    data_criacao timestamp(6) not null,
+    data_atualizacao timestamp(6) not null,
+    versao bigint not null,
+    deletado_em timestamp(6),
+    constraint usuarios_pkey primary key (id)
+) partition by hash (id);
+
+create table usuarios_emails (
+    email varchar(50) not null,
+    usuario_id bigint not null,
+    constraint uk_usuarios_emails unique (email)
+) partition by hash (email);
+
+-- As partições do diretório são criadas com a restrição já nomeada e depois anexadas:
+-- o PostgreSQL reaproveita o índice, e a violação informa uk_usuarios_emails_p<n>
+-- (traduzida para 409 pelo prefixo Usuario.UK_EMAIL).
+do $$
+declare
+    quantidade int := current_setting('usuarios.particoes')::int;
+begin
+    for n in 0 .. quantidade - 1 loop
+        execute format('create table usuarios_p%s partition of usuarios '
+                       'for values with (modulus %s, remainder %s)', n, quantidade, n);
+        execute format('create table usuarios_emails_p%1$s (email varchar(50) not null, '
+                       'usuario_id bigint not null, constraint uk_usuarios_emails_p%1$s unique (email))', n);
+        execute format('alter table usuarios_emails attach partition usuarios_emails_p%s '
+                       'for values with (modulus %s, remainder %s)', n, quantidade, n);
+    end loop;
+end $$;
+
+insert into usuarios (id, nome, email, senha, role, data_criacao, data_atualizacao, versao, deletado_em)
+select id, nome, email, senha, role, data_criacao, data_atualizacao, versao, deletado_em
+from usuarios_antiga;
+
+-- O diretório é refeito a partir dos usuários ativos
+insert into usuarios_emails (email, usuario_id)
+select email, id from usuarios where deletado_em is null;
+
+drop table usuarios_antiga;
+drop table if exists usuarios_emails_antiga;
+
+-- Índices declarados em Usuario (busca filtrada)
+create index idx_usuarios_role_id on usuarios (role, id);
+create index idx_usuarios_criacao on usuarios (data_criacao);
+create index idx_usuarios_atualizacao on usuarios (data_atualizacao);
+create index idx_usuarios_nome on usuarios (nome);
+
+-- Índices parciais de db/indices-postgresql.sql
+create index idx_usuarios_ativos on usuarios (id) where deletado_em is null;
+create index idx_usuarios_deletado_em on usuarios (deletado_em) where deletado_em is not null;
+create index idx_usuarios_nome_prefixo on usuarios (nome varchar_pattern_ops) where deletado_em is null;
+
+commit;
+
+analyze usuarios;
+analyze usuarios_emails;
@@ -0,0 +1,37 @@
+package com.projetoapi.reativo;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.convert.IdGeneratingEntityCallback;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.relational.RelationalManagedTypes;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+// Ajustes do Spring Data R2DBC para compartilhar as tabelas criadas pelo Hibernate
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ConfiguracaoR2dbc {
+
+    // Identificadores sem aspas, como os do Hibernate: "usuarios" vira USUARIOS no H2
+    // e continua usuarios no PostgreSQL. Com aspas, o nome teria de bater exatamente.
+    @Bean
+    R2dbcMappingContext r2dbcMappingContext(R2dbcCustomConversions conversoes, RelationalManagedTypes tipos) {
+        R2dbcMappingContext contexto = R2dbcMappingContext.forPlainIdentifiers();
+        contexto.setSimpleTypeHolder(conversoes.getSimpleTypeHolder());
+        contexto.setManagedTypes(tipos);
+        return contexto;
+    }
+
+    // Busca o próximo valor da sequência (@Sequence) antes do INSERT; sem este callback
+    // o Spring Data R2DBC esperaria um id gerado pelo banco
+    @Bean
+    IdGeneratingEntityCallback geracaoDeIds(R2dbcMappingContext contexto,
+                                            ConnectionFactory connectionFactory,
+                                            DatabaseClient databaseClient) {
+        return new IdGeneratingEntityCallback(contexto, DialectResolver.getDialect(connectionFactory), databaseClient);
+    }
+}
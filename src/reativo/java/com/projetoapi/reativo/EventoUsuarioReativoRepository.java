@@ -0,0 +1,6 @@
+package com.projetoapi.reativo;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+
+public interface EventoUsuarioReativoRepository extends R2dbcRepository<RegistroEventoUsuario, Long> {
+}
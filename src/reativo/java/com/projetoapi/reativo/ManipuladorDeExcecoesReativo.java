@@ -0,0 +1,163 @@
+package com.projetoapi.reativo;
+
+import com.projetoapi.dominio.Usuario;
+import com.projetoapi.excecoes.CursorInvalidoException;
+import com.projetoapi.excecoes.EmailJaCadastradoException;
+import com.projetoapi.excecoes.SerializadorDeErro;
+import com.projetoapi.excecoes.ServicoSobrecarregadoException;
+import com.projetoapi.excecoes.UsuarioNaoEncontradoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Mesmo mapeamento de erros do ManipuladorDeExcecoesGlobal, para as exceções da pilha reativa.
+// Corpo escrito pelo SerializadorDeErro (formato de RespostaDeErro) e contagem em usuarios.erros.
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ManipuladorDeExcecoesReativo {
+
+    private final MeterRegistry meterRegistry;
+    private final SerializadorDeErro serializadorDeErro;
+    private final Map<Class<?>, Counter> contadores = new ConcurrentHashMap<>();
+
+    public ManipuladorDeExcecoesReativo(MeterRegistry meterRegistry, SerializadorDeErro serializadorDeErro) {
+        this.meterRegistry = meterRegistry;
+        this.serializadorDeErro = serializadorDeErro;
+    }
+
+    // 404 - Usuário não encontrado
+    @ExceptionHandler(UsuarioNaoEncontradoException.class)
+    public ResponseEntity<byte[]> handleUsuarioNaoEncontrado(UsuarioNaoEncontradoException ex, ServerHttpRequest request) {
+        return responder(HttpStatus.NOT_FOUND, ex.getMessage(), ex, request);
+    }
+
+    // 409 - Email já cadastrado
+    @ExceptionHandler(EmailJaCadastradoException.class)
+    public ResponseEntity<byte[]> handleEmailJaCadastrado(EmailJaCadastradoException ex, ServerHttpRequest request) {
+        return responder(HttpStatus.CONFLICT, ex.getMessage(), ex, request);
+    }
+
+    // 409 - Violação da restrição única de email. Sem Hibernate, o nome da restrição
+    // é procurado nas mensagens do driver R2DBC.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<byte[]> handleViolacaoDeIntegridade(DataIntegrityViolationException ex, ServerHttpRequest request) {
+
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa.getMessage() != null && causa.getMessage().toLowerCase().contains(Usuario.UK_EMAIL)) {
+                return handleEmailJaCadastrado(new EmailJaCadastradoException("Email já cadastrado."), request);
+            }
+        }
+
+        return handleExcecaoGenerica(ex, request);
+    }
+
+    // 409 - Usuário alterado por outra requisição entre a leitura e o UPDATE (@Version)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> handleConflitoDeVersao(OptimisticLockingFailureException ex, ServerHttpRequest request) {
+        return responder(HttpStatus.CONFLICT, "Usuario foi alterado por outra requisição.", ex, request);
+    }
+
+    // 400 - Erro de validação do corpo (@Valid)
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<byte[]> handleValidacao(WebExchangeBindException ex, ServerHttpRequest request) {
+
+        String mensagem = ex.getFieldErrors().isEmpty()
+                ? "Erro de validação"
+                : ex.getFieldErrors().stream()
+                        .map(campo -> campo.getField() + ": " + campo.getDefaultMessage())
+                        .collect(Collectors.joining(", "));
+
+        return responder(HttpStatus.BAD_REQUEST, mensagem, ex, request);
+    }
+
+    // 400 - Cursor de paginação inválido
+    @ExceptionHandler(CursorInvalidoException.class)
+    public ResponseEntity<byte[]> handleCursorInvalido(CursorInvalidoException ex, ServerHttpRequest request) {
+        return responder(HttpStatus.BAD_REQUEST, ex.getMessage(), ex, request);
+    }
+
+    // 400 - Parâmetro com tipo inválido (ex.: limite=abc) ou corpo malformado.
+    // No WebFlux os dois chegam como ServerWebInputException.
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<byte[]> handleEntradaInvalida(ServerWebInputException ex, ServerHttpRequest request) {
+
+        MethodParameter parametro = ex.getMethodParameter();
+        String mensagem = parametro == null || parametro.hasParameterAnnotation(RequestBody.class)
+                ? "Corpo da requisição inválido."
+                : "Parâmetro inválido: " + parametro.getParameterName();
+
+        return responder(HttpStatus.BAD_REQUEST, mensagem, ex, request);
+    }
+
+    // 503 - Executor de hash de senhas sem capacidade no momento
+    @ExceptionHandler(ServicoSobrecarregadoException.class)
+    public ResponseEntity<byte[]> handleServicoSobrecarregado(ServicoSobrecarregadoException ex, ServerHttpRequest request) {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+
+        return responder(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), ex, request, headers);
+    }
+
+    // Erros do próprio WebFlux (rota inexistente, método não suportado...) mantêm o status
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<byte[]> handleStatus(ResponseStatusException ex, ServerHttpRequest request) {
+
+        HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
+        if (status == null) {
+            return handleExcecaoGenerica(ex, request);
+        }
+
+        return responder(status, status.getReasonPhrase(), ex, request, ex.getHeaders());
+    }
+
+    // 500 - Erro inesperado
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<byte[]> handleExcecaoGenerica(Exception ex, ServerHttpRequest request) {
+        return responder(HttpStatus.INTERNAL_SERVER_ERROR, "Erro interno inesperado", ex, request);
+    }
+
+    private ResponseEntity<byte[]> responder(HttpStatus status, String mensagem, Throwable ex, ServerHttpRequest request) {
+        return responder(status, mensagem, ex, request, HttpHeaders.EMPTY);
+    }
+
+    private ResponseEntity<byte[]> responder(
+            HttpStatus status,
+            String mensagem,
+            Throwable ex,
+            ServerHttpRequest request,
+            HttpHeaders headers) {
+
+        contarErro(status, ex);
+
+        return ResponseEntity.status(status)
+                .headers(headers)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(serializadorDeErro.serializar(status, mensagem, request.getPath().value()));
+    }
+
+    private void contarErro(HttpStatus status, Throwable ex) {
+        contadores.computeIfAbsent(ex.getClass(), tipo -> meterRegistry.counter("usuarios.erros",
+                        "status", String.valueOf(status.value()),
+                        "excecao", tipo.getSimpleName()))
+                .increment();
+    }
+}
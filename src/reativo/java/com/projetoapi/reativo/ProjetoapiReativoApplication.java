@@ -0,0 +1,26 @@
+package com.projetoapi.reativo;
+
+import com.projetoapi.excecoes.SerializadorDeErro;
+import com.projetoapi.services.HashDeSenha;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+
+// Variante reativa da API: mesmas rotas e payloads de /usuarios sobre WebFlux e R2DBC.
+// Varre apenas este pacote; do restante do projeto usa os DTOs, as exceções,
+// o SerializadorDeErro e o HashDeSenha. A configuração fica em application-reativo.properties.
+// A condição impede que a aplicação servlet carregue esta classe ao varrer com.projetoapi.
+@SpringBootApplication
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Import({HashDeSenha.class, SerializadorDeErro.class})
+public class ProjetoapiReativoApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ProjetoapiReativoApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reativo")
+                .run(args);
+    }
+}
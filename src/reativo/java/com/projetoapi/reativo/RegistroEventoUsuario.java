@@ -0,0 +1,35 @@
+package com.projetoapi.reativo;
+
+import com.projetoapi.dominio.TipoEventoUsuario;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Sequence;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// Evento do outbox gravado pela pilha reativa, sem posição: o RelayDeEventos
+// da aplicação servlet publica os dois tipos de escrita da mesma forma.
+@Table("usuarios_eventos")
+@Getter
+@NoArgsConstructor
+public class RegistroEventoUsuario {
+
+    @Id
+    @Sequence("usuarios_eventos_seq")
+    private Long id;
+
+    private Long posicao;
+    private TipoEventoUsuario tipo;
+    private Long usuarioId;
+    private Long versao;
+    private LocalDateTime dataHora;
+
+    public RegistroEventoUsuario(TipoEventoUsuario tipo, Long usuarioId, Long versao) {
+        this.tipo = tipo;
+        this.usuarioId = usuarioId;
+        this.versao = versao;
+        this.dataHora = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,60 @@
+package com.projetoapi.reativo;
+
+import com.projetoapi.dominio.Role;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.relational.core.mapping.Sequence;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// Linha da tabela usuarios no mapeamento do Spring Data R2DBC (a entidade JPA é Usuario).
+// O id vem da mesma sequência usada pelo Hibernate; como ele reserva blocos de 50
+// (pooled), o valor obtido aqui é o topo de um bloco que o Hibernate nunca usará.
+@Table("usuarios")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RegistroUsuario implements Persistable<Long> {
+
+    @Id
+    @Sequence("usuarios_seq")
+    private Long id;
+
+    private String nome;
+    private String email;
+    private String senha;
+    private Role role;
+    private LocalDateTime dataCriacao;
+    private LocalDateTime dataAtualizacao;
+
+    // Mesma semântica do @Version do JPA: o UPDATE filtra pela versão lida
+    // e falha com OptimisticLockingFailureException se outra escrita passou antes
+    @Version
+    private Long versao;
+
+    // Só lida: a remoção é o UPDATE de UsuarioReativoRepository.marcarComoDeletado
+    @ReadOnlyProperty
+    private LocalDateTime deletadoEm;
+
+    public RegistroUsuario(String nome, String email, String senha, Role role) {
+        this.nome = nome;
+        this.email = email;
+        this.senha = senha;
+        this.role = role;
+        this.dataCriacao = LocalDateTime.now();
+        this.dataAtualizacao = this.dataCriacao;
+    }
+
+    // Novo enquanto não tem id. Sem isto o Spring Data usaria a versão, que já vale 0
+    // quando o callback da sequência roda, e o id nunca seria preenchido.
+    @Override
+    public boolean isNew() {
+        return id == null;
+    }
+}
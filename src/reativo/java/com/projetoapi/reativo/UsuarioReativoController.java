@@ -0,0 +1,85 @@
+package com.projetoapi.reativo;
+
+import com.projetoapi.dto.PaginaDTO;
+import com.projetoapi.dto.UsuarioRequestDTO;
+import com.projetoapi.dto.UsuarioResponseDTO;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Mesmas rotas e payloads do UsuarioController para o que não depende da pilha servlet.
+// Ficam só na pilha servlet: busca filtrada, eventos, importação em lote, PATCH,
+// ETags/If-Match e o limite de requisições.
+@RestController
+@RequestMapping("/usuarios")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class UsuarioReativoController {
+
+    private final UsuarioReativoService service;
+
+    public UsuarioReativoController(UsuarioReativoService service) {
+        this.service = service;
+    }
+
+    // ===========================
+    // BUSCAR TODOS USUARIOS (STREAMING)
+    // ===========================
+    // Array JSON escrito à medida que as linhas chegam; com Accept: application/x-ndjson,
+    // um usuário por linha. Em ambos os casos com contrapressão até o R2DBC.
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<UsuarioResponseDTO> listarTodos() {
+        return service.listarTodos();
+    }
+
+    // ===========================
+    // LISTAR USUARIOS PAGINADOS
+    // ===========================
+    @GetMapping(params = "limite")
+    public Mono<PaginaDTO<UsuarioResponseDTO>> listarPagina(
+            @RequestParam int limite,
+            @RequestParam(required = false) String apos) {
+
+        return service.listarPagina(apos, limite);
+    }
+
+    // ===========================
+    // BUSCAR USUARIO POR ID
+    // ===========================
+    @GetMapping("/{id}")
+    public Mono<UsuarioResponseDTO> buscarPorId(@PathVariable Long id) {
+        return service.buscarPorId(id);
+    }
+
+    // ===========================
+    // CADASTRAR USUARIO
+    // ===========================
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<UsuarioResponseDTO> cadastrar(@Valid @RequestBody UsuarioRequestDTO usuarioDTO) {
+        return service.cadastrarUsuario(usuarioDTO);
+    }
+
+    // ===========================
+    // DELETAR USUARIO POR ID
+    // ===========================
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deletar(@PathVariable Long id) {
+        return service.deletar(id);
+    }
+
+    // ===========================
+    // ATUALIZAR USUARIO POR ID
+    // ===========================
+    @PutMapping("/{id}")
+    public Mono<UsuarioResponseDTO> atualizar(
+            @PathVariable Long id,
+            @Valid @RequestBody UsuarioRequestDTO usuarioDTO) {
+
+        return service.atualizar(id, usuarioDTO);
+    }
+}
@@ -0,0 +1,48 @@
+package com.projetoapi.reativo;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// Sem o @SQLRestriction do Hibernate aqui: cada consulta exclui os usuários removidos
+// explicitamente (DeletadoEmIsNull), e os herdados findById/findAll não devem ser usados.
+public interface UsuarioReativoRepository extends R2dbcRepository<RegistroUsuario, Long> {
+
+    Mono<RegistroUsuario> findByIdAndDeletadoEmIsNull(Long id);
+
+    // A demanda do assinante controla quantas linhas são lidas do banco
+    Flux<RegistroUsuario> findAllByDeletadoEmIsNullOrderByIdAsc();
+
+    // Paginação por cursor (keyset), igual à do UsuarioRepository
+    Flux<RegistroUsuario> findByIdGreaterThanAndDeletadoEmIsNullOrderByIdAsc(Long id, Limit limite);
+
+    // Mesmo UPDATE único do UsuarioRepository.marcarComoDeletado
+    @Modifying
+    @Query("update usuarios set deletado_em = :agora, versao = versao + 1 "
+            + "where id = :id and deletado_em is null")
+    Mono<Integer> marcarComoDeletado(Long id, LocalDateTime agora);
+
+    // Versão gravada pelo UPDATE acima, para o evento de remoção
+    @Query("select versao from usuarios where id = :id")
+    Mono<Long> findVersaoDoRemovido(Long id);
+
+    // Diretório de emails, mantido como no UsuarioRepository para que as duas pilhas
+    // possam dividir o mesmo banco
+    @Modifying
+    @Query("insert into usuarios_emails (email, usuario_id) values (:email, :id)")
+    Mono<Integer> registrarEmail(String email, Long id);
+
+    @Modifying
+    @Query("delete from usuarios_emails where email = :email")
+    Mono<Integer> liberarEmail(String email);
+
+    @Modifying
+    @Query("delete from usuarios_emails where email = "
+            + "(select email from usuarios where id = :id and deletado_em is null)")
+    Mono<Integer> liberarEmailDoUsuario(Long id);
+}
@@ -0,0 +1,172 @@
+package com.projetoapi.reativo;
+
+import com.projetoapi.dominio.Role;
+import com.projetoapi.dominio.TipoEventoUsuario;
+import com.projetoapi.dto.PaginaDTO;
+import com.projetoapi.dto.UsuarioRequestDTO;
+import com.projetoapi.dto.UsuarioResponseDTO;
+import com.projetoapi.excecoes.UsuarioNaoEncontradoException;
+import com.projetoapi.services.CursorPaginacao;
+import com.projetoapi.services.HashDeSenha;
+import com.projetoapi.services.UsuarioService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Contraparte reativa do UsuarioService para as operações de /usuarios.
+// Nenhum método bloqueia: o BCrypt roda no executor do HashDeSenha e as consultas
+// são R2DBC. Como no UsuarioService, o hash é calculado fora da transação e cada
+// escrita grava o evento do outbox na mesma transação.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class UsuarioReativoService {
+
+    private final UsuarioReativoRepository usuarioRepository;
+    private final EventoUsuarioReativoRepository eventoRepository;
+    private final HashDeSenha hashDeSenha;
+    private final TransactionalOperator transacao;
+
+    public UsuarioReativoService(UsuarioReativoRepository usuarioRepository,
+                                 EventoUsuarioReativoRepository eventoRepository,
+                                 HashDeSenha hashDeSenha,
+                                 ReactiveTransactionManager transactionManager) {
+        this.usuarioRepository = usuarioRepository;
+        this.eventoRepository = eventoRepository;
+        this.hashDeSenha = hashDeSenha;
+        this.transacao = TransactionalOperator.create(transactionManager);
+    }
+
+    // =============================
+    // CADASTRAR USUARIO
+    // =============================
+    // A unicidade do email fica com a restrição uk_usuarios_emails do diretório, como na pilha servlet
+    public Mono<UsuarioResponseDTO> cadastrarUsuario(UsuarioRequestDTO usuarioDTO) {
+        return gerarHash(usuarioDTO.getSenha())
+                .map(senha -> new RegistroUsuario(usuarioDTO.getNome(), usuarioDTO.getEmail(), senha, Role.CLIENTE))
+                .flatMap(usuario -> gravar(usuario, TipoEventoUsuario.CRIADO, null))
+                .map(this::toResponseDTO);
+    }
+
+    // ============================
+    // BUSCAR USUARIO POR ID
+    // ============================
+    public Mono<UsuarioResponseDTO> buscarPorId(Long id) {
+        return carregar(id).map(this::toResponseDTO);
+    }
+
+    // ============================
+    // BUSCAR TODOS USUARIOS (STREAMING)
+    // ============================
+    // O Flux segue a demanda de quem assina: o WebFlux só pede mais linhas ao banco
+    // conforme consegue escrever a resposta, então a memória não cresce com a tabela.
+    public Flux<UsuarioResponseDTO> listarTodos() {
+        return usuarioRepository.findAllByDeletadoEmIsNullOrderByIdAsc().map(this::toResponseDTO);
+    }
+
+    // ============================
+    // LISTAR USUARIOS PAGINADOS (CURSOR)
+    // ============================
+    public Mono<PaginaDTO<UsuarioResponseDTO>> listarPagina(String apos, int limite) {
+
+        int tamanho = Math.clamp(limite, 1, UsuarioService.LIMITE_MAXIMO_PAGINA);
+        long ultimoId = apos == null || apos.isBlank() ? 0L : CursorPaginacao.decodificar(apos);
+
+        // Um registro a mais indica se existe próxima página
+        return usuarioRepository.findByIdGreaterThanAndDeletadoEmIsNullOrderByIdAsc(ultimoId, Limit.of(tamanho + 1))
+                .map(this::toResponseDTO)
+                .collectList()
+                .map(usuarios -> {
+                    boolean temProxima = usuarios.size() > tamanho;
+                    List<UsuarioResponseDTO> itens = temProxima ? usuarios.subList(0, tamanho) : usuarios;
+                    String proximo = temProxima ? CursorPaginacao.codificar(itens.getLast().getId()) : null;
+                    return new PaginaDTO<>(itens, proximo);
+                });
+    }
+
+    // ============================
+    // DELETAR USUARIO POR ID
+    // ============================
+    // Exclusão lógica, como no UsuarioService; o expurgo da pilha servlet apaga as linhas
+    public Mono<Void> deletar(Long id) {
+        return usuarioRepository.liberarEmailDoUsuario(id)
+                .then(usuarioRepository.marcarComoDeletado(id, LocalDateTime.now()))
+                .flatMap(linhas -> linhas > 0
+                        ? usuarioRepository.findVersaoDoRemovido(id)
+                        : Mono.error(new UsuarioNaoEncontradoException("Usuario não encontrado.")))
+                .flatMap(versao -> eventoRepository.save(
+                        new RegistroEventoUsuario(TipoEventoUsuario.REMOVIDO, id, versao)))
+                .as(transacao::transactional)
+                .then();
+    }
+
+    // ============================
+    // ATUALIZAR USUARIO POR ID
+    // ============================
+    // Lê, gera o hash e grava com a versão lida: uma escrita concorrente no meio
+    // faz o UPDATE falhar com OptimisticLockingFailureException (409).
+    public Mono<UsuarioResponseDTO> atualizar(Long id, UsuarioRequestDTO usuarioDTO) {
+        return carregar(id)
+                .zipWith(gerarHash(usuarioDTO.getSenha()))
+                .flatMap(lido -> {
+                    RegistroUsuario usuario = lido.getT1();
+                    String emailAnterior = usuario.getEmail();
+                    usuario.setNome(usuarioDTO.getNome());
+                    usuario.setEmail(usuarioDTO.getEmail());
+                    usuario.setSenha(lido.getT2());
+                    usuario.setDataAtualizacao(LocalDateTime.now());
+                    return gravar(usuario, TipoEventoUsuario.ATUALIZADO, emailAnterior);
+                })
+                .map(this::toResponseDTO);
+    }
+
+    private Mono<RegistroUsuario> carregar(Long id) {
+        return usuarioRepository.findByIdAndDeletadoEmIsNull(id)
+                .switchIfEmpty(Mono.error(() -> new UsuarioNaoEncontradoException("Usuario não encontrado.")));
+    }
+
+    // O hash só começa quando há assinante (defer), e o resultado chega pela thread do executor
+    private Mono<String> gerarHash(String senha) {
+        return Mono.fromFuture(() -> hashDeSenha.gerarAssincrono(senha));
+    }
+
+    // Grava o usuário, o diretório de emails e o evento no outbox numa única transação.
+    // emailAnterior é null no cadastro; nas atualizações, o email lido antes da alteração.
+    private Mono<RegistroUsuario> gravar(RegistroUsuario usuario, TipoEventoUsuario tipo, String emailAnterior) {
+        return usuarioRepository.save(usuario)
+                .flatMap(salvo -> atualizarDiretorio(salvo, emailAnterior).thenReturn(salvo))
+                .flatMap(salvo -> eventoRepository
+                        .save(new RegistroEventoUsuario(tipo, salvo.getId(), salvo.getVersao()))
+                        .thenReturn(salvo))
+                .as(transacao::transactional);
+    }
+
+    private Mono<Integer> atualizarDiretorio(RegistroUsuario salvo, String emailAnterior) {
+        if (emailAnterior == null) {
+            return usuarioRepository.registrarEmail(salvo.getEmail(), salvo.getId());
+        }
+        if (emailAnterior.equals(salvo.getEmail())) {
+            return Mono.just(0);
+        }
+        return usuarioRepository.liberarEmail(emailAnterior)
+                .then(usuarioRepository.registrarEmail(salvo.getEmail(), salvo.getId()));
+    }
+
+    private UsuarioResponseDTO toResponseDTO(RegistroUsuario usuario) {
+        return new UsuarioResponseDTO(
+                usuario.getId(),
+                usuario.getNome(),
+                usuario.getEmail(),
+                usuario.getRole().name(),
+                usuario.getDataCriacao(),
+                usuario.getVersao(),
+                usuario.getDataAtualizacao()
+        );
+    }
+}
@@ -0,0 +1,35 @@
+-- Mesmas tabelas e sequências que o Hibernate cria para Usuario e EventoUsuario
+create sequence if not exists usuarios_seq start with 1 increment by 50;
+create sequence if not exists usuarios_eventos_seq start with 1 increment by 50;
+
+create table if not exists usuarios (
+    id bigint not null primary key,
+    nome varchar(50) not null,
+    email varchar(50) not null,
+    senha varchar(255) not null,
+    role varchar(255) not null,
+    data_criacao timestamp(6) not null,
+    data_atualizacao timestamp(6) not null,
+    versao bigint not null,
+    deletado_em timestamp(6)
+);
+
+-- Mesmo diretório de db/indices-h2.sql: email único entre os usuários não removidos
+create table if not exists usuarios_emails (
+    email varchar(50) not null,
+    usuario_id bigint not null,
+    constraint uk_usuarios_emails unique (email)
+);
+
+create index if not exists idx_usuarios_deletado_em on usuarios (deletado_em);
+
+create table if not exists usuarios_eventos (
+    id bigint not null primary key,
+    posicao bigint,
+    tipo varchar(16) not null,
+    usuario_id bigint not null,
+    versao bigint,
+    data_hora timestamp(6) not null
+);
+
+create unique index if not exists idx_usuarios_eventos_posicao on usuarios_eventos (posicao);
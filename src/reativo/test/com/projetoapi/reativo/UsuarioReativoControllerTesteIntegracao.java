@@ -0,0 +1,186 @@
+package com.projetoapi.reativo;
+
+import com.projetoapi.dto.UsuarioRequestDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Sobe a aplicação reativa em porta aleatória (Netty) com o banco R2DBC em memória
+@SpringBootTest(
+        classes = ProjetoapiReativoApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                // Com as duas pilhas no classpath o teste escolheria a servlet
+                "spring.main.web-application-type=reactive",
+                "usuarios.senha.bcrypt-custo=4"
+        })
+@ActiveProfiles("reativo")
+class UsuarioReativoControllerTesteIntegracao {
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private DatabaseClient banco;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private WebTestClient cliente;
+
+    @BeforeEach
+    void preparar() {
+        cliente = WebTestClient.bindToServer().baseUrl("http://localhost:" + porta).build();
+        banco.sql("delete from usuarios_eventos").then().block();
+        banco.sql("delete from usuarios_emails").then().block();
+        banco.sql("delete from usuarios").then().block();
+    }
+
+    private UsuarioRequestDTO requisicao(String nome, String email) {
+        UsuarioRequestDTO dto = new UsuarioRequestDTO();
+        dto.setNome(nome);
+        dto.setEmail(email);
+        dto.setSenha("123456");
+        return dto;
+    }
+
+    // O DTO de resposta não é desserializável (só saída), então o id é lido do JSON
+    private long cadastrar(String nome, String email) {
+        String corpo = cliente.post().uri("/usuarios")
+                .bodyValue(requisicao(nome, email))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+        return objectMapper.readTree(corpo).get("id").asLong();
+    }
+
+    @Test
+    @DisplayName("Deve cadastrar, buscar, atualizar e deletar pela pilha reativa")
+    void deveExecutarCicloCompleto() {
+
+        long id = cadastrar("Ana", "ana@gmail.com");
+
+        cliente.get().uri("/usuarios/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.nome").isEqualTo("Ana")
+                .jsonPath("$.role").isEqualTo("CLIENTE");
+
+        cliente.put().uri("/usuarios/{id}", id)
+                .bodyValue(requisicao("Ana Maria", "ana.maria@gmail.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("ana.maria@gmail.com");
+
+        cliente.delete().uri("/usuarios/{id}", id)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        // Exclusão lógica: a linha fica no banco, mas some das leituras
+        cliente.get().uri("/usuarios/{id}", id)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        // Uma escrita = um evento no outbox
+        Long eventos = banco.sql("select count(*) from usuarios_eventos where usuario_id = :id")
+                .bind("id", id)
+                .map(linha -> linha.get(0, Long.class))
+                .one().block();
+        assertEquals(3L, eventos);
+    }
+
+    @Test
+    @DisplayName("Deve mapear erros no mesmo formato da pilha servlet")
+    void deveMapearErros() {
+
+        cadastrar("Ana", "ana@gmail.com");
+
+        cliente.post().uri("/usuarios")
+                .bodyValue(requisicao("Outra Ana", "ana@gmail.com"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.mensagem").isEqualTo("Email já cadastrado.")
+                .jsonPath("$.caminho").isEqualTo("/usuarios");
+
+        cliente.get().uri("/usuarios/999999")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404);
+
+        cliente.post().uri("/usuarios")
+                .bodyValue(requisicao("", "invalido"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.mensagem").value(mensagem -> ((String) mensagem).contains("email"));
+
+        cliente.get().uri("/usuarios?limite=abc")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.mensagem").isEqualTo("Parâmetro inválido: limite");
+    }
+
+    @Test
+    @DisplayName("Deve transmitir a lista completa e paginar por cursor")
+    void deveListarEmStreamingEPaginar() {
+
+        cadastrar("Ana", "ana@gmail.com");
+        cadastrar("Bia", "bia@gmail.com");
+        cadastrar("Carla", "carla@gmail.com");
+
+        // Um objeto JSON por linha
+        List<String> ndjson = cliente.get().uri("/usuarios")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseBody()
+                .collectList().block();
+        assertEquals(List.of("Ana", "Bia", "Carla"),
+                ndjson.stream().map(linha -> objectMapper.readTree(linha).get("nome").asString()).toList());
+
+        cliente.get().uri("/usuarios")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3);
+
+        JsonNode primeiraPagina = objectMapper.readTree(cliente.get().uri("/usuarios?limite=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody());
+        assertEquals(2, primeiraPagina.get("itens").size());
+
+        cliente.get().uri(uri -> uri.path("/usuarios")
+                        .queryParam("limite", 2)
+                        .queryParam("apos", primeiraPagina.get("proximo").asString())
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.itens.length()").isEqualTo(1)
+                .jsonPath("$.itens[0].nome").isEqualTo("Carla")
+                .jsonPath("$.proximo").doesNotExist();
+    }
+}
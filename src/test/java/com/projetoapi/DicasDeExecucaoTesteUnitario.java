@@ -0,0 +1,58 @@
+package com.projetoapi;
+
+import com.projetoapi.dominio.Usuario;
+import com.projetoapi.dto.UsuarioRequestDTO;
+import com.projetoapi.dto.UsuarioResponseDTO;
+import com.projetoapi.dto.VersaoUsuarioDTO;
+import com.projetoapi.excecoes.RespostaDeErro;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DicasDeExecucaoTesteUnitario {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void registrar() {
+        hints = new RuntimeHints();
+        new DicasDeExecucao().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void deveRegistrarEntidadeParaOHibernate() {
+        // Campos (acesso por campo), construtor sem argumentos e callbacks @PrePersist/@PreUpdate
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(Usuario.class)
+                .withMemberCategories(MemberCategory.ACCESS_DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS)
+                .test(hints));
+    }
+
+    @Test
+    void deveRegistrarDtosParaOJackson() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethodInvocation(UsuarioRequestDTO.class.getMethod("setEmail", String.class))
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethodInvocation(UsuarioResponseDTO.class.getMethod("getNome"))
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethodInvocation(RespostaDeErro.class.getMethod("getMensagem"))
+                .test(hints));
+    }
+
+    @Test
+    void deveRegistrarConstrutoresDasProjecoesEScripts() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(VersaoUsuarioDTO.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/indices-postgresql.sql").test(hints));
+    }
+}
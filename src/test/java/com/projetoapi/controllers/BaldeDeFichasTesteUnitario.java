@@ -0,0 +1,48 @@
+package com.projetoapi.controllers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaldeDeFichasTesteUnitario {
+
+    // 1 ficha por segundo, rajada de 3
+    private static final long INTERVALO = 1_000_000_000L;
+    private static final long CAPACIDADE = 3 * INTERVALO;
+
+    @Test
+    void deveAvisarSoNaUltimaFichaComOInstanteEmQueAProximaVolta() {
+        BaldeDeFichas balde = new BaldeDeFichas();
+        List<Long> fins = new ArrayList<>();
+
+        assertEquals(0, balde.consumir(0, INTERVALO, CAPACIDADE, fins::add));
+        assertEquals(0, balde.consumir(0, INTERVALO, CAPACIDADE, fins::add));
+        assertTrue(fins.isEmpty());
+
+        assertEquals(0, balde.consumir(0, INTERVALO, CAPACIDADE, fins::add));
+        assertEquals(List.of(INTERVALO), fins);
+
+        // Esgotado até o instante avisado, disponível a partir dele
+        assertTrue(balde.consumir(INTERVALO - 1, INTERVALO, CAPACIDADE, fins::add) > 0);
+        assertEquals(0, balde.consumir(INTERVALO, INTERVALO, CAPACIDADE, fins::add));
+        assertEquals(List.of(INTERVALO, 2 * INTERVALO), fins);
+    }
+
+    @Test
+    void naoDeveAvisarQuandoRecusa() {
+        BaldeDeFichas balde = new BaldeDeFichas();
+        List<Long> fins = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            balde.consumir(0, INTERVALO, CAPACIDADE, fins::add);
+        }
+        for (int i = 0; i < 5; i++) {
+            assertTrue(balde.consumir(INTERVALO / 2, INTERVALO, CAPACIDADE, fins::add) > 0);
+        }
+
+        assertEquals(1, fins.size());
+    }
+}
@@ -0,0 +1,91 @@
+package com.projetoapi.controllers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A amostragem agendada do pool fica parada para o teste controlar a carga
+@SpringBootTest(properties = {
+        "usuarios.cliente.cabecalho=X-Cliente",
+        "usuarios.carga.intervalo-amostra-ms=3600000"
+})
+@AutoConfigureMockMvc(addFilters = false)
+class LimitadorDeRequisicoesTesteIntegracao {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ControleDeCarga controleDeCarga;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Cada teste usa um cliente próprio para não dividir baldes
+    private RequestPostProcessor cliente(String id) {
+        return request -> {
+            request.addHeader("X-Cliente", id);
+            return request;
+        };
+    }
+
+    @Test
+    @DisplayName("Deve responder 429 com Retry-After quando o cliente esgota a rajada")
+    void deveResponder429AoEsgotarRajada() throws Exception {
+
+        // Listagem completa: rajada de 3 por cliente
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/usuarios").with(cliente("integracao-a")))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/usuarios").with(cliente("integracao-a")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        // Outro cliente tem o próprio balde
+        mockMvc.perform(get("/usuarios").with(cliente("integracao-b")))
+                .andExpect(status().isOk());
+
+        double rejeicoes = meterRegistry.get("usuarios.limite.rejeicoes")
+                .tags("endpoint", "listarTodos", "motivo", "taxa").counter().count();
+        assertTrue(rejeicoes >= 1);
+    }
+
+    @Test
+    @DisplayName("Deve descartar só endpoints descartáveis quando o pool satura")
+    void deveDescartarEndpointsDescartaveisSobCarga() throws Exception {
+
+        // Espera média de 1s por conexão: muito acima do limiar, descarta tudo que é descartável
+        controleDeCarga.registrarAmostra(1_000_000_000);
+        try {
+            mockMvc.perform(get("/usuarios").param("limite", "10").with(cliente("carga")))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists("Retry-After"));
+
+            // Busca por id não é descartável
+            mockMvc.perform(get("/usuarios/999999").with(cliente("carga")))
+                    .andExpect(status().isNotFound());
+        } finally {
+            controleDeCarga.registrarAmostra(0);
+            controleDeCarga.registrarAmostra(0);
+            controleDeCarga.registrarAmostra(0);
+        }
+
+        assertEquals(1.0, meterRegistry.get("usuarios.limite.rejeicoes")
+                .tags("endpoint", "listarPagina", "motivo", "carga").counter().count());
+    }
+}
@@ -0,0 +1,89 @@
+package com.projetoapi.controllers;
+
+import com.projetoapi.dto.UsuarioRequestDTO;
+import com.projetoapi.repositorios.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Sem @Transactional: cada requisição precisa confirmar sua própria transação
+// para que a corrida entre cadastros concorrentes aconteça de verdade no banco.
+// O custo do BCrypt é reduzido para que o executor de hash não rejeite (503) parte do pico.
+@SpringBootTest(properties = "usuarios.senha.bcrypt-custo=4")
+@AutoConfigureMockMvc(addFilters = false)
+class UsuarioControllerTesteConcorrencia {
+
+    private static final String EMAIL = "concorrente@gmail.com";
+    private static final int REQUISICOES = 32;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UsuarioRepository repository;
+
+    @AfterEach
+    void limpar() {
+        repository.findByEmail(EMAIL).ifPresent(usuario -> {
+            repository.liberarEmail(EMAIL);
+            repository.delete(usuario);
+        });
+    }
+
+    @Test
+    @DisplayName("Deve cadastrar apenas um usuário quando vários cadastros com o mesmo email chegam juntos")
+    void deveCadastrarApenasUmUsuarioComEmailConcorrente() throws Exception {
+
+        UsuarioRequestDTO request = new UsuarioRequestDTO();
+        request.setNome("Concorrente");
+        request.setEmail(EMAIL);
+        request.setSenha("123456");
+        String corpo = objectMapper.writeValueAsString(request);
+
+        ExecutorService executor = Executors.newFixedThreadPool(REQUISICOES);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Integer>> resultados = new ArrayList<>();
+
+        // Cada tarefa devolve o status HTTP
+        for (int i = 0; i < REQUISICOES; i++) {
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                return mockMvc.perform(post("/usuarios")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(corpo))
+                        .andReturn().getResponse().getStatus();
+            }));
+        }
+
+        largada.countDown();
+
+        int criados = 0;
+        int conflitos = 0;
+        for (Future<Integer> resultado : resultados) {
+            int status = resultado.get(30, TimeUnit.SECONDS);
+            if (status == 201) criados++;
+            if (status == 409) conflitos++;
+        }
+        executor.shutdown();
+
+        // Exatamente um cadastro vence; todos os outros recebem 409 (nenhum 500)
+        assertEquals(1, criados);
+        assertEquals(REQUISICOES - 1, conflitos);
+    }
+}
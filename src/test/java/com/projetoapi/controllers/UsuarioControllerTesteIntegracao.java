@@ -4,6 +4,9 @@ import com.projetoapi.dominio.Role;
 import com.projetoapi.dominio.Usuario;
 import com.projetoapi.dto.UsuarioRequestDTO;
 import com.projetoapi.repositorios.UsuarioRepository;
+import com.projetoapi.services.PesquisaDeUsuarios;
+import com.projetoapi.services.RelayDeEventos;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,14 +14,33 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+// O relay agendado fica parado; os testes de eventos o acionam na própria transação.
+// O limite de requisições tem teste próprio (LimitadorDeRequisicoesTesteIntegracao).
+@SpringBootTest(properties = {
+        "usuarios.eventos.relay-intervalo-ms=3600000",
+        "usuarios.limite.habilitado=false"
+})
 @AutoConfigureMockMvc(addFilters = false)
 @Transactional
 class UsuarioControllerTesteIntegracao {
@@ -29,9 +51,21 @@ class UsuarioControllerTesteIntegracao {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CBORMapper cborMapper;
+
     @Autowired
     private UsuarioRepository repository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RelayDeEventos relay;
+
+    @Autowired
+    private PesquisaDeUsuarios pesquisaDeUsuarios;
+
     // ================================
     // CADASTRAR
     // ================================
@@ -55,6 +89,66 @@ class UsuarioControllerTesteIntegracao {
                 .andExpect(jsonPath("$.dataCriacao").exists());
     }
 
+    @Test
+    @DisplayName("Deve gravar a senha com hash BCrypt")
+    void deveGravarSenhaComHash() throws Exception {
+
+        UsuarioRequestDTO request = new UsuarioRequestDTO();
+        request.setNome("Hash");
+        request.setEmail("hash@gmail.com");
+        request.setSenha("123456");
+
+        mockMvc.perform(post("/usuarios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        String senhaGravada = repository.findByEmail("hash@gmail.com").orElseThrow().getSenha();
+        assertTrue(senhaGravada.startsWith("$2"));
+    }
+
+    // ================================
+    // IMPORTAR EM LOTE
+    // ================================
+    @Test
+    @DisplayName("Deve importar lote NDJSON informando o resultado de cada item")
+    void deveImportarLoteNdjson() throws Exception {
+
+        salvar(new Usuario("Existente", "existente@gmail.com", "123456", Role.CLIENTE));
+
+        String corpo = String.join("\n",
+                "{\"nome\":\"Lote 1\",\"email\":\"lote1@gmail.com\",\"senha\":\"123456\"}",
+                "{\"nome\":\"\",\"email\":\"invalido\",\"senha\":\"123456\"}",
+                "{\"nome\":\"Lote 1 de novo\",\"email\":\"lote1@gmail.com\",\"senha\":\"123456\"}",
+                "{\"nome\":\"Existente\",\"email\":\"existente@gmail.com\",\"senha\":\"123456\"}");
+
+        mockMvc.perform(post("/usuarios/lote")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(4))
+                .andExpect(jsonPath("$.criados").value(1))
+                .andExpect(jsonPath("$.itens[0].situacao").value("CRIADO"))
+                .andExpect(jsonPath("$.itens[0].id").exists())
+                .andExpect(jsonPath("$.itens[1].situacao").value("INVALIDO"))
+                .andExpect(jsonPath("$.itens[2].situacao").value("DUPLICADO"))
+                .andExpect(jsonPath("$.itens[3].situacao").value("DUPLICADO"));
+    }
+
+    @Test
+    @DisplayName("Deve importar lote enviado como array JSON")
+    void deveImportarLoteArrayJson() throws Exception {
+
+        String corpo = "[{\"nome\":\"A\",\"email\":\"a@gmail.com\",\"senha\":\"123456\"},"
+                + "{\"nome\":\"B\",\"email\":\"b@gmail.com\",\"senha\":\"123456\"}]";
+
+        mockMvc.perform(post("/usuarios/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.criados").value(2));
+    }
+
     // ================================
     // LISTAR
     // ================================
@@ -69,6 +163,229 @@ class UsuarioControllerTesteIntegracao {
                 .andExpect(jsonPath("$").isArray());
     }
 
+    // ================================
+    // LISTAR PAGINADO (CURSOR)
+    // ================================
+    @Test
+    @DisplayName("Deve listar usuários por página usando cursor")
+    void deveListarUsuariosPorPagina() throws Exception {
+
+        repository.save(new Usuario("Bia", "bia@gmail.com", "123456", Role.CLIENTE));
+        repository.save(new Usuario("Caio", "caio@gmail.com", "123456", Role.CLIENTE));
+
+        mockMvc.perform(get("/usuarios").param("limite", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(1))
+                .andExpect(jsonPath("$.proximo").exists());
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 quando cursor inválido")
+    void deveRetornar400QuandoCursorInvalido() throws Exception {
+
+        mockMvc.perform(get("/usuarios").param("limite", "10").param("apos", "invalido"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    // ================================
+    // BUSCA COM FILTROS
+    // ================================
+    @Test
+    @DisplayName("Deve buscar usuários filtrando por role e prefixo do nome")
+    void deveBuscarUsuariosPorRoleEPrefixoDoNome() throws Exception {
+
+        repository.save(new Usuario("Admin Ana", "admin.ana@gmail.com", "123456", Role.ADMIN));
+        repository.save(new Usuario("Admin Beto", "admin.beto@gmail.com", "123456", Role.CLIENTE));
+        repository.save(new Usuario("Outro", "outro.admin@gmail.com", "123456", Role.ADMIN));
+
+        mockMvc.perform(get("/usuarios/busca")
+                        .param("role", "ADMIN")
+                        .param("nome", "Admin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(1))
+                .andExpect(jsonPath("$.itens[0].email").value("admin.ana@gmail.com"))
+                .andExpect(jsonPath("$.itens[0].role").value("ADMIN"))
+                .andExpect(jsonPath("$.proximo").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 quando parâmetro da busca é inválido")
+    void deveRetornar400QuandoParametroDaBuscaInvalido() throws Exception {
+
+        mockMvc.perform(get("/usuarios/busca").param("limite", "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    // ================================
+    // PESQUISA APROXIMADA
+    // ================================
+    // O índice em memória não participa do rollback: os nomes daqui não se repetem em outros testes
+    @Test
+    @DisplayName("Deve pesquisar por nome com erro de digitação e esquecer o usuário removido")
+    void devePesquisarPorNomeAproximado() throws Exception {
+
+        // Espera a construção inicial, para que ela não substitua o índice durante o teste
+        pesquisaDeUsuarios.reconstruir();
+
+        UsuarioRequestDTO request = new UsuarioRequestDTO();
+        request.setNome("Valdomiro Albuquerque");
+        request.setEmail("valdomiro@gmail.com");
+        request.setSenha("123456");
+
+        MvcResult criado = mockMvc.perform(post("/usuarios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long id = objectMapper.readTree(criado.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get("/usuarios/pesquisa").param("q", "valdomro albuquerq"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(id))
+                .andExpect(jsonPath("$[0].nome").value("Valdomiro Albuquerque"))
+                .andExpect(jsonPath("$[0].email").value("valdomiro@gmail.com"))
+                .andExpect(jsonPath("$[0].relevancia").isNumber());
+
+        mockMvc.perform(delete("/usuarios/" + id))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/usuarios/pesquisa").param("q", "valdomro albuquerq"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    // ================================
+    // CONSULTA EM LOTE
+    // ================================
+    @Test
+    @DisplayName("Deve consultar ids e emails em lote na ordem enviada, marcando os não encontrados")
+    void deveConsultarEmLoteNaOrdemEnviada() throws Exception {
+
+        Usuario lia = salvar(new Usuario("Lia", "lia@gmail.com", "123456", Role.CLIENTE));
+        Usuario ivo = salvar(new Usuario("Ivo", "ivo@gmail.com", "123456", Role.CLIENTE));
+
+        String corpo = "{\"ids\":[" + ivo.getId() + ",999999," + lia.getId() + "],"
+                + "\"emails\":[\"lia@gmail.com\",\"ninguem@gmail.com\"]}";
+
+        mockMvc.perform(post("/usuarios/consulta")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].id").value(ivo.getId()))
+                .andExpect(jsonPath("$[0].situacao").value("ENCONTRADO"))
+                .andExpect(jsonPath("$[0].usuario.nome").value("Ivo"))
+                .andExpect(jsonPath("$[1].id").value(999999))
+                .andExpect(jsonPath("$[1].situacao").value("NAO_ENCONTRADO"))
+                .andExpect(jsonPath("$[1].usuario").doesNotExist())
+                .andExpect(jsonPath("$[2].usuario.nome").value("Lia"))
+                .andExpect(jsonPath("$[3].email").value("lia@gmail.com"))
+                .andExpect(jsonPath("$[3].usuario.id").value(lia.getId()))
+                .andExpect(jsonPath("$[4].email").value("ninguem@gmail.com"))
+                .andExpect(jsonPath("$[4].situacao").value("NAO_ENCONTRADO"));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar consulta em lote acima do limite")
+    void deveRejeitarConsultaEmLoteAcimaDoLimite() throws Exception {
+
+        List<Long> ids = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        mockMvc.perform(post("/usuarios/consulta")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":" + objectMapper.writeValueAsString(ids) + "}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ================================
+    // EXPORTACAO
+    // ================================
+    @Test
+    @DisplayName("Deve exportar em CSV por padrão e em NDJSON a partir de um id")
+    void deveExportarEmCsvENdjsonAPartirDeUmId() throws Exception {
+
+        Usuario lia = repository.saveAndFlush(new Usuario("Lia, a \"Primeira\"", "lia@gmail.com", "123456", Role.CLIENTE));
+        Usuario ivo = repository.saveAndFlush(new Usuario("Ivo", "ivo@gmail.com", "123456", Role.ADMIN));
+
+        String csv = mockMvc.perform(get("/usuarios/exportacao"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(csv.startsWith("id,nome,email,role,dataCriacao\n"));
+        assertTrue(csv.contains("\n" + lia.getId() + ",\"Lia, a \"\"Primeira\"\"\",lia@gmail.com,CLIENTE,"));
+        assertTrue(csv.contains("\n" + ivo.getId() + ",Ivo,ivo@gmail.com,ADMIN,"));
+
+        // Retomada: só o que vem depois do id informado, uma linha JSON por usuário
+        String ndjson = mockMvc.perform(get("/usuarios/exportacao")
+                        .param("apos", String.valueOf(lia.getId()))
+                        .accept("application/x-ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+        String[] linhas = ndjson.split("\n");
+        JsonNode primeira = objectMapper.readTree(linhas[0]);
+        assertEquals(ivo.getId(), primeira.get("id").asLong());
+        assertEquals("ADMIN", primeira.get("role").asString());
+        assertTrue(ndjson.endsWith("\n"));
+        assertFalse(ndjson.contains("lia@gmail.com"));
+    }
+
+    // ================================
+    // FORMATO CBOR
+    // ================================
+    @Test
+    @DisplayName("Deve responder em CBOR quando o cliente pede application/cbor")
+    void deveResponderEmCborQuandoPedido() throws Exception {
+
+        Usuario usuario = repository.saveAndFlush(
+                new Usuario("Caio", "caio@gmail.com", "123456", Role.CLIENTE)
+        );
+
+        byte[] corpo = mockMvc.perform(get("/usuarios/" + usuario.getId())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_CBOR_VALUE))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode lido = cborMapper.readTree(corpo);
+        assertEquals(usuario.getId(), lido.get("id").asLong());
+        assertEquals("caio@gmail.com", lido.get("email").asString());
+    }
+
+    @Test
+    @DisplayName("Deve listar em CBOR com ETag próprio e manter JSON como padrão")
+    void deveListarEmCborComEtagProprio() throws Exception {
+
+        repository.saveAndFlush(new Usuario("Cora", "cora@gmail.com", "123456", Role.CLIENTE));
+
+        MvcResult json = mockMvc.perform(get("/usuarios").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/json;charset=UTF-8"))
+                .andReturn();
+
+        MvcResult cbor = mockMvc.perform(get("/usuarios").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_CBOR_VALUE))
+                .andReturn();
+
+        JsonNode lista = cborMapper.readTree(cbor.getResponse().getContentAsByteArray());
+        assertTrue(lista.isArray());
+        assertTrue(lista.valueStream().anyMatch(item -> item.get("email").asString().equals("cora@gmail.com")));
+
+        // Mesma lista em outra representação: o ETag JSON não vale para o CBOR
+        String etagCbor = cbor.getResponse().getHeader("ETag");
+        assertNotEquals(json.getResponse().getHeader("ETag"), etagCbor);
+        mockMvc.perform(get("/usuarios").accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", json.getResponse().getHeader("ETag")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/usuarios").accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", etagCbor))
+                .andExpect(status().isNotModified());
+    }
+
     // ================================
     // BUSCAR POR ID
     // ================================
@@ -99,6 +416,22 @@ class UsuarioControllerTesteIntegracao {
                 .andExpect(jsonPath("$.erro").value("Not Found"));
     }
 
+    // ================================
+    // MÉTRICAS
+    // ================================
+    @Test
+    @DisplayName("Deve registrar métricas do service, do repositório e dos erros")
+    void deveRegistrarMetricas() throws Exception {
+
+        mockMvc.perform(get("/usuarios/998"))
+                .andExpect(status().isNotFound());
+
+        assertNotNull(meterRegistry.find("usuarios.servico").tag("method", "buscarPorId").timer());
+        assertNotNull(meterRegistry.find("spring.data.repository.invocations").tag("method", "findById").timer());
+        assertNotNull(meterRegistry.find("usuarios.erros")
+                .tags("status", "404", "excecao", "UsuarioNaoEncontradoException").counter());
+    }
+
     // ================================
     // ATUALIZAR
     // ================================
@@ -122,6 +455,189 @@ class UsuarioControllerTesteIntegracao {
                 .andExpect(jsonPath("$.nome").value("Pedro Atualizado"));
     }
 
+    // ================================
+    // ETAG / REQUISIÇÕES CONDICIONAIS
+    // ================================
+    @Test
+    @DisplayName("Deve responder 304 quando If-None-Match corresponde à versão do usuário")
+    void deveResponder304QuandoUsuarioNaoMudou() throws Exception {
+
+        Usuario usuario = repository.saveAndFlush(
+                new Usuario("Nina", "nina@gmail.com", "123456", Role.CLIENTE)
+        );
+
+        String etag = mockMvc.perform(get("/usuarios/" + usuario.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertEquals("\"" + usuario.getId() + "-0\"", etag);
+
+        mockMvc.perform(get("/usuarios/" + usuario.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 na listagem completa enquanto nada mudar")
+    void deveResponder304NaListagemCompleta() throws Exception {
+
+        repository.saveAndFlush(new Usuario("Otto", "otto@gmail.com", "123456", Role.CLIENTE));
+
+        String etag = mockMvc.perform(get("/usuarios"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/usuarios").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // Um novo cadastro muda o ETag da lista
+        repository.saveAndFlush(new Usuario("Olga", "olga@gmail.com", "123456", Role.CLIENTE));
+
+        mockMvc.perform(get("/usuarios").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.email == 'olga@gmail.com')]").exists());
+    }
+
+    @Test
+    @DisplayName("Deve atualizar com If-Match atual e recusar com 412 o ETag antigo")
+    void deveAtualizarComIfMatchERecusarVersaoAntiga() throws Exception {
+
+        Usuario usuario = repository.saveAndFlush(
+                new Usuario("Vera", "vera@gmail.com", "123456", Role.CLIENTE)
+        );
+        String etagOriginal = "\"" + usuario.getId() + "-0\"";
+
+        UsuarioRequestDTO request = new UsuarioRequestDTO();
+        request.setNome("Vera Atualizada");
+        request.setEmail("vera@gmail.com");
+        request.setSenha("123456");
+
+        mockMvc.perform(put("/usuarios/" + usuario.getId())
+                        .header("If-Match", etagOriginal)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + usuario.getId() + "-1\""));
+
+        // Segundo cliente ainda com o ETag anterior
+        request.setNome("Vera Sobrescrita");
+
+        mockMvc.perform(put("/usuarios/" + usuario.getId())
+                        .header("If-Match", etagOriginal)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+
+        mockMvc.perform(get("/usuarios/" + usuario.getId()))
+                .andExpect(jsonPath("$.nome").value("Vera Atualizada"));
+    }
+
+    // ================================
+    // ATUALIZAR PARCIALMENTE (PATCH)
+    // ================================
+    @Test
+    @DisplayName("Deve alterar só os campos enviados no PATCH")
+    void deveAtualizarParcialmenteSoOsCamposEnviados() throws Exception {
+
+        Usuario usuario = repository.saveAndFlush(
+                new Usuario("Iris", "iris@gmail.com", "hash-original", Role.CLIENTE)
+        );
+
+        mockMvc.perform(patch("/usuarios/" + usuario.getId())
+                        .header("If-Match", "\"" + usuario.getId() + "-0\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"nome\":\"Iris Souza\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome").value("Iris Souza"))
+                .andExpect(jsonPath("$.email").value("iris@gmail.com"))
+                .andExpect(header().string("ETag", "\"" + usuario.getId() + "-1\""));
+
+        Usuario salvo = repository.findById(usuario.getId()).orElseThrow();
+        assertEquals("hash-original", salvo.getSenha());
+    }
+
+    @Test
+    @DisplayName("Deve recusar PATCH com 412 quando If-Match está desatualizado")
+    void deveRecusarPatchComVersaoDesatualizada() throws Exception {
+
+        Usuario usuario = repository.saveAndFlush(
+                new Usuario("Ivo", "ivo@gmail.com", "123456", Role.CLIENTE)
+        );
+
+        mockMvc.perform(patch("/usuarios/" + usuario.getId())
+                        .header("If-Match", "\"" + usuario.getId() + "-7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Ivo Lima\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 no PATCH com campo em branco")
+    void deveRetornar400NoPatchComCampoEmBranco() throws Exception {
+
+        Usuario usuario = repository.saveAndFlush(
+                new Usuario("Ana", "ana@gmail.com", "123456", Role.CLIENTE)
+        );
+
+        mockMvc.perform(patch("/usuarios/" + usuario.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"  \"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ================================
+    // EVENTOS (OUTBOX)
+    // ================================
+    @Test
+    @DisplayName("Deve entregar os eventos publicados a partir do offset informado")
+    void deveEntregarEventosAPartirDoOffset() throws Exception {
+
+        UsuarioRequestDTO request = new UsuarioRequestDTO();
+        request.setNome("Edu");
+        request.setEmail("edu@gmail.com");
+        request.setSenha("123456");
+
+        String corpo = mockMvc.perform(post("/usuarios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(corpo).get("id").asLong();
+
+        mockMvc.perform(delete("/usuarios/" + id))
+                .andExpect(status().isNoContent());
+
+        relay.publicarPendentes();
+
+        MvcResult primeiro = mockMvc.perform(get("/usuarios/eventos").param("desde", "0").param("espera", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String lote = mockMvc.perform(asyncDispatch(primeiro))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventos[-2].tipo").value("CRIADO"))
+                .andExpect(jsonPath("$.eventos[-2].usuarioId").value(id))
+                .andExpect(jsonPath("$.eventos[-1].tipo").value("REMOVIDO"))
+                .andReturn().getResponse().getContentAsString();
+        // A remoção avança a versão: o consumidor consegue ordená-la depois da criação
+        JsonNode eventos = objectMapper.readTree(lote).get("eventos");
+        assertEquals(eventos.get(eventos.size() - 2).get("versao").asLong() + 1,
+                eventos.get(eventos.size() - 1).get("versao").asLong());
+        long proximo = objectMapper.readTree(lote).get("proximo").asLong();
+
+        // Nada novo depois do último offset: volta vazio sem esperar
+        MvcResult segundo = mockMvc.perform(get("/usuarios/eventos")
+                        .param("desde", String.valueOf(proximo)).param("espera", "0"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(segundo))
+                .andExpect(jsonPath("$.eventos").isEmpty())
+                .andExpect(jsonPath("$.proximo").value(proximo));
+    }
+
     // ================================
     // DELETE
     // ================================
@@ -137,6 +653,40 @@ class UsuarioControllerTesteIntegracao {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @DisplayName("Deve esconder o usuário removido, liberar o email e apagá-lo no expurgo")
+    void deveRemoverLogicamenteEExpurgarDepois() throws Exception {
+
+        Usuario usuario = repository.save(
+                new Usuario("Lucas", "lucas@gmail.com", "123456", Role.CLIENTE)
+        );
+
+        mockMvc.perform(delete("/usuarios/" + usuario.getId()))
+                .andExpect(status().isNoContent());
+
+        // A linha continua no banco, mas nenhuma leitura a enxerga
+        mockMvc.perform(get("/usuarios/" + usuario.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/usuarios/" + usuario.getId()))
+                .andExpect(status().isNotFound());
+        assertEquals(1, repository.contarDeletados());
+
+        // O email de um usuário removido pode ser cadastrado de novo
+        UsuarioRequestDTO request = new UsuarioRequestDTO();
+        request.setNome("Lucas");
+        request.setEmail("lucas@gmail.com");
+        request.setSenha("123456");
+
+        mockMvc.perform(post("/usuarios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        assertEquals(1, repository.expurgarDeletadosAntesDe("usuarios", LocalDateTime.now().plusMinutes(1), 100));
+        assertEquals(0, repository.contarDeletados());
+        assertTrue(repository.findByEmail("lucas@gmail.com").isPresent());
+    }
+
     // ================================
     // EMAIL DUPLICADO (409)
     // ================================
@@ -144,7 +694,7 @@ class UsuarioControllerTesteIntegracao {
     @DisplayName("Deve retornar 409 quando email já existe")
     void deveRetornar409QuandoEmailJaExiste() throws Exception {
 
-        repository.save(new Usuario("Carlos", "carlos@gmail.com", "123456", Role.CLIENTE));
+        salvar(new Usuario("Carlos", "carlos@gmail.com", "123456", Role.CLIENTE));
 
         UsuarioRequestDTO request = new UsuarioRequestDTO();
         request.setNome("Carlos 2");
@@ -159,6 +709,25 @@ class UsuarioControllerTesteIntegracao {
                 .andExpect(jsonPath("$.erro").value("Conflict"));
     }
 
+    @Test
+    @DisplayName("Deve retornar 409 ao atualizar com email de outro usuário")
+    void deveRetornar409AoAtualizarComEmailDeOutroUsuario() throws Exception {
+
+        salvar(new Usuario("Rita", "rita@gmail.com", "123456", Role.CLIENTE));
+        Usuario usuario = salvar(new Usuario("Rui", "rui@gmail.com", "123456", Role.CLIENTE));
+
+        UsuarioRequestDTO request = new UsuarioRequestDTO();
+        request.setNome("Rui");
+        request.setEmail("rita@gmail.com");
+        request.setSenha("123456");
+
+        mockMvc.perform(put("/usuarios/" + usuario.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.mensagem").value("Email já cadastrado."));
+    }
+
     // ================================
     // VALIDAÇÃO (400)
     // ================================
@@ -178,4 +747,12 @@ class UsuarioControllerTesteIntegracao {
                 .andExpect(jsonPath("$.status").value(400))
                 .andExpect(jsonPath("$.erro").value("Bad Request"));
     }
-}
\ No newline at end of file
+
+    // Grava direto pelo repositório, registrando o email no diretório como o UsuarioService faz;
+    // necessário quando o teste depende da unicidade ou da busca por email
+    private Usuario salvar(Usuario usuario) {
+        Usuario salvo = repository.saveAndFlush(usuario);
+        repository.registrarEmails(List.of(salvo));
+        return salvo;
+    }
+}
@@ -0,0 +1,103 @@
+package com.projetoapi.excecoes;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializadorDeErroTesteUnitario {
+
+    // Relógio fixo para o horário ser previsível
+    private final Clock clock = Clock.fixed(Instant.parse("2026-02-17T18:00:00.750Z"), ZoneOffset.UTC);
+
+    private final SerializadorDeErro serializador = new SerializadorDeErro(clock);
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void deveGerarMesmoFormatoDeRespostaDeErro() {
+        byte[] corpo = serializador.serializar(HttpStatus.NOT_FOUND, "Usuario não encontrado.", "/usuarios/10");
+
+        JsonNode json = jsonMapper.readTree(corpo);
+
+        // Mesmos campos e valores que o Jackson escreveria para RespostaDeErro
+        assertEquals("2026-02-17T18:00:00.75", json.get("dataHora").asString());
+        assertEquals(404, json.get("status").asInt());
+        assertEquals("Not Found", json.get("erro").asString());
+        assertEquals("Usuario não encontrado.", json.get("mensagem").asString());
+        assertEquals("/usuarios/10", json.get("caminho").asString());
+    }
+
+    @Test
+    void deveEscaparCaracteresEspeciaisDaMensagem() {
+        String mensagem = "aspas \" barra \\ quebra\n emoji 😀 ç";
+
+        byte[] corpo = serializador.serializar(HttpStatus.BAD_REQUEST, mensagem, "/usuarios");
+
+        // O JSON continua válido e o texto volta idêntico após a leitura
+        assertEquals(mensagem, jsonMapper.readTree(corpo).get("mensagem").asString());
+    }
+
+    @Test
+    void chamadasSeguidasNaoDevemMisturarConteudo() {
+        serializador.serializar(HttpStatus.CONFLICT, "mensagem bem mais longa que a próxima", "/usuarios");
+
+        byte[] corpo = serializador.serializar(HttpStatus.CONFLICT, "curta", "/u");
+
+        JsonNode json = jsonMapper.readTree(corpo);
+        assertEquals("curta", json.get("mensagem").asString());
+        assertEquals("/u", json.get("caminho").asString());
+    }
+
+    @Test
+    void deveManterAPrecisaoDeSubsegundoDoLocalDateTime() {
+        // Mesmo segundo, frações diferentes: o trecho até os segundos é reaproveitado, a fração não
+        Instant[] instantes = {
+                Instant.parse("2026-02-17T18:00:00Z"),
+                Instant.parse("2026-02-17T18:00:00.000123400Z"),
+                Instant.parse("2026-02-17T18:00:00.999999999Z"),
+                Instant.parse("2026-02-17T18:00:01.100Z")
+        };
+        RelogioManual relogio = new RelogioManual();
+        SerializadorDeErro serializador = new SerializadorDeErro(relogio);
+
+        for (Instant instante : instantes) {
+            relogio.agora = instante;
+            JsonNode json = jsonMapper.readTree(serializador.serializar(HttpStatus.NOT_FOUND, "m", "/c"));
+
+            // Igual ao que o Jackson escrevia para o LocalDateTime.now() de RespostaDeErro
+            String esperado = jsonMapper.valueToTree(LocalDateTime.ofInstant(instante, ZoneOffset.UTC)).asString();
+            assertEquals(esperado, json.get("dataHora").asString());
+        }
+        assertEquals("2026-02-17T18:00:00.0001234",
+                jsonMapper.valueToTree(LocalDateTime.ofInstant(instantes[1], ZoneOffset.UTC)).asString());
+    }
+
+    private static final class RelogioManual extends Clock {
+
+        private Instant agora;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zona) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.projetoapi.repositorios;
+
+import com.projetoapi.dto.UsuarioRequestDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.ObjectMapper;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Dois bancos H2 fazem o papel de primário e réplica. Não há replicação entre eles:
+// o teste copia o esquema e grava na réplica uma versão diferente do mesmo usuário,
+// o que torna visível de qual banco cada leitura veio.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primario-roteamento;DB_CLOSE_DELAY=-1",
+        "usuarios.replicas.habilitado=true",
+        "usuarios.replicas.urls=jdbc:h2:mem:replica-roteamento;DB_CLOSE_DELAY=-1",
+        "usuarios.replicas.consulta-atraso=select 0",
+        "usuarios.replicas.intervalo-verificacao-ms=3600000",
+        "usuarios.cliente.cabecalho=X-Cliente",
+        "usuarios.limite.habilitado=false",
+        "usuarios.senha.bcrypt-custo=4"
+})
+@AutoConfigureMockMvc(addFilters = false)
+class RoteamentoDeLeituraTesteIntegracao {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RoteadorDeDataSource roteador;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate primario;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void prepararReplica() {
+        Map<Object, DataSource> bancos = roteador.getResolvedDataSources();
+        primario = new JdbcTemplate(bancos.get(RoteadorDeDataSource.PRIMARIO));
+        replica = new JdbcTemplate(bancos.get("replica-1"));
+
+        // Copia o esquema criado pelo Hibernate no primário (uma vez por contexto)
+        Integer tabelas = replica.queryForObject(
+                "select count(*) from information_schema.tables where table_name = 'USUARIOS'", Integer.class);
+        if (tabelas == 0) {
+            primario.queryForList("script nodata", String.class).forEach(replica::execute);
+        }
+
+        roteador.verificarReplicas();
+    }
+
+    @Test
+    @DisplayName("Deve ler da réplica e mandar ao primário as leituras de quem acabou de escrever")
+    void deveRotearLeiturasEGarantirLeituraDasPropriasEscritas() throws Exception {
+
+        UsuarioRequestDTO request = new UsuarioRequestDTO();
+        request.setNome("Primario");
+        request.setEmail("roteamento@gmail.com");
+        request.setSenha("123456");
+
+        String corpo = mockMvc.perform(post("/usuarios")
+                        .header("X-Cliente", "escritor")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(corpo).get("id").asLong();
+
+        // "Replicação" da linha com outro nome, para identificar a origem da leitura
+        Map<String, Object> linha = primario.queryForMap("select * from usuarios where id = ?", id);
+        replica.update("insert into usuarios (id, nome, email, senha, role, data_criacao, data_atualizacao, versao) "
+                        + "values (?, 'Replica', ?, ?, ?, ?, ?, ?)",
+                id, linha.get("EMAIL"), linha.get("SENHA"), linha.get("ROLE"),
+                linha.get("DATA_CRIACAO"), linha.get("DATA_ATUALIZACAO"), linha.get("VERSAO"));
+
+        // Quem não escreveu lê da réplica
+        mockMvc.perform(get("/usuarios").param("limite", "500").header("X-Cliente", "leitor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[?(@.id == " + id + ")].nome").value("Replica"));
+
+        // Quem escreveu continua lendo do primário dentro da janela
+        mockMvc.perform(get("/usuarios").param("limite", "500").header("X-Cliente", "escritor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[?(@.id == " + id + ")].nome").value("Primario"));
+
+        assertTrue(meterRegistry.get("usuarios.datasource.roteamento")
+                .tags("destino", "replica-1", "motivo", "leitura").counter().count() >= 1);
+        assertTrue(meterRegistry.get("usuarios.datasource.roteamento")
+                .tags("destino", "primario", "motivo", "leitura-apos-escrita").counter().count() >= 1);
+    }
+}
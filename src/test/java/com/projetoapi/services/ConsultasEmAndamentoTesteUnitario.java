@@ -0,0 +1,168 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dto.UsuarioResponseDTO;
+import com.projetoapi.excecoes.UsuarioNaoEncontradoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsultasEmAndamentoTesteUnitario {
+
+    private static final int BUSCAS = 8;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConsultasEmAndamento consultas;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void configurar() {
+        meterRegistry = new SimpleMeterRegistry();
+        consultas = new ConsultasEmAndamento(meterRegistry);
+        executor = Executors.newFixedThreadPool(BUSCAS);
+    }
+
+    @AfterEach
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private static UsuarioResponseDTO usuario(String nome) {
+        return new UsuarioResponseDTO(1L, nome, "ana@gmail.com", "CLIENTE", null);
+    }
+
+    private double economizadas(String chave) {
+        return meterRegistry.get("usuarios.consultas.economizadas").tag("chave", chave).counter().count();
+    }
+
+    // Espera as buscas chegarem à consulta em andamento (o contador sobe antes de elas aguardarem)
+    private void aguardarEconomizadas(String chave, int quantidade) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (economizadas(chave) < quantidade) {
+            assertTrue(System.nanoTime() < limite, "As buscas não se juntaram à consulta em andamento");
+            Thread.sleep(5);
+        }
+    }
+
+    // Consulta que só termina quando a liberacao é aberta
+    private static Supplier<UsuarioResponseDTO> consultaPresa(CountDownLatch iniciada, CountDownLatch liberacao,
+                                                            AtomicInteger execucoes, UsuarioResponseDTO resultado) {
+        return () -> {
+            execucoes.incrementAndGet();
+            iniciada.countDown();
+            try {
+                liberacao.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return resultado;
+        };
+    }
+
+    @Test
+    void deveCompartilharUmaConsultaEntreBuscasSimultaneas() throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberacao = new CountDownLatch(1);
+        AtomicInteger execucoes = new AtomicInteger();
+        List<UsuarioResponseDTO> guardados = new CopyOnWriteArrayList<>();
+        Supplier<UsuarioResponseDTO> consulta = consultaPresa(iniciada, liberacao, execucoes, usuario("Ana"));
+
+        List<Future<UsuarioResponseDTO>> resultados = new ArrayList<>();
+        resultados.add(executor.submit(() -> consultas.buscarPorId(1L, consulta, guardados::add)));
+        iniciada.await();
+        for (int i = 1; i < BUSCAS; i++) {
+            resultados.add(executor.submit(() -> consultas.buscarPorId(1L, consulta, guardados::add)));
+        }
+        aguardarEconomizadas("id", BUSCAS - 1);
+        liberacao.countDown();
+
+        UsuarioResponseDTO primeiro = resultados.getFirst().get(10, TimeUnit.SECONDS);
+        for (Future<UsuarioResponseDTO> resultado : resultados) {
+            assertSame(primeiro, resultado.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, execucoes.get());
+        assertEquals(List.of(primeiro), guardados);
+        assertEquals(BUSCAS - 1, economizadas("id"));
+        assertEquals(0, economizadas("email"));
+    }
+
+    @Test
+    void deveRepassarAMesmaExcecaoParaTodasAsBuscas() throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberacao = new CountDownLatch(1);
+        UsuarioNaoEncontradoException naoEncontrado = new UsuarioNaoEncontradoException("Usuario não encontrado");
+        Supplier<UsuarioResponseDTO> consulta = () -> {
+            iniciada.countDown();
+            try {
+                liberacao.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw naoEncontrado;
+        };
+
+        Future<UsuarioResponseDTO> primeira = executor.submit(
+                () -> consultas.buscarPorEmail("ana@gmail.com", consulta, usuario -> fail("Não deve guardar")));
+        iniciada.await();
+        Future<UsuarioResponseDTO> segunda = executor.submit(
+                () -> consultas.buscarPorEmail("ana@gmail.com", consulta, usuario -> fail("Não deve guardar")));
+        aguardarEconomizadas("email", 1);
+        liberacao.countDown();
+
+        for (Future<UsuarioResponseDTO> busca : List.of(primeira, segunda)) {
+            ExecutionException erro = assertThrows(ExecutionException.class, () -> busca.get(10, TimeUnit.SECONDS));
+            assertSame(naoEncontrado, erro.getCause());
+        }
+
+        // Concluída a consulta, a próxima busca vai ao banco de novo
+        assertEquals("Ana", consultas.buscarPorEmail("ana@gmail.com", () -> usuario("Ana"), usuario -> { }).getNome());
+    }
+
+    @Test
+    void escritaDuranteAConsultaDeveIniciarUmaConsultaNovaSemGuardarAAntiga() throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberacao = new CountDownLatch(1);
+        AtomicInteger execucoes = new AtomicInteger();
+        List<UsuarioResponseDTO> guardados = new CopyOnWriteArrayList<>();
+
+        Future<UsuarioResponseDTO> anterior = executor.submit(() -> consultas.buscarPorId(1L,
+                consultaPresa(iniciada, liberacao, execucoes, usuario("Ana")), guardados::add));
+        iniciada.await();
+
+        consultas.invalidar(1L, "ana@gmail.com", "ana.souza@gmail.com");
+        UsuarioResponseDTO posterior = consultas.buscarPorId(1L, () -> usuario("Ana Souza"), guardados::add);
+        liberacao.countDown();
+
+        assertEquals("Ana Souza", posterior.getNome());
+        assertEquals("Ana", anterior.get(10, TimeUnit.SECONDS).getNome());
+        assertEquals(List.of(posterior), guardados);
+        assertEquals(0, economizadas("id"));
+    }
+
+    @Test
+    void remocaoDeveDescartarAsBuscasPorEmailEmAndamento() throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberacao = new CountDownLatch(1);
+        AtomicInteger execucoes = new AtomicInteger();
+
+        Future<UsuarioResponseDTO> anterior = executor.submit(() -> consultas.buscarPorEmail("ana@gmail.com",
+                consultaPresa(iniciada, liberacao, execucoes, usuario("Ana")), usuario -> { }));
+        iniciada.await();
+
+        consultas.invalidarEmails();
+        assertThrows(UsuarioNaoEncontradoException.class, () -> consultas.buscarPorEmail("ana@gmail.com",
+                () -> { throw new UsuarioNaoEncontradoException("Usuario não encontrado"); }, usuario -> { }));
+        liberacao.countDown();
+
+        assertEquals("Ana", anterior.get(10, TimeUnit.SECONDS).getNome());
+        assertEquals(1, execucoes.get());
+    }
+}
@@ -0,0 +1,62 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dominio.TipoEventoUsuario;
+import com.projetoapi.dto.EventoUsuarioDTO;
+import com.projetoapi.dto.LoteEventosDTO;
+import com.projetoapi.repositorios.EventoUsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventosUsuarioServiceTesteUnitario {
+
+    @Mock
+    private EventoUsuarioRepository eventoRepository;
+
+    @InjectMocks
+    private EventosUsuarioService eventosService;
+
+    private EventoUsuarioDTO evento(long posicao) {
+        return new EventoUsuarioDTO(posicao, TipoEventoUsuario.ATUALIZADO, 7L, posicao, LocalDateTime.now());
+    }
+
+    @Test
+    void deveAtenderEsperaQuandoUmLoteEPublicado() throws Exception {
+        // Nada no banco após a posição 10
+        when(eventoRepository.findByPosicaoGreaterThanOrderByPosicaoAsc(eq(10L), any())).thenReturn(List.of());
+
+        CompletableFuture<LoteEventosDTO> resultado = eventosService.aguardar(10L, 100, Duration.ofSeconds(30));
+        assertFalse(resultado.isDone());
+
+        // O lote publicado contém uma posição já vista pelo cliente
+        eventosService.aoPublicar(new PublicadorDeEventosLocal.LotePublicado(List.of(evento(10), evento(11), evento(12))));
+
+        LoteEventosDTO lote = resultado.get(1, TimeUnit.SECONDS);
+        assertEquals(List.of(11L, 12L), lote.getEventos().stream().map(EventoUsuarioDTO::getPosicao).toList());
+        assertEquals(12L, lote.getProximo());
+    }
+
+    @Test
+    void deveResponderVazioAoFimDaEspera() throws Exception {
+        when(eventoRepository.findByPosicaoGreaterThanOrderByPosicaoAsc(eq(3L), any())).thenReturn(List.of());
+
+        LoteEventosDTO lote = eventosService.aguardar(3L, 100, Duration.ofMillis(50)).get(1, TimeUnit.SECONDS);
+
+        assertTrue(lote.getEventos().isEmpty());
+        assertEquals(3L, lote.getProximo());
+    }
+}
@@ -0,0 +1,162 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dto.FormatoExportacao;
+import com.projetoapi.dto.UsuarioResponseDTO;
+import com.projetoapi.repositorios.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class ExportacaoDeUsuariosTesteUnitario {
+
+    private static final Clock RELOGIO = Clock.fixed(Instant.parse("2026-01-10T03:00:00Z"), ZoneOffset.UTC);
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().build();
+    private static final int USUARIOS = 10;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @TempDir
+    private Path diretorio;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void configurar() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private ExportacaoDeUsuarios exportacao(FormatoExportacao formato, boolean gzip) {
+        return new ExportacaoDeUsuarios(usuarioRepository, OBJECT_MAPPER, diretorio, formato, gzip, 100, 3,
+                meterRegistry, RELOGIO);
+    }
+
+    private static UsuarioResponseDTO usuario(long id) {
+        return new UsuarioResponseDTO(id, "Usuario " + id, "usuario" + id + "@gmail.com", "CLIENTE",
+                LocalDateTime.of(2026, 1, 1, 12, 0));
+    }
+
+    private static String linhaCsv(long id) {
+        return id + ",Usuario " + id + ",usuario" + id + "@gmail.com,CLIENTE,2026-01-01T12:00\n";
+    }
+
+    // Simula o cursor do banco: usuários 1..10 com id > apos; falhaApos > 0 derruba a leitura
+    // depois de entregar essa quantidade de linhas
+    private void cursor(int falhaApos) {
+        doAnswer(invocacao -> {
+            long apos = invocacao.getArgument(0);
+            Consumer<UsuarioResponseDTO> consumidor = invocacao.getArgument(2);
+            int entregues = 0;
+            for (long id = apos + 1; id <= USUARIOS; id++) {
+                if (falhaApos > 0 && entregues == falhaApos) {
+                    throw new IllegalStateException("Conexão perdida");
+                }
+                consumidor.accept(usuario(id));
+                entregues++;
+            }
+            return null;
+        }).when(usuarioRepository).percorrerParaExportacao(anyLong(), anyInt(), any());
+    }
+
+    private static String lerGzip(Path arquivo) throws IOException {
+        try (InputStream entrada = new GZIPInputStream(Files.newInputStream(arquivo))) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void deveRetomarDoUltimoBlocoConcluidoAposInterrupcao() throws IOException {
+        ExportacaoDeUsuarios exportacao = exportacao(FormatoExportacao.CSV, true);
+
+        // Cai na 8ª linha: os blocos 1-3 e 4-6 já estão no disco, a linha 7 não
+        cursor(7);
+        assertThrows(IllegalStateException.class, exportacao::exportarParaArquivo);
+        assertEquals("6 6", Files.readString(diretorio.resolve("usuarios.csv.gz.progresso")).substring(0, 3));
+        assertTrue(Files.exists(diretorio.resolve("usuarios.csv.gz.parcial")));
+
+        cursor(0);
+        ExportacaoDeUsuarios.ResultadoExportacao resultado = exportacao.exportarParaArquivo();
+
+        assertTrue(resultado.retomada());
+        assertEquals(4, resultado.linhas());
+        assertEquals(USUARIOS, resultado.ultimoId());
+        String esperado = EscritorDeExportacao.CABECALHO_CSV + LongStream.rangeClosed(1, USUARIOS)
+                .mapToObj(ExportacaoDeUsuariosTesteUnitario::linhaCsv)
+                .collect(Collectors.joining());
+        assertEquals(esperado, lerGzip(diretorio.resolve("usuarios-2026-01-10.csv.gz")));
+        assertFalse(Files.exists(diretorio.resolve("usuarios.csv.gz.parcial")));
+        assertFalse(Files.exists(diretorio.resolve("usuarios.csv.gz.progresso")));
+        assertEquals(11, meterRegistry.get("usuarios.exportacao.linhas").tag("destino", "arquivo").counter().count());
+    }
+
+    @Test
+    void interrupcaoAntesDoPrimeiroBlocoDeveRecomecarDoZero() throws IOException {
+        ExportacaoDeUsuarios exportacao = exportacao(FormatoExportacao.NDJSON, false);
+
+        cursor(2);
+        assertThrows(IllegalStateException.class, exportacao::exportarParaArquivo);
+        assertFalse(Files.exists(diretorio.resolve("usuarios.ndjson.progresso")));
+
+        cursor(0);
+        ExportacaoDeUsuarios.ResultadoExportacao resultado = exportacao.exportarParaArquivo();
+
+        assertFalse(resultado.retomada());
+        List<String> linhas = Files.readAllLines(diretorio.resolve("usuarios-2026-01-10.ndjson"));
+        assertEquals(USUARIOS, linhas.size());
+        for (int i = 0; i < USUARIOS; i++) {
+            JsonNode usuario = OBJECT_MAPPER.readTree(linhas.get(i));
+            assertEquals(i + 1, usuario.get("id").asLong());
+            assertEquals("usuario" + (i + 1) + "@gmail.com", usuario.get("email").asString());
+        }
+    }
+
+    @Test
+    void deveExportarParaARespostaSemCabecalhoNaRetomadaEComAspasNoCsv() {
+        doAnswer(invocacao -> {
+            Consumer<UsuarioResponseDTO> consumidor = invocacao.getArgument(2);
+            consumidor.accept(new UsuarioResponseDTO(8L, "Silva, \"Zé\"", "ze@gmail.com", "ADMIN", null));
+            return null;
+        }).when(usuarioRepository).percorrerParaExportacao(anyLong(), anyInt(), any());
+
+        ByteArrayOutputStream resposta = new ByteArrayOutputStream();
+        ExportacaoDeUsuarios.ResultadoExportacao resultado = exportacao(FormatoExportacao.CSV, true)
+                .exportar(FormatoExportacao.CSV, 7, Channels.newChannel(resposta));
+
+        // Mesmo com gzip configurado para o arquivo, a resposta sai sem compressão
+        assertEquals("8,\"Silva, \"\"Zé\"\"\",ze@gmail.com,ADMIN,\n", resposta.toString(StandardCharsets.UTF_8));
+        assertEquals(1, resultado.linhas());
+        assertEquals(8, resultado.ultimoId());
+        assertTrue(resultado.retomada());
+    }
+}
@@ -0,0 +1,97 @@
+package com.projetoapi.services;
+
+import com.projetoapi.repositorios.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExpurgoDeUsuariosTesteUnitario {
+
+    private static final Clock RELOGIO = Clock.fixed(Instant.parse("2026-01-10T03:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDateTime AGORA = LocalDateTime.now(RELOGIO);
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager; // Transações sem efeito nos testes unitários
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void configurar() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private ExpurgoDeUsuarios expurgo(Duration duracaoMaxima) {
+        return new ExpurgoDeUsuarios(usuarioRepository, transactionManager, 100, Duration.ofDays(1),
+                duracaoMaxima, Duration.ZERO, meterRegistry, RELOGIO);
+    }
+
+    @Test
+    void deveExpurgarEmLotesAteSobrarLoteIncompleto() {
+        when(usuarioRepository.listarParticoes()).thenReturn(List.of("usuarios"));
+        when(usuarioRepository.expurgarDeletadosAntesDe("usuarios", AGORA.minusDays(1), 100)).thenReturn(100, 100, 30);
+
+        expurgo(Duration.ofMinutes(1)).expurgar();
+
+        verify(usuarioRepository, times(3)).expurgarDeletadosAntesDe("usuarios", AGORA.minusDays(1), 100);
+        assertEquals(230, meterRegistry.get("usuarios.expurgo.removidos").counter().count());
+        assertEquals(3, meterRegistry.get("usuarios.expurgo.lote").timer().count());
+    }
+
+    @Test
+    void deveExpurgarCadaParticaoEmSequencia() {
+        when(usuarioRepository.listarParticoes()).thenReturn(List.of("usuarios_p0", "usuarios_p1"));
+        when(usuarioRepository.expurgarDeletadosAntesDe(eq("usuarios_p0"), any(), eq(100))).thenReturn(100, 10);
+        when(usuarioRepository.expurgarDeletadosAntesDe(eq("usuarios_p1"), any(), eq(100))).thenReturn(0);
+
+        expurgo(Duration.ofMinutes(1)).expurgar();
+
+        verify(usuarioRepository, times(2)).expurgarDeletadosAntesDe(eq("usuarios_p0"), any(), eq(100));
+        verify(usuarioRepository, times(1)).expurgarDeletadosAntesDe(eq("usuarios_p1"), any(), eq(100));
+        assertEquals(110, meterRegistry.get("usuarios.expurgo.removidos").counter().count());
+    }
+
+    @Test
+    void devePararAoEsgotarDuracaoMaxima() {
+        // Sempre há mais pendentes, mas a rodada não tem tempo para um segundo lote nem outra partição
+        when(usuarioRepository.listarParticoes()).thenReturn(List.of("usuarios_p0", "usuarios_p1"));
+        when(usuarioRepository.expurgarDeletadosAntesDe(any(), any(), eq(100))).thenReturn(100);
+
+        expurgo(Duration.ZERO).expurgar();
+
+        verify(usuarioRepository, times(1)).expurgarDeletadosAntesDe(any(), any(), eq(100));
+    }
+
+    @Test
+    void deveExporPendentesEAtraso() {
+        when(usuarioRepository.contarDeletados()).thenReturn(42L);
+        when(usuarioRepository.findDeletadoMaisAntigo()).thenReturn(Optional.of(AGORA.minusHours(2)));
+
+        expurgo(Duration.ofMinutes(1)).medirPendentes();
+
+        assertEquals(42, meterRegistry.get("usuarios.expurgo.pendentes").gauge().value());
+        assertEquals(7200, meterRegistry.get("usuarios.expurgo.atraso").gauge().value());
+    }
+}
@@ -0,0 +1,112 @@
+package com.projetoapi.services;
+
+import com.projetoapi.repositorios.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FiltroDeEmailsTesteUnitario {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager; // Transações sem efeito nos testes unitários
+
+    private SimpleMeterRegistry meterRegistry;
+    private FiltroDeEmails filtro;
+
+    // Consultas que chegaram ao "banco", para saber quando o filtro evitou a ida
+    private final List<String> consultados = new ArrayList<>();
+
+    @BeforeEach
+    void configurar() {
+        meterRegistry = new SimpleMeterRegistry();
+        filtro = new FiltroDeEmails(usuarioRepository, transactionManager, true, 1000, 0.01, meterRegistry);
+    }
+
+    private void construirCom(String... emails) {
+        when(usuarioRepository.count()).thenReturn((long) emails.length);
+        when(usuarioRepository.streamEmails()).thenReturn(Stream.of(emails));
+        filtro.reconstruir();
+    }
+
+    private boolean noBanco(String email, Set<String> cadastrados) {
+        consultados.add(email);
+        return cadastrados.contains(email);
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.get("usuarios.emails.filtro").tag("resultado", resultado).counter().count();
+    }
+
+    @Test
+    void deveConsultarBancoEnquantoFiltroNaoFoiConstruido() {
+        assertTrue(filtro.existe("ana@gmail.com", email -> noBanco(email, Set.of("ana@gmail.com"))));
+        assertEquals(List.of("ana@gmail.com"), consultados);
+    }
+
+    @Test
+    void deveEvitarConsultaParaEmailAusente() {
+        construirCom("ana@gmail.com", "bia@gmail.com");
+
+        assertFalse(filtro.existe("carlos@gmail.com", email -> noBanco(email, Set.of())));
+        assertTrue(consultados.isEmpty());
+        assertEquals(1, contador("ausente"));
+    }
+
+    @Test
+    void deveConfirmarNoBancoEmailQueTalvezExista() {
+        construirCom("ana@gmail.com");
+
+        assertTrue(filtro.existe("ana@gmail.com", email -> noBanco(email, Set.of("ana@gmail.com"))));
+        assertEquals(List.of("ana@gmail.com"), consultados);
+        assertEquals(1, contador("confirmado"));
+    }
+
+    @Test
+    void deveContarFalsoPositivoQuandoBancoNaoConfirma() {
+        construirCom("ana@gmail.com");
+
+        // Email removido depois da construção: continua no filtro até a próxima reconstrução
+        assertFalse(filtro.existe("ana@gmail.com", email -> noBanco(email, Set.of())));
+        assertEquals(1, contador("falso-positivo"));
+    }
+
+    @Test
+    void deveConsiderarEmailRegistradoAposConstrucao() {
+        construirCom();
+        filtro.registrar("novo@gmail.com");
+
+        assertTrue(filtro.existe("novo@gmail.com", email -> noBanco(email, Set.of("novo@gmail.com"))));
+        assertEquals(List.of("novo@gmail.com"), consultados);
+    }
+
+    @Test
+    void deveManterTaxaDeFalsoPositivoProximaDaConfigurada() {
+        FiltroBloom bloom = new FiltroBloom(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> bloom.adicionar("usuario" + i + "@gmail.com"));
+
+        long falsos = IntStream.range(0, 100_000)
+                .filter(i -> bloom.talvezContenha("outro" + i + "@gmail.com"))
+                .count();
+
+        // Nenhum falso negativo e taxa observada na ordem da configurada
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> bloom.talvezContenha("usuario" + i + "@gmail.com")));
+        assertTrue(falsos / 100_000.0 < 0.02, "taxa observada: " + falsos / 100_000.0);
+    }
+}
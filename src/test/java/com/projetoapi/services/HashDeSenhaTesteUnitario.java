@@ -0,0 +1,98 @@
+package com.projetoapi.services;
+
+import com.projetoapi.excecoes.ServicoSobrecarregadoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashDeSenhaTesteUnitario {
+
+    private HashDeSenha hashDeSenha;
+
+    @AfterEach
+    void encerrar() {
+        if (hashDeSenha != null) {
+            hashDeSenha.encerrar();
+        }
+    }
+
+    @Test
+    void deveGerarHashQueConfereComASenha() {
+        hashDeSenha = new HashDeSenha(4, 1, 1, Duration.ofSeconds(5));
+
+        String hash = hashDeSenha.gerar("123456");
+
+        // O hash nunca é a própria senha e deve ser verificável
+        assertNotEquals("123456", hash);
+        assertTrue(hashDeSenha.confere("123456", hash));
+        assertFalse(hashDeSenha.confere("654321", hash));
+    }
+
+    @Test
+    void deveRejeitarQuandoExecutorEFilaEstaoCheios() throws Exception {
+        // 1 thread e fila de 1: com custo alto, a terceira chamada simultânea não tem vaga
+        hashDeSenha = new HashDeSenha(13, 1, 1, Duration.ofSeconds(30));
+
+        ExecutorService clientes = Executors.newFixedThreadPool(3);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> chamadas = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            chamadas.add(clientes.submit(() -> {
+                largada.await();
+                return hashDeSenha.gerar("123456");
+            }));
+        }
+        largada.countDown();
+
+        int rejeitadas = 0;
+        for (Future<?> chamada : chamadas) {
+            try {
+                chamada.get(60, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertInstanceOf(ServicoSobrecarregadoException.class, e.getCause());
+                rejeitadas++;
+            }
+        }
+        clientes.shutdown();
+
+        assertEquals(1, rejeitadas);
+    }
+
+    @Test
+    void loteDeveDeixarUmaThreadParaOsCadastrosIndividuais() throws Exception {
+        // 2 threads e fila de 1: a importação usa só uma, e o lote inteiro cabe sem rejeição
+        hashDeSenha = new HashDeSenha(12, 2, 1, Duration.ofSeconds(30));
+
+        ExecutorService importacao = Executors.newSingleThreadExecutor();
+        Future<List<String>> lote = importacao.submit(() -> hashDeSenha.gerarEmLote(List.of("a", "b", "c", "d")));
+
+        // Com a importação em andamento, um cadastro ainda encontra thread livre
+        Thread.sleep(100);
+        String individual = hashDeSenha.gerar("123456");
+        assertTrue(hashDeSenha.confere("123456", individual));
+
+        List<String> hashes = lote.get(60, TimeUnit.SECONDS);
+        importacao.shutdown();
+
+        assertEquals(4, hashes.size());
+        assertTrue(hashDeSenha.confere("a", hashes.get(0)));
+        assertTrue(hashDeSenha.confere("d", hashes.get(3)));
+    }
+
+    @Test
+    void loteDeveDevolverNullNosItensRecusadosSemLancar() {
+        // Espera máxima curta demais para o custo: cada item é recusado individualmente
+        hashDeSenha = new HashDeSenha(14, 2, 1, Duration.ofMillis(1));
+
+        List<String> hashes = hashDeSenha.gerarEmLote(List.of("a", "b", "c"));
+
+        assertEquals(3, hashes.size());
+        assertTrue(hashes.stream().allMatch(hash -> hash == null));
+    }
+}
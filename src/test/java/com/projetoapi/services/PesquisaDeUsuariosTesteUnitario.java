@@ -0,0 +1,165 @@
+package com.projetoapi.services;
+
+import com.projetoapi.dto.ResultadoPesquisaDTO;
+import com.projetoapi.excecoes.ServicoSobrecarregadoException;
+import com.projetoapi.repositorios.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PesquisaDeUsuariosTesteUnitario {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager; // Transações sem efeito nos testes unitários
+
+    private SimpleMeterRegistry meterRegistry;
+    private PesquisaDeUsuarios pesquisa;
+
+    @BeforeEach
+    void configurar() {
+        meterRegistry = new SimpleMeterRegistry();
+        pesquisa = new PesquisaDeUsuarios(usuarioRepository, transactionManager, true, 0.5, meterRegistry);
+    }
+
+    private static Object[] usuario(long id, String nome, String email) {
+        return new Object[]{id, nome, email};
+    }
+
+    private void construirCom(Object[]... usuarios) {
+        when(usuarioRepository.streamNomesEEmails()).thenReturn(Stream.of(usuarios));
+        pesquisa.reconstruir();
+    }
+
+    private List<Long> ids(String termo) {
+        return pesquisa.pesquisar(termo, PesquisaDeUsuarios.LIMITE_PADRAO).stream()
+                .map(ResultadoPesquisaDTO::getId)
+                .toList();
+    }
+
+    @Test
+    void deveResponderIndisponivelEnquantoIndiceNaoFoiConstruido() {
+        assertThrows(ServicoSobrecarregadoException.class, () -> pesquisa.pesquisar("ana", 10));
+    }
+
+    @Test
+    void deveEncontrarNomeComErroDeDigitacaoEAcento() {
+        construirCom(
+                usuario(1, "Maria Silva", "maria@gmail.com"),
+                usuario(2, "Mario Souza", "mario@gmail.com"),
+                usuario(3, "João Pereira", "jp@gmail.com"));
+
+        List<ResultadoPesquisaDTO> resultado = pesquisa.pesquisar("marai silva", 10);
+
+        assertEquals(1L, resultado.getFirst().getId());
+        assertEquals("Maria Silva", resultado.getFirst().getNome());
+        assertEquals("maria@gmail.com", resultado.getFirst().getEmail());
+        assertEquals(0.75, resultado.getFirst().getRelevancia(), 1e-9);
+
+        assertEquals(List.of(3L), ids("joao pereira"));
+    }
+
+    @Test
+    void deveEncontrarPelaParteLocalDoEmailSemCasarODominio() {
+        construirCom(
+                usuario(1, "Ana", "ana.beatriz@gmail.com"),
+                usuario(2, "Bia", "bia@gmail.com"));
+
+        assertEquals(List.of(1L), ids("beatriz"));
+        assertEquals(List.of(), ids("gmail"));
+    }
+
+    @Test
+    void deveOrdenarPeloMaisParecidoERespeitarOLimite() {
+        construirCom(
+                usuario(1, "Ana Paula Souza", "ana1@gmail.com"),
+                usuario(2, "Ana Paula", "ana2@gmail.com"),
+                usuario(3, "Paula", "paula@gmail.com"));
+
+        // Os dois cobrem o termo inteiro; o nome mais curto é mais parecido
+        assertEquals(List.of(2L, 1L), ids("ana paula").subList(0, 2));
+        assertEquals(1, pesquisa.pesquisar("ana paula", 1).size());
+    }
+
+    @Test
+    void deveRefletirCadastroAtualizacaoERemocao() {
+        construirCom(usuario(1, "Carlos Lima", "carlos@gmail.com"));
+
+        pesquisa.indexar(2L, "Daniela Rocha", "daniela@gmail.com");
+        assertEquals(List.of(2L), ids("daniela"));
+
+        pesquisa.indexar(1L, "Roberto Lima", "roberto@gmail.com");
+        assertEquals(List.of(), ids("carlos"));
+        assertEquals(List.of(1L), ids("roberto lima"));
+
+        pesquisa.remover(2L);
+        assertEquals(List.of(), ids("daniela"));
+
+        assertEquals(1.0, meterRegistry.get("usuarios.pesquisa.indice.usuarios").gauge().value());
+        assertEquals(3.0, meterRegistry.get("usuarios.pesquisa.indice.posicoes").gauge().value());
+    }
+
+    @Test
+    void naoDeveDesfazerEscritasFeitasDuranteAReconstrucao() {
+        construirCom(usuario(1, "Eduardo Reis", "eduardo@gmail.com"));
+
+        // A leitura da tabela devolve versões anteriores às escritas que chegam durante ela
+        when(usuarioRepository.streamNomesEEmails()).thenAnswer(invocacao -> {
+            pesquisa.indexar(1L, "Gustavo Reis", "gustavo@gmail.com");
+            pesquisa.remover(2L);
+            return Stream.of(
+                    usuario(1, "Eduardo Reis", "eduardo@gmail.com"),
+                    usuario(2, "Fabio Nunes", "fabio@gmail.com"));
+        });
+        pesquisa.reconstruir();
+
+        assertEquals(List.of(1L), ids("gustavo"));
+        assertEquals(List.of(), ids("eduardo"));
+        assertEquals(List.of(), ids("fabio nunes"));
+    }
+
+    @Test
+    void atualizacaoQueChegaDepoisDaRemocaoNaoDeveTrazerOUsuarioDeVolta() {
+        construirCom(usuario(1, "Helena Prado", "helena@gmail.com"));
+
+        // PUT confirmado antes do DELETE, mas com o indexar executado depois do remover
+        pesquisa.remover(1L);
+        pesquisa.indexar(1L, "Helena Prado Costa", "helena@gmail.com");
+
+        assertEquals(List.of(), ids("helena prado"));
+        assertEquals(0.0, meterRegistry.get("usuarios.pesquisa.indice.usuarios").gauge().value());
+    }
+
+    @Test
+    void deveCompactarPosicoesNaReconstrucao() {
+        when(usuarioRepository.streamNomesEEmails())
+                .thenAnswer(invocacao -> LongStream.rangeClosed(1, 5000)
+                        .mapToObj(id -> usuario(id, "Usuario " + id, "usuario" + id + "@gmail.com")));
+        pesquisa.reconstruir();
+
+        LongStream.rangeClosed(1, 2500).forEach(id -> pesquisa.remover(id));
+        assertEquals(5000.0, meterRegistry.get("usuarios.pesquisa.indice.posicoes").gauge().value());
+
+        when(usuarioRepository.streamNomesEEmails())
+                .thenAnswer(invocacao -> LongStream.rangeClosed(2501, 5000)
+                        .mapToObj(id -> usuario(id, "Usuario " + id, "usuario" + id + "@gmail.com")));
+        pesquisa.reconstruir();
+
+        assertEquals(2500.0, meterRegistry.get("usuarios.pesquisa.indice.posicoes").gauge().value());
+        assertEquals(4321L, ids("usuario 4321").getFirst());
+    }
+}
@@ -0,0 +1,99 @@
+package com.projetoapi.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TarefasLongasTesteUnitario {
+
+    @Mock
+    private FiltroDeEmails filtroDeEmails;
+
+    @Mock
+    private PesquisaDeUsuarios pesquisaDeUsuarios;
+
+    @Mock
+    private ExpurgoDeUsuarios expurgoDeUsuarios;
+
+    @Mock
+    private ExportacaoDeUsuarios exportacaoDeUsuarios;
+
+    private TarefasLongas tarefas;
+
+    @BeforeEach
+    void configurar() {
+        tarefas = new TarefasLongas(filtroDeEmails, pesquisaDeUsuarios, expurgoDeUsuarios, exportacaoDeUsuarios, 2);
+    }
+
+    @AfterEach
+    void encerrar() {
+        tarefas.encerrar();
+    }
+
+    @Test
+    void disparoDeveVoltarNaHoraEIgnorarATarefaAindaEmAndamento() throws Exception {
+        CountDownLatch iniciado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(invocacao -> {
+            iniciado.countDown();
+            liberar.await();
+            return null;
+        }).when(expurgoDeUsuarios).expurgar();
+
+        // A thread do agendador não fica presa na rodada
+        tarefas.expurgar();
+        assertTrue(iniciado.await(5, TimeUnit.SECONDS));
+        tarefas.expurgar();
+
+        // Outra tarefa longa roda ao lado da que está em andamento
+        tarefas.reconstruirFiltroDeEmails();
+        verify(filtroDeEmails, timeout(5000)).reconstruir();
+
+        liberar.countDown();
+        verify(expurgoDeUsuarios, timeout(5000).times(1)).expurgar();
+
+        // Terminada a rodada, o próximo disparo volta a executar
+        repetirAte(() -> {
+            tarefas.expurgar();
+            verify(expurgoDeUsuarios, timeout(200).atLeast(2)).expurgar();
+        });
+    }
+
+    @Test
+    void falhaNaTarefaNaoDeveImpedirOsProximosDisparos() {
+        doThrow(new IllegalStateException("banco fora")).doNothing().when(filtroDeEmails).reconstruir();
+
+        tarefas.reconstruirFiltroDeEmails();
+        verify(filtroDeEmails, timeout(5000)).reconstruir();
+
+        // A marca de "em andamento" sai no finally; o disparo seguinte executa
+        repetirAte(() -> {
+            tarefas.reconstruirFiltroDeEmails();
+            verify(filtroDeEmails, timeout(200).atLeast(2)).reconstruir();
+        });
+    }
+
+    // A marca de "em andamento" sai logo depois que a tarefa termina: tenta algumas vezes
+    private static void repetirAte(Runnable verificacao) {
+        AssertionError ultima = null;
+        for (int i = 0; i < 25; i++) {
+            try {
+                verificacao.run();
+                return;
+            } catch (AssertionError e) {
+                ultima = e;
+            }
+        }
+        throw ultima;
+    }
+}
@@ -1,20 +1,40 @@
 package com.projetoapi.services;
 
 import com.projetoapi.dominio.Role;
+import com.projetoapi.dominio.TipoEventoUsuario;
 import com.projetoapi.dominio.Usuario;
+import com.projetoapi.dto.AtualizacaoParcialUsuarioDTO;
+import com.projetoapi.dto.ConsultaEmLoteDTO;
+import com.projetoapi.dto.FiltroUsuarioDTO;
+import com.projetoapi.dto.ItemConsultaDTO;
+import com.projetoapi.dto.PaginaDTO;
+import com.projetoapi.dto.SituacaoItemConsulta;
 import com.projetoapi.dto.UsuarioRequestDTO;
 import com.projetoapi.dto.UsuarioResponseDTO;
+import com.projetoapi.excecoes.CursorInvalidoException;
 import com.projetoapi.excecoes.EmailJaCadastradoException;
 import com.projetoapi.excecoes.UsuarioNaoEncontradoException;
+import com.projetoapi.excecoes.VersaoDesatualizadaException;
+import com.projetoapi.repositorios.EventoUsuarioRepository;
 import com.projetoapi.repositorios.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,6 +45,30 @@ class UsuarioServiceTesteUnitario {
     @Mock
     private UsuarioRepository usuarioRepository; // Mock do repository para simular comportamento sem banco real
 
+    @Mock
+    private EventoUsuarioRepository eventoRepository; // Mock do outbox de eventos
+
+    @Mock
+    private PlatformTransactionManager transactionManager; // Transações sem efeito nos testes unitários
+
+    @Mock
+    private UsuarioCache usuarioCache; // Mock do cache; por padrão sempre retorna vazio (miss)
+
+    @Mock
+    private HashDeSenha hashDeSenha; // Mock do hash para não pagar o custo do BCrypt nos testes
+
+    @Mock
+    private FiltroDeEmails filtroDeEmails; // Mock do filtro; por padrão descarta todo email (nunca consulta o banco)
+
+    @Mock
+    private PesquisaDeUsuarios pesquisaDeUsuarios; // Mock do índice de pesquisa em memória
+
+    @Spy
+    private ConsultasEmAndamento consultasEmAndamento = new ConsultasEmAndamento(new SimpleMeterRegistry()); // Agrupamento real de buscas simultâneas
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry(); // Registro real em memória para as métricas
+
     @InjectMocks
     private UsuarioService usuarioService; // Service real com repository mockado injetado
 
@@ -50,11 +94,8 @@ class UsuarioServiceTesteUnitario {
         dto.setEmail("joao@gmail.com");
         dto.setSenha("123456");
 
-        // Mock: Simula que email ainda não existe
-        when(usuarioRepository.existsByEmail(dto.getEmail())).thenReturn(false);
-
         // Mock: Simula que o save retorna o usuário criado
-        when(usuarioRepository.save(any())).thenReturn(criarUsuarioMock());
+        when(usuarioRepository.saveAndFlush(any())).thenReturn(criarUsuarioMock());
 
         // Chama método real do Service
         UsuarioResponseDTO response = usuarioService.cadastrarUsuario(dto);
@@ -64,8 +105,32 @@ class UsuarioServiceTesteUnitario {
         assertEquals("João", response.getNome());
         assertEquals("joao@gmail.com", response.getEmail());
 
-        // Verifica se método save foi chamado
-        verify(usuarioRepository).save(any());
+        // Verifica se método save foi chamado, sem consulta prévia de email
+        verify(usuarioRepository).saveAndFlush(any());
+        verify(usuarioRepository, never()).existsByEmail(any());
+
+        // O email entra no diretório na mesma transação
+        verify(usuarioRepository).registrarEmails(argThat(usuarios -> usuarios.size() == 1));
+
+        // O evento de criação vai para o outbox
+        verify(eventoRepository).save(argThat(evento -> evento.getTipo() == TipoEventoUsuario.CRIADO));
+    }
+
+    @Test
+    void deveGravarHashDaSenhaNoCadastro() {
+        UsuarioRequestDTO dto = new UsuarioRequestDTO();
+        dto.setNome("João");
+        dto.setEmail("joao@gmail.com");
+        dto.setSenha("123456");
+
+        // Mock: Simula o hash gerado pelo executor dedicado
+        when(hashDeSenha.gerar("123456")).thenReturn("$2a$10$hash");
+        when(usuarioRepository.saveAndFlush(any())).thenReturn(criarUsuarioMock());
+
+        usuarioService.cadastrarUsuario(dto);
+
+        // Garante que a senha em texto puro nunca chega ao repositório
+        verify(usuarioRepository).saveAndFlush(argThat(usuario -> "$2a$10$hash".equals(usuario.getSenha())));
     }
 
     @Test
@@ -76,15 +141,45 @@ class UsuarioServiceTesteUnitario {
         dto.setEmail("joao@gmail.com");
         dto.setSenha("123456");
 
-        // Mock: Simula que email já existe no banco
-        when(usuarioRepository.existsByEmail(dto.getEmail())).thenReturn(true);
+        // Mock: Simula a violação da restrição única de email no banco
+        when(usuarioRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_usuarios_email"));
 
-        // Verifica se a exceção EmailJaCadastradoException é lançada
-        assertThrows(EmailJaCadastradoException.class,
+        // Verifica se a violação é propagada para o ManipuladorDeExcecoesGlobal traduzir em 409
+        assertThrows(DataIntegrityViolationException.class,
                 () -> usuarioService.cadastrarUsuario(dto));
+    }
+
+    @Test
+    void deveRecusarEmailDuplicadoSemGerarHash() {
+        UsuarioRequestDTO dto = new UsuarioRequestDTO();
+        dto.setNome("João");
+        dto.setEmail("joao@gmail.com");
+        dto.setSenha("123456");
+
+        // Mock: O filtro não descarta o email e o banco confirma que ele existe
+        when(filtroDeEmails.existe(eq("joao@gmail.com"), any())).thenReturn(true);
 
-        // Garante que save nunca foi chamado
-        verify(usuarioRepository, never()).save(any());
+        assertThrows(EmailJaCadastradoException.class, () -> usuarioService.cadastrarUsuario(dto));
+
+        // Nem o BCrypt nem o INSERT são executados
+        verify(hashDeSenha, never()).gerar(any());
+        verify(usuarioRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void deveRegistrarEmailNoFiltroAposCadastro() {
+        UsuarioRequestDTO dto = new UsuarioRequestDTO();
+        dto.setNome("João");
+        dto.setEmail("joao@gmail.com");
+        dto.setSenha("123456");
+
+        when(usuarioRepository.saveAndFlush(any())).thenReturn(criarUsuarioMock());
+
+        usuarioService.cadastrarUsuario(dto);
+
+        verify(filtroDeEmails).registrar("joao@gmail.com");
+        verify(pesquisaDeUsuarios).indexar(any(), eq("João"), eq("joao@gmail.com"));
     }
 
     // =========================
@@ -104,6 +199,31 @@ class UsuarioServiceTesteUnitario {
         assertEquals("João", response.getNome());
     }
 
+    @Test
+    void deveBuscarUsuarioPorIdNoCacheSemConsultarBanco() {
+        UsuarioResponseDTO emCache = new UsuarioResponseDTO(1L, "João", "joao@gmail.com", "CLIENTE", null);
+
+        // Mock: Simula que o usuário já está no cache
+        when(usuarioCache.buscarPorId(1L)).thenReturn(Optional.of(emCache));
+
+        UsuarioResponseDTO response = usuarioService.buscarPorId(1L);
+
+        // Verifica que o valor veio do cache e o banco não foi consultado
+        assertSame(emCache, response);
+        verify(usuarioRepository, never()).findById(any());
+    }
+
+    @Test
+    void deveGuardarNoCacheAposBuscarNoBanco() {
+        when(usuarioRepository.findById(1L))
+                .thenReturn(Optional.of(criarUsuarioMock()));
+
+        UsuarioResponseDTO response = usuarioService.buscarPorId(1L);
+
+        // Garante que o resultado do banco foi armazenado para as próximas leituras
+        verify(usuarioCache).guardar(response);
+    }
+
     @Test
     void deveLancarExcecaoQuandoUsuarioNaoEncontradoPorId() {
         // Mock: Simula que usuário não existe
@@ -131,6 +251,66 @@ class UsuarioServiceTesteUnitario {
         // Verifica tamanho da lista e dados do primeiro usuário
         assertEquals(1, lista.size());
         assertEquals("João", lista.get(0).getNome());
+
+        // Verifica se a quantidade de linhas lidas foi registrada
+        assertEquals(1, meterRegistry.get("usuarios.listar.linhas").summary().totalAmount());
+    }
+
+    // =========================
+    // LISTAR PAGINADO (CURSOR)
+    // =========================
+
+    @Test
+    void deveRetornarCursorQuandoExisteProximaPagina() {
+        // Mock: Simula que existem mais registros do que o limite pedido
+        when(usuarioRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(criarUsuarioMock(), criarUsuarioMock()));
+
+        // Chama método real
+        PaginaDTO<UsuarioResponseDTO> pagina = usuarioService.listarPagina(null, 1);
+
+        // Apenas o limite pedido é retornado e o cursor aponta para a próxima página
+        assertEquals(1, pagina.getItens().size());
+        assertNotNull(pagina.getProximo());
+    }
+
+    @Test
+    void deveRetornarCursorNuloNaUltimaPagina() {
+        // Mock: Simula que não há registros além do limite
+        when(usuarioRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(11)))
+                .thenReturn(List.of(criarUsuarioMock()));
+
+        PaginaDTO<UsuarioResponseDTO> pagina = usuarioService.listarPagina(null, 10);
+
+        assertEquals(1, pagina.getItens().size());
+        assertNull(pagina.getProximo());
+    }
+
+    @Test
+    void deveBuscarComFiltrosERetornarCursor() {
+        FiltroUsuarioDTO filtro = new FiltroUsuarioDTO();
+        filtro.setRole(Role.ADMIN);
+
+        UsuarioResponseDTO primeiro = new UsuarioResponseDTO(1L, "Ana", "ana@gmail.com", "ADMIN", null);
+        UsuarioResponseDTO segundo = new UsuarioResponseDTO(2L, "Bia", "bia@gmail.com", "ADMIN", null);
+
+        // Mock: Simula mais resultados que o limite
+        when(usuarioRepository.buscar(filtro, 0L, 2)).thenReturn(List.of(primeiro, segundo));
+
+        PaginaDTO<UsuarioResponseDTO> pagina = usuarioService.buscar(filtro, null, 1);
+
+        // Apenas o limite pedido volta e o cursor existe
+        assertEquals(List.of(primeiro), pagina.getItens());
+        assertNotNull(pagina.getProximo());
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoCursorInvalido() {
+        // Verifica se cursor adulterado é rejeitado antes de consultar o banco
+        assertThrows(CursorInvalidoException.class,
+                () -> usuarioService.listarPagina("nao-e-um-cursor", 10));
+
+        verify(usuarioRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
     }
 
     // =========================
@@ -144,7 +324,7 @@ class UsuarioServiceTesteUnitario {
                 .thenReturn(Optional.of(criarUsuarioMock()));
 
         // Chama método real
-        Usuario usuario = usuarioService.buscarPorEmail("joao@gmail.com");
+        UsuarioResponseDTO usuario = usuarioService.buscarPorEmail("joao@gmail.com");
 
         // Verifica se nome do usuário está correto
         assertEquals("João", usuario.getNome());
@@ -161,33 +341,134 @@ class UsuarioServiceTesteUnitario {
                 () -> usuarioService.buscarPorEmail("joao@gmail.com"));
     }
 
+    // =========================
+    // CONSULTA EM LOTE
+    // =========================
+
+    // Usuário "carregado do banco" com o id informado (a entidade não expõe setId)
+    private Usuario usuarioComId(long id) {
+        Usuario usuario = spy(criarUsuarioMock());
+        usuario.setEmail("usuario" + id + "@gmail.com");
+        doReturn(id).when(usuario).getId();
+        return usuario;
+    }
+
+    @Test
+    void deveConsultarEmLoteEmBlocosSoComOsIdsForaDoCache() {
+        // 150 ids: o 1 está no cache, os pares existem no banco, os ímpares (exceto o 1) não
+        List<Long> ids = LongStream.rangeClosed(1, 150).boxed().toList();
+        when(usuarioCache.buscarPorId(anyLong())).thenReturn(Optional.empty());
+        when(usuarioCache.buscarPorId(1L))
+                .thenReturn(Optional.of(new UsuarioResponseDTO(1L, "Cache", "cache@gmail.com", "CLIENTE", null)));
+        when(usuarioRepository.findAllById(any())).thenAnswer(invocacao -> {
+            List<Usuario> encontrados = new ArrayList<>();
+            for (Long id : invocacao.<Iterable<Long>>getArgument(0)) {
+                if (id % 2 == 0) {
+                    encontrados.add(usuarioComId(id));
+                }
+            }
+            // O banco não devolve na ordem pedida
+            Collections.reverse(encontrados);
+            return encontrados;
+        });
+
+        ConsultaEmLoteDTO consulta = new ConsultaEmLoteDTO();
+        consulta.setIds(ids);
+        List<ItemConsultaDTO> itens = new ArrayList<>();
+        usuarioService.consultarEmLote(consulta, itens::add);
+
+        // Um item por id, na ordem enviada
+        assertEquals(ids, itens.stream().map(ItemConsultaDTO::getId).toList());
+        assertEquals("Cache", itens.get(0).getUsuario().getNome());
+        assertEquals(SituacaoItemConsulta.ENCONTRADO, itens.get(1).getSituacao());
+        assertEquals(2L, itens.get(1).getUsuario().getId());
+        assertEquals(SituacaoItemConsulta.NAO_ENCONTRADO, itens.get(2).getSituacao());
+        assertNull(itens.get(2).getUsuario());
+
+        // Dois blocos (100 + 50); o id em cache não vai ao banco
+        verify(usuarioRepository).findAllById(argThat(bloco -> bloco instanceof Set<Long> set
+                && set.size() == 99 && !set.contains(1L)));
+        verify(usuarioRepository).findAllById(argThat(bloco -> bloco instanceof Set<Long> set
+                && set.size() == 50));
+        verify(usuarioCache, never()).guardar(any());
+    }
+
+    @Test
+    void escritaDuranteAConsultaEmLoteNaoDeveDevolverAVersaoAntigaAoCache() {
+        when(usuarioCache.buscarPorId(2L)).thenReturn(Optional.empty());
+        Usuario lido = usuarioComId(2L);
+        when(usuarioRepository.findAllById(any())).thenAnswer(invocacao -> {
+            // Uma atualização confirma e invalida o cache depois que a linha foi lida
+            usuarioCache.invalidar(2L);
+            return List.of(lido);
+        });
+
+        ConsultaEmLoteDTO consulta = new ConsultaEmLoteDTO();
+        consulta.setIds(List.of(2L));
+        List<ItemConsultaDTO> itens = new ArrayList<>();
+        usuarioService.consultarEmLote(consulta, itens::add);
+
+        assertEquals(2L, itens.getFirst().getUsuario().getId());
+        verify(usuarioCache).invalidar(2L);
+        verify(usuarioCache, never()).guardar(any());
+    }
+
+    @Test
+    void deveConsultarEmLotePorEmailMarcandoOsNaoEncontrados() {
+        when(usuarioCache.buscarPorEmail(any())).thenReturn(Optional.empty());
+        Usuario encontrado = usuarioComId(7L);
+        when(usuarioRepository.findAllByEmails(any())).thenReturn(List.of(encontrado));
+
+        ConsultaEmLoteDTO consulta = new ConsultaEmLoteDTO();
+        consulta.setEmails(List.of("ninguem@gmail.com", "usuario7@gmail.com"));
+        List<ItemConsultaDTO> itens = new ArrayList<>();
+        usuarioService.consultarEmLote(consulta, itens::add);
+
+        assertEquals(2, itens.size());
+        assertEquals("ninguem@gmail.com", itens.get(0).getEmail());
+        assertEquals(SituacaoItemConsulta.NAO_ENCONTRADO, itens.get(0).getSituacao());
+        assertEquals(7L, itens.get(1).getUsuario().getId());
+        verify(usuarioRepository, never()).findAllById(any());
+    }
+
     // =========================
     // DELETAR
     // =========================
 
     @Test
     void deveDeletarUsuarioComSucesso() {
-        // Mock: Simula que usuário existe
-        when(usuarioRepository.existsById(1L)).thenReturn(true);
+        // Mock: Simula que o UPDATE da exclusão lógica afetou a linha
+        when(usuarioRepository.marcarComoDeletado(eq(1L), any())).thenReturn(1);
+        // Versão já avançada pelo UPDATE da exclusão lógica
+        when(usuarioRepository.findVersaoDoRemovido(1L)).thenReturn(4L);
 
         // Chama método real
         usuarioService.deletar(1L);
 
-        // Verifica se deleteById foi chamado
-        verify(usuarioRepository).deleteById(1L);
+        // Verifica que a linha não é apagada na requisição, o email é liberado,
+        // o evento registrado e o cache invalidado
+        verify(usuarioRepository, never()).deleteById(any());
+        verify(usuarioRepository).liberarEmailDoUsuario(1L);
+        verify(eventoRepository).save(argThat(evento ->
+                evento.getTipo() == TipoEventoUsuario.REMOVIDO && evento.getUsuarioId() == 1L
+                        && evento.getVersao() == 4L));
+        verify(usuarioCache).invalidar(1L);
+        verify(consultasEmAndamento).invalidar(1L);
+        verify(consultasEmAndamento).invalidarEmails();
+        verify(pesquisaDeUsuarios).remover(1L);
     }
 
     @Test
     void deveLancarExcecaoAoDeletarUsuarioInexistente() {
-        // Mock: Simula que usuário não existe
-        when(usuarioRepository.existsById(1L)).thenReturn(false);
+        // Mock: Simula que nenhuma linha ativa tinha esse id
+        when(usuarioRepository.marcarComoDeletado(eq(1L), any())).thenReturn(0);
 
         // Verifica se exceção correta é lançada
         assertThrows(UsuarioNaoEncontradoException.class,
                 () -> usuarioService.deletar(1L));
 
-        // Garante que deleteById nunca foi chamado
-        verify(usuarioRepository, never()).deleteById(any());
+        // Garante que nenhum evento de remoção foi gravado
+        verify(eventoRepository, never()).save(any());
     }
 
     // =========================
@@ -209,11 +490,8 @@ class UsuarioServiceTesteUnitario {
         when(usuarioRepository.findById(1L))
                 .thenReturn(Optional.of(usuarioExistente));
 
-        when(usuarioRepository.existsByEmail(dto.getEmail()))
-                .thenReturn(false);
-
         // Mock: save retorna o mesmo usuário
-        when(usuarioRepository.save(any()))
+        when(usuarioRepository.saveAndFlush(any()))
                 .thenReturn(usuarioExistente);
 
         // Chama método real
@@ -223,8 +501,14 @@ class UsuarioServiceTesteUnitario {
         assertEquals("Novo Nome", usuarioExistente.getNome());
         assertEquals("novo@gmail.com", usuarioExistente.getEmail());
 
-        // Garante que save foi chamado com o usuário correto
-        verify(usuarioRepository).save(usuarioExistente);
+        // Garante que save foi chamado com o usuário correto, o diretório trocou
+        // o email antigo pelo novo e o cache foi invalidado
+        verify(usuarioRepository).saveAndFlush(usuarioExistente);
+        verify(usuarioRepository).liberarEmail("joao@gmail.com");
+        verify(consultasEmAndamento).invalidar(1L, "joao@gmail.com", "novo@gmail.com");
+        verify(usuarioRepository).registrarEmails(List.of(usuarioExistente));
+        verify(usuarioCache).invalidar(1L);
+        verify(pesquisaDeUsuarios).indexar(any(), eq("Novo Nome"), eq("novo@gmail.com"));
     }
 
     @Test
@@ -254,14 +538,77 @@ class UsuarioServiceTesteUnitario {
         // Mock: findById retorna usuário que será atualizado
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuarioExistente));
 
-        // Mock: existsByEmail retorna true, simulando outro usuário com esse email
-        when(usuarioRepository.existsByEmail(dto.getEmail())).thenReturn(true);
+        // Mock: a restrição única rejeita o email de outro usuário
+        when(usuarioRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_usuarios_email"));
 
-        // Verifica se a exceção EmailJaCadastradoException é lançada
-        assertThrows(EmailJaCadastradoException.class,
+        // Verifica se a violação é propagada para o ManipuladorDeExcecoesGlobal traduzir em 409
+        assertThrows(DataIntegrityViolationException.class,
                 () -> usuarioService.atualizar(1L, dto));
 
-        // Garante que save nunca foi chamado
-        verify(usuarioRepository, never()).save(any());
+        // Garante que o cache não foi invalidado por uma escrita que falhou
+        verify(usuarioCache, never()).invalidar(any());
+    }
+
+    @Test
+    void deveLancarExcecaoAoAtualizarComVersaoDesatualizada() {
+        // Usuário no banco em versão diferente da informada no If-Match
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(criarUsuarioMock()));
+
+        UsuarioRequestDTO dto = new UsuarioRequestDTO();
+        dto.setNome("João Atualizado");
+        dto.setEmail("joao@gmail.com");
+        dto.setSenha("123456");
+
+        assertThrows(VersaoDesatualizadaException.class,
+                () -> usuarioService.atualizar(1L, dto, 3L));
+
+        // Rejeitado antes de calcular o hash e de gravar
+        verifyNoInteractions(hashDeSenha);
+        verify(usuarioRepository, never()).saveAndFlush(any());
+    }
+
+    // =========================
+    // ATUALIZAR PARCIALMENTE
+    // =========================
+
+    @Test
+    void deveAtualizarParcialmenteApenasOsCamposEnviados() {
+        Usuario usuarioExistente = criarUsuarioMock();
+
+        // Só o nome é enviado
+        AtualizacaoParcialUsuarioDTO dto = new AtualizacaoParcialUsuarioDTO();
+        dto.setNome("Novo Nome");
+
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuarioExistente));
+        when(usuarioRepository.saveAndFlush(any())).thenReturn(usuarioExistente);
+
+        UsuarioResponseDTO response = usuarioService.atualizarParcial(1L, dto, null);
+
+        assertEquals("Novo Nome", response.getNome());
+        assertEquals("joao@gmail.com", usuarioExistente.getEmail());
+        assertEquals("123456", usuarioExistente.getSenha());
+
+        // Senha não enviada: nenhum hash é calculado
+        verifyNoInteractions(hashDeSenha);
+        verify(usuarioCache).invalidar(1L);
+        verify(pesquisaDeUsuarios).indexar(any(), eq("Novo Nome"), eq("joao@gmail.com"));
+    }
+
+    @Test
+    void naoDeveGravarQuandoPatchNaoAlteraNada() {
+        // Mesmos valores já gravados
+        AtualizacaoParcialUsuarioDTO dto = new AtualizacaoParcialUsuarioDTO();
+        dto.setNome("João");
+        dto.setEmail("joao@gmail.com");
+
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(criarUsuarioMock()));
+
+        UsuarioResponseDTO response = usuarioService.atualizarParcial(1L, dto, null);
+
+        assertEquals("João", response.getNome());
+        verify(usuarioRepository, never()).saveAndFlush(any());
+        verify(usuarioCache, never()).invalidar(any());
+        verifyNoInteractions(pesquisaDeUsuarios);
     }
 }